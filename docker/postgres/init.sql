@@ -1,16 +1,99 @@
 -- Script de inicialização do banco de dados
--- Criação de índices e configurações específicas
+-- Criação de tabelas particionadas, índices e configurações específicas
+-- É o esquema de referência: o docker-compose sobe a aplicação com ddl-auto=validate, então
+-- toda tabela e sequência mapeada pelas entidades precisa ser criada aqui
 
--- Criar índices para melhor performance
+-- Sequências dos geradores de ID (pooled: o incremento é o allocationSize das entidades)
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS outbox_eventos_seq INCREMENT BY 50;
+
+-- Pedidos e produtos particionados por mês de created_at (o produto leva o created_at do pedido).
+-- Chaves primárias e constraints unique precisam incluir a chave de partição; a unicidade de
+-- external_id fica em order_external_ids. Consultas com filtro em created_at só leem as
+-- partições do intervalo, e a retenção apaga partições inteiras (ManutencaoParticoesPedidos).
+CREATE TABLE IF NOT EXISTS orders (
+    id          bigint         NOT NULL,
+    external_id varchar(255)   NOT NULL,
+    total       numeric(10, 2),
+    status      varchar(255)   NOT NULL CHECK (status IN ('RECEBIDO', 'PROCESSADO', 'ERRO', 'CANCELADO')),
+    created_at  timestamp(6)   NOT NULL,
+    updated_at  timestamp(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS products (
+    id         bigint         NOT NULL,
+    nome       varchar(255)   NOT NULL,
+    preco      numeric(10, 2) NOT NULL,
+    pedido_id  bigint         NOT NULL,
+    created_at timestamp(6)   NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Reivindicação dos externalIds (fora das partições). A retenção apaga em lotes, pelo índice de
+-- created_at, as linhas dos meses cujas partições foram removidas
+CREATE TABLE IF NOT EXISTS order_external_ids (
+    external_id varchar(255) PRIMARY KEY,
+    pedido_id   bigint       NOT NULL,
+    created_at  timestamp(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_order_external_ids_created_at ON order_external_ids(created_at);
+
+-- Partições do mês corrente e dos 3 seguintes; a aplicação mantém as próximas
+DO $$
+DECLARE
+    mes date;
+BEGIN
+    FOR i IN 0..3 LOOP
+        mes := date_trunc('month', now()) + make_interval(months => i);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       'orders_p' || to_char(mes, 'YYYYMM'), mes, (mes + interval '1 month')::date);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF products FOR VALUES FROM (%L) TO (%L)',
+                       'products_p' || to_char(mes, 'YYYYMM'), mes, (mes + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+-- Criar índices para melhor performance (criados em cada partição)
 CREATE INDEX IF NOT EXISTS idx_orders_external_id ON orders(external_id);
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
 CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
 
+-- Paginação por keyset em (created_at, id), com e sem filtro de status
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders(status, created_at, id);
+
 -- Criar índices para produtos
 CREATE INDEX IF NOT EXISTS idx_products_pedido_id ON products(pedido_id);
 
+-- Outbox: eventos gravados na transação do pedido e publicados pelo OutboxRelay
+CREATE TABLE IF NOT EXISTS outbox_eventos (
+    id           bigint       PRIMARY KEY,
+    topico       varchar(255) NOT NULL,
+    chave        varchar(255) NOT NULL,
+    payload      text         NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    published_at timestamp(6)
+);
+
+-- Índice parcial só com os eventos ainda não publicados (varrido pelo relay)
+CREATE INDEX IF NOT EXISTS idx_outbox_eventos_pendentes ON outbox_eventos(id) WHERE published_at IS NULL;
+
+-- Bancos criados antes da troca de IDENTITY para SEQUENCE: alinhar as sequências
+-- ao maior ID existente antes de subir a nova versão
+-- SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders));
+-- SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 100 FROM products));
+
+-- Bancos criados antes do particionamento: renomear orders/products para *_legado, rodar este
+-- script, criar as partições dos meses já existentes (mesmo padrão <tabela>_pAAAAMM), copiar os
+-- dados e preencher as reivindicações antes de subir a nova versão
+-- INSERT INTO orders SELECT id, external_id, total, status, created_at, updated_at FROM orders_legado;
+-- INSERT INTO products SELECT p.id, p.nome, p.preco, p.pedido_id, o.created_at
+--     FROM products_legado p JOIN orders_legado o ON o.id = p.pedido_id;
+-- INSERT INTO order_external_ids SELECT external_id, id, created_at FROM orders_legado;
+
 -- Configurar timezone
 SET timezone = 'UTC';
 
 -- Verificar se as tabelas foram criadas corretamente
-SELECT 'Database initialized successfully' as status; 
\ No newline at end of file
+SELECT 'Database initialized successfully' as status;
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.order.application.dto;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasPedidosDTO {
+    
+    // false enquanto os pedidos anteriores à subida ainda estão sendo lidos do banco
+    private boolean carregado;
+    
+    private LocalDateTime geradoEm;
+    
+    private ResumoDTO total;
+    
+    private Map<PedidoStatus, ResumoDTO> porStatus;
+    
+    // Do mais antigo ao minuto atual (ainda em andamento)
+    private List<MinutoDTO> porMinuto;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResumoDTO {
+        
+        private long pedidos;
+        
+        private Dinheiro receita;
+        
+        private long itens;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MinutoDTO {
+        
+        private LocalDateTime inicio;
+        
+        private ResumoDTO total;
+        
+        private Map<PedidoStatus, ResumoDTO> porStatus;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.order.application.dto;
+
+import com.example.order.domain.entity.PedidoEntity;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaPedidosDTO {
+    
+    private List<PedidoEntity> pedidos;
+    
+    // Produtos por id do pedido; só presente com include=produtos
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Long, List<ProdutoResponseDTO>> produtos;
+    
+    // null quando não há próxima página
+    private String proximoCursor;
+    
+    private int limite;
+}
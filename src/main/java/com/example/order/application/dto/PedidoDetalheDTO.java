@@ -0,0 +1,32 @@
+package com.example.order.application.dto;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoDetalheDTO {
+    
+    private Long id;
+    
+    private String externalId;
+    
+    private Dinheiro total;
+    
+    private PedidoStatus status;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    private List<ProdutoResponseDTO> produtos;
+}
\ No newline at end of file
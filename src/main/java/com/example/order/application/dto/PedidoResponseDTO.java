@@ -0,0 +1,37 @@
+package com.example.order.application.dto;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoResponseDTO {
+    
+    private boolean success;
+    
+    private String message;
+    
+    private Long id;
+    
+    // Mantido por compatibilidade com clientes da resposta antiga; igual a id
+    private Long pedidoId;
+    
+    private String externalId;
+    
+    private PedidoStatus status;
+    
+    private Dinheiro total;
+    
+    private LocalDateTime createdAt;
+    
+    private List<ProdutoResponseDTO> produtos;
+}
@@ -1,5 +1,6 @@
 package com.example.order.application.dto;
 
+import com.example.order.domain.valor.Dinheiro;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -8,8 +9,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,5 +20,5 @@ public class ProdutoDTO {
     
     @NotNull(message = "Preço é obrigatório")
     @Positive(message = "Preço deve ser maior que zero")
-    private BigDecimal preco;
+    private Dinheiro preco;
 } 
\ No newline at end of file
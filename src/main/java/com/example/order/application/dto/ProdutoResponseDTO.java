@@ -0,0 +1,20 @@
+package com.example.order.application.dto;
+
+import com.example.order.domain.valor.Dinheiro;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProdutoResponseDTO {
+    
+    private Long id;
+    
+    private String nome;
+    
+    private Dinheiro preco;
+}
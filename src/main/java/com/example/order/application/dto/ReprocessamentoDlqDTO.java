@@ -0,0 +1,19 @@
+package com.example.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReprocessamentoDlqDTO {
+    
+    private String topicoDlq;
+    
+    private String topicoDestino;
+    
+    private int reinjetados;
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.order.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoIngestaoDTO {
+    
+    public enum Situacao {
+        CRIADO,
+        DUPLICADO,
+        INVALIDO,
+        ERRO
+    }
+    
+    private String externalId;
+    
+    private Situacao situacao;
+    
+    private Long pedidoId;
+    
+    private String mensagem;
+}
@@ -0,0 +1,30 @@
+package com.example.order.application.dto;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StatusPedidoDTO {
+    
+    private String externalId;
+    
+    private PedidoStatus status;
+    
+    // Só depois de gravado
+    private Long pedidoId;
+    
+    // Causa da falha quando status = ERRO
+    private String mensagem;
+    
+    private LocalDateTime atualizadoEm;
+}
\ No newline at end of file
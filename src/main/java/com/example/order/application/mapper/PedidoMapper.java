@@ -1,10 +1,14 @@
 package com.example.order.application.mapper;
 
 import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.PedidoDetalheDTO;
+import com.example.order.application.dto.PedidoResponseDTO;
 import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.ProdutoResponseDTO;
 import com.example.order.domain.entity.PedidoEntity;
 import com.example.order.domain.entity.ProdutoEntity;
 import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.infrastructure.repository.PedidoProdutoProjecao;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -23,7 +27,31 @@ public interface PedidoMapper {
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "pedidoId", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
     ProdutoEntity toEntity(ProdutoDTO dto);
     
     List<ProdutoEntity> toEntityList(List<ProdutoDTO> dtos);
+    
+    @Mapping(target = "success", constant = "true")
+    @Mapping(target = "message", constant = "Pedido criado com sucesso")
+    @Mapping(target = "id", source = "pedido.id")
+    @Mapping(target = "pedidoId", source = "pedido.id")
+    @Mapping(target = "externalId", source = "pedido.externalId")
+    @Mapping(target = "status", source = "pedido.status")
+    @Mapping(target = "total", source = "pedido.total")
+    @Mapping(target = "createdAt", source = "pedido.createdAt")
+    @Mapping(target = "produtos", source = "produtos")
+    PedidoResponseDTO toResponse(PedidoEntity pedido, List<ProdutoEntity> produtos);
+    
+    ProdutoResponseDTO toResponse(ProdutoEntity produto);
+    
+    List<ProdutoResponseDTO> toResponseList(List<ProdutoEntity> produtos);
+    
+    @Mapping(target = "produtos", ignore = true)
+    PedidoDetalheDTO toDetalhe(PedidoProdutoProjecao linha);
+    
+    @Mapping(target = "id", source = "produtoId")
+    @Mapping(target = "nome", source = "produtoNome")
+    @Mapping(target = "preco", source = "produtoPreco")
+    ProdutoResponseDTO toProdutoResponse(PedidoProdutoProjecao linha);
 } 
\ No newline at end of file
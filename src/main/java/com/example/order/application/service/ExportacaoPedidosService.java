@@ -0,0 +1,295 @@
+package com.example.order.application.service;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de pedidos com seus produtos em NDJSON ou CSV, em streaming.
+ * <p>
+ * A consulta (pedidos com LEFT JOIN em produtos, ordenada por {@code created_at, id}) é lida
+ * por um cursor do servidor: numa transação somente leitura o driver do PostgreSQL busca
+ * {@code pedidos.exportacao.fetch-size} linhas por vez em vez do resultado inteiro. Cada
+ * linha é escrita na saída assim que lida, sem montar entidades nem listas, então o heap
+ * usado não depende do tamanho da exportação. A saída é descarregada logo após a primeira
+ * linha para que o cliente receba os primeiros bytes sem esperar o buffer encher.
+ */
+@Service
+@Slf4j
+public class ExportacaoPedidosService {
+    
+    public enum Formato {
+        NDJSON,
+        CSV
+    }
+    
+    private static final String CONSULTA = """
+            SELECT o.id, o.external_id, o.status, o.total, o.created_at, p.id, p.nome, p.preco
+            FROM orders o
+            LEFT JOIN products p ON p.pedido_id = o.id AND p.created_at = o.created_at
+            WHERE o.created_at >= ?""";
+    private static final String ORDENACAO = " ORDER BY o.created_at, o.id, p.id";
+    private static final LocalDateTime INICIO_PADRAO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacaoLeitura;
+    private final ObjectMapper objectMapper;
+    
+    public ExportacaoPedidosService(DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${pedidos.exportacao.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        // Sem autocommit o driver do PostgreSQL usa cursor e respeita o fetch size
+        this.transacaoLeitura.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Escreve na saída os pedidos criados em {@code [desde, ate)}, opcionalmente filtrados
+     * por status. A saída não é fechada; com {@code gzip} o stream compactado é finalizado.
+     */
+    public void exportar(PedidoStatus status, LocalDateTime desde, LocalDateTime ate,
+                         Formato formato, boolean gzip, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        List<Object> parametros = new ArrayList<>(3);
+        StringBuilder sql = new StringBuilder(CONSULTA);
+        parametros.add(Timestamp.valueOf(desde != null ? desde : INICIO_PADRAO));
+        if (ate != null) {
+            sql.append(" AND o.created_at < ?");
+            parametros.add(Timestamp.valueOf(ate));
+        }
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            parametros.add(status.name());
+        }
+        sql.append(ORDENACAO);
+        
+        GZIPOutputStream compactado = gzip ? new GZIPOutputStream(saida, TAMANHO_BUFFER, true) : null;
+        EscritorExportacao escritor = criarEscritor(formato, compactado != null ? compactado : saida);
+        long[] linhas = {0};
+        
+        try {
+            transacaoLeitura.executeWithoutResult(transacao -> jdbcTemplate.query(sql.toString(), rs -> {
+                long produtoId = rs.getLong(6);
+                boolean semProduto = rs.wasNull();
+                Timestamp createdAt = rs.getTimestamp(5);
+                try {
+                    escritor.linha(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4),
+                            createdAt != null ? createdAt.toLocalDateTime() : null,
+                            semProduto ? null : produtoId, rs.getString(7), rs.getBigDecimal(8));
+                    if (++linhas[0] == 1) {
+                        escritor.descarregar();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, parametros.toArray()));
+        } catch (UncheckedIOException e) {
+            // Em geral o cliente desistiu do download: a transação já foi desfeita
+            throw e.getCause();
+        }
+        
+        escritor.finalizar();
+        if (compactado != null) {
+            compactado.finish();
+        }
+        log.info("Exportação {} concluída: {} pedidos, {} linhas em {} ms", formato, escritor.pedidos(),
+                linhas[0], (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    EscritorExportacao criarEscritor(Formato formato, OutputStream saida) throws IOException {
+        return switch (formato) {
+            case NDJSON -> new EscritorNdjson(objectMapper.getFactory().createGenerator(saida)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+            case CSV -> new EscritorCsv(new BufferedWriter(
+                    new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER));
+        };
+    }
+    
+    /**
+     * Recebe as linhas da consulta na ordem em que chegam do banco. As linhas de um mesmo
+     * pedido são consecutivas, então basta comparar o id com o da linha anterior.
+     */
+    abstract static class EscritorExportacao {
+        
+        private long pedidoAtual;
+        private long pedidos;
+        
+        void linha(long pedidoId, String externalId, String status, BigDecimal total, LocalDateTime createdAt,
+                   Long produtoId, String nome, BigDecimal preco) throws IOException {
+            if (pedidos == 0 || pedidoId != pedidoAtual) {
+                if (pedidos > 0) {
+                    fimPedido();
+                }
+                pedidoAtual = pedidoId;
+                pedidos++;
+                inicioPedido(pedidoId, externalId, status, total, createdAt);
+            }
+            produto(produtoId, nome, preco);
+        }
+        
+        void finalizar() throws IOException {
+            if (pedidos > 0) {
+                fimPedido();
+            }
+            descarregar();
+        }
+        
+        long pedidos() {
+            return pedidos;
+        }
+        
+        abstract void inicioPedido(long pedidoId, String externalId, String status, BigDecimal total,
+                                   LocalDateTime createdAt) throws IOException;
+        
+        /** Chamado uma vez por linha; {@code produtoId} é nulo para pedido sem produtos. */
+        abstract void produto(Long produtoId, String nome, BigDecimal preco) throws IOException;
+        
+        abstract void fimPedido() throws IOException;
+        
+        abstract void descarregar() throws IOException;
+    }
+    
+    /** Um objeto JSON por pedido e por linha, com os produtos aninhados. */
+    static final class EscritorNdjson extends EscritorExportacao {
+        
+        private final JsonGenerator json;
+        
+        EscritorNdjson(JsonGenerator json) {
+            this.json = json;
+            this.json.setRootValueSeparator(null);
+        }
+        
+        @Override
+        void inicioPedido(long pedidoId, String externalId, String status, BigDecimal total,
+                          LocalDateTime createdAt) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", pedidoId);
+            json.writeStringField("externalId", externalId);
+            json.writeStringField("status", status);
+            json.writeNumberField("total", total);
+            json.writeStringField("createdAt", createdAt != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(createdAt) : null);
+            json.writeArrayFieldStart("produtos");
+        }
+        
+        @Override
+        void produto(Long produtoId, String nome, BigDecimal preco) throws IOException {
+            if (produtoId == null) {
+                return;
+            }
+            json.writeStartObject();
+            json.writeNumberField("id", produtoId);
+            json.writeStringField("nome", nome);
+            json.writeNumberField("preco", preco);
+            json.writeEndObject();
+        }
+        
+        @Override
+        void fimPedido() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        
+        @Override
+        void descarregar() throws IOException {
+            json.flush();
+        }
+    }
+    
+    /** Uma linha por produto, repetindo as colunas do pedido (RFC 4180). */
+    static final class EscritorCsv extends EscritorExportacao {
+        
+        static final String CABECALHO =
+                "pedido_id,external_id,status,total,created_at,produto_id,produto_nome,produto_preco\r\n";
+        
+        private final Writer saida;
+        private final StringBuilder colunasPedido = new StringBuilder(128);
+        
+        EscritorCsv(Writer saida) throws IOException {
+            this.saida = saida;
+            this.saida.write(CABECALHO);
+        }
+        
+        @Override
+        void inicioPedido(long pedidoId, String externalId, String status, BigDecimal total,
+                          LocalDateTime createdAt) throws IOException {
+            colunasPedido.setLength(0);
+            colunasPedido.append(pedidoId).append(',');
+            escapar(colunasPedido, externalId);
+            colunasPedido.append(',').append(status).append(',');
+            if (total != null) {
+                colunasPedido.append(total.toPlainString());
+            }
+            colunasPedido.append(',');
+            if (createdAt != null) {
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(createdAt, colunasPedido);
+            }
+            colunasPedido.append(',');
+        }
+        
+        @Override
+        void produto(Long produtoId, String nome, BigDecimal preco) throws IOException {
+            saida.append(colunasPedido);
+            if (produtoId != null) {
+                saida.write(Long.toString(produtoId));
+                saida.write(',');
+                escapar(saida, nome);
+                saida.write(',');
+                saida.write(preco.toPlainString());
+            } else {
+                saida.write(',');
+                saida.write(',');
+            }
+            saida.write("\r\n");
+        }
+        
+        @Override
+        void fimPedido() {
+        }
+        
+        @Override
+        void descarregar() throws IOException {
+            saida.flush();
+        }
+        
+        private static void escapar(Appendable destino, String valor) throws IOException {
+            if (valor == null) {
+                return;
+            }
+            boolean aspas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                    || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+            if (!aspas) {
+                destino.append(valor);
+                return;
+            }
+            destino.append('"').append(valor.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.StatusPedidoDTO;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.infrastructure.cache.AcompanhamentoIngestao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Aceite assíncrono de pedidos: o pedido já validado é publicado em {@code pedidos.recebidos}
+ * (chave = externalId) e quem grava é o listener do Kafka. A requisição só espera a
+ * confirmação do broker, limitada a {@code pedidos.async.timeout-envio}, então a latência do
+ * cliente não depende da do banco e picos ficam no tópico.
+ */
+@Service
+@Slf4j
+public class IngestaoAssincronaService {
+    
+    static final String TOPICO = "pedidos.recebidos";
+    
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final PedidoService pedidoService;
+    private final AcompanhamentoIngestao acompanhamento;
+    private final long timeoutEnvioMs;
+    private final Timer aceite;
+    
+    public IngestaoAssincronaService(KafkaTemplate<String, String> kafkaTemplate,
+                                     ObjectMapper objectMapper,
+                                     PedidoService pedidoService,
+                                     AcompanhamentoIngestao acompanhamento,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${pedidos.async.timeout-envio:PT5S}") Duration timeoutEnvio) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.pedidoService = pedidoService;
+        this.acompanhamento = acompanhamento;
+        this.timeoutEnvioMs = timeoutEnvio.toMillis();
+        this.aceite = Timer.builder("pedidos.async.aceite")
+                .description("Tempo para publicar um pedido aceito de forma assíncrona")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    public StatusPedidoDTO aceitar(PedidoDTO pedidoDTO) {
+        String externalId = pedidoDTO.getExternalId();
+        long inicio = System.nanoTime();
+        try {
+            kafkaTemplate.send(TOPICO, externalId, objectMapper.writeValueAsString(pedidoDTO))
+                    .get(timeoutEnvioMs, TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Pedido não serializável: " + externalId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestaoIndisponivelException("Envio interrompido: " + externalId, e);
+        } catch (ExecutionException | TimeoutException | KafkaException e) {
+            log.error("Falha ao publicar pedido assíncrono {}: {}", externalId, e.getMessage());
+            throw new IngestaoIndisponivelException("Não foi possível aceitar o pedido agora: " + externalId, e);
+        } finally {
+            aceite.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        
+        acompanhamento.registrarRecebido(externalId);
+        log.info("Pedido {} aceito para processamento assíncrono", externalId);
+        return StatusPedidoDTO.builder()
+                .externalId(externalId)
+                .status(PedidoStatus.RECEBIDO)
+                .atualizadoEm(LocalDateTime.now())
+                .build();
+    }
+    
+    /**
+     * Status do pedido gravado, se existir; senão, o registrado no aceite ou na DLQ.
+     */
+    public Optional<StatusPedidoDTO> consultarStatus(String externalId) {
+        Optional<StatusPedidoDTO> gravado = pedidoService.encontrarPorExternalId(externalId)
+                .map(pedido -> StatusPedidoDTO.builder()
+                        .externalId(externalId)
+                        .status(pedido.getStatus())
+                        .pedidoId(pedido.getId())
+                        .atualizadoEm(pedido.getUpdatedAt())
+                        .build());
+        if (gravado.isPresent()) {
+            return gravado;
+        }
+        return acompanhamento.buscar(externalId)
+                .map(situacao -> StatusPedidoDTO.builder()
+                        .externalId(externalId)
+                        .status(situacao.status())
+                        .mensagem(situacao.mensagem())
+                        .atualizadoEm(situacao.atualizadoEm())
+                        .build());
+    }
+}
\ No newline at end of file
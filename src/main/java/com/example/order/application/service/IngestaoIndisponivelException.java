@@ -0,0 +1,11 @@
+package com.example.order.application.service;
+
+/**
+ * O pedido não pôde ser entregue ao Kafka a tempo; o cliente pode tentar de novo.
+ */
+public class IngestaoIndisponivelException extends RuntimeException {
+    
+    public IngestaoIndisponivelException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ingestão em massa de pedidos a partir de um corpo NDJSON (ou array JSON).
+ * <p>
+ * O corpo é lido com o parser streaming do Jackson, um pedido por vez, e os pedidos válidos
+ * são gravados em blocos de {@code pedidos.ingestao.lote.tamanho} via
+ * {@link PedidoService#processarLote(List)} (uma transação por bloco). O resultado de cada
+ * pedido é escrito como uma linha NDJSON assim que o bloco é confirmado, na ordem de entrada.
+ * A memória usada é limitada pelo tamanho do bloco, independentemente do tamanho do upload.
+ */
+@Service
+@Slf4j
+public class IngestaoLoteService {
+    
+    private final PedidoService pedidoService;
+    private final Validator validator;
+    private final ObjectReader leitorPedidos;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoBloco;
+    
+    public IngestaoLoteService(PedidoService pedidoService,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${pedidos.ingestao.lote.tamanho:500}") int tamanhoBloco) {
+        this.pedidoService = pedidoService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.leitorPedidos = objectMapper.readerFor(PedidoDTO.class);
+        this.tamanhoBloco = tamanhoBloco;
+    }
+    
+    public void ingerir(InputStream entrada, OutputStream saida) throws IOException {
+        Map<ResultadoIngestaoDTO.Situacao, Integer> totais = new EnumMap<>(ResultadoIngestaoDTO.Situacao.class);
+        List<ItemBloco> bloco = new ArrayList<>(tamanhoBloco);
+        
+        try (MappingIterator<PedidoDTO> pedidos = leitorPedidos.readValues(entrada);
+             SequenceWriter resultados = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(saida)) {
+            
+            while (proximo(pedidos, bloco)) {
+                if (bloco.size() >= tamanhoBloco) {
+                    gravarBloco(bloco, resultados, totais);
+                }
+            }
+            gravarBloco(bloco, resultados, totais);
+        }
+        
+        log.info("Ingestão em lote concluída: {}", totais);
+    }
+    
+    /**
+     * Lê o próximo pedido do corpo para o bloco. Erros de mapeamento (tipo errado, campo
+     * inválido) invalidam só aquele pedido; JSON malformado encerra a leitura.
+     */
+    private boolean proximo(MappingIterator<PedidoDTO> pedidos, List<ItemBloco> bloco) {
+        try {
+            if (!pedidos.hasNextValue()) {
+                return false;
+            }
+            PedidoDTO pedidoDTO = pedidos.nextValue();
+            if (pedidoDTO == null) {
+                bloco.add(new ItemBloco(null, invalido(null, "Pedido vazio")));
+                return true;
+            }
+            Set<ConstraintViolation<PedidoDTO>> violacoes = validator.validate(pedidoDTO);
+            if (violacoes.isEmpty()) {
+                bloco.add(new ItemBloco(pedidoDTO, null));
+            } else {
+                bloco.add(new ItemBloco(null, invalido(pedidoDTO.getExternalId(), descrever(violacoes))));
+            }
+            return true;
+        } catch (JsonParseException e) {
+            log.warn("JSON malformado na ingestão em lote: {}", e.getOriginalMessage());
+            bloco.add(new ItemBloco(null, invalido(null, "JSON malformado: " + e.getOriginalMessage())));
+            return false;
+        } catch (JsonMappingException e) {
+            bloco.add(new ItemBloco(null, invalido(null, e.getOriginalMessage())));
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler corpo da ingestão em lote", e);
+        }
+    }
+    
+    private void gravarBloco(List<ItemBloco> bloco,
+                             SequenceWriter resultados,
+                             Map<ResultadoIngestaoDTO.Situacao, Integer> totais) throws IOException {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        
+        List<PedidoDTO> validos = new ArrayList<>(bloco.size());
+        for (ItemBloco item : bloco) {
+            if (item.pedido() != null) {
+                validos.add(item.pedido());
+            }
+        }
+        
+        List<ResultadoIngestaoDTO> gravados = validos.isEmpty() ? List.of() : gravar(validos);
+        
+        int proximoGravado = 0;
+        for (ItemBloco item : bloco) {
+            ResultadoIngestaoDTO resultado = item.pedido() != null ? gravados.get(proximoGravado++) : item.resultado();
+            totais.merge(resultado.getSituacao(), 1, Integer::sum);
+            resultados.write(resultado);
+        }
+        resultados.flush();
+        bloco.clear();
+    }
+    
+    private List<ResultadoIngestaoDTO> gravar(List<PedidoDTO> validos) {
+        try {
+            return pedidoService.processarLote(validos);
+        } catch (Exception e) {
+            log.error("Erro ao gravar bloco de {} pedidos: {}", validos.size(), e.getMessage(), e);
+            return validos.stream()
+                    .map(pedido -> ResultadoIngestaoDTO.builder()
+                            .externalId(pedido.getExternalId())
+                            .situacao(ResultadoIngestaoDTO.Situacao.ERRO)
+                            .mensagem("Erro ao gravar bloco: " + e.getMessage())
+                            .build())
+                    .toList();
+        }
+    }
+    
+    private ResultadoIngestaoDTO invalido(String externalId, String mensagem) {
+        return ResultadoIngestaoDTO.builder()
+                .externalId(externalId)
+                .situacao(ResultadoIngestaoDTO.Situacao.INVALIDO)
+                .mensagem(mensagem)
+                .build();
+    }
+    
+    private String descrever(Set<ConstraintViolation<PedidoDTO>> violacoes) {
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+    
+    private record ItemBloco(PedidoDTO pedido, ResultadoIngestaoDTO resultado) {
+    }
+}
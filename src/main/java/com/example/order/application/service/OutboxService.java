@@ -0,0 +1,57 @@
+package com.example.order.application.service;
+
+import com.example.order.domain.entity.OutboxEventoEntity;
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.infrastructure.repository.OutboxEventoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra eventos de {@code pedidos.processados} na tabela de outbox. Exige uma transação
+ * ativa: o evento só existe se o pedido for confirmado, e vice-versa.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+    
+    public static final String TOPICO_PEDIDOS_PROCESSADOS = "pedidos.processados";
+    
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarPedidoProcessado(PedidoEntity pedido) {
+        outboxEventoRepository.save(evento(pedido));
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarPedidosProcessados(List<PedidoEntity> pedidos) {
+        List<OutboxEventoEntity> eventos = new ArrayList<>(pedidos.size());
+        for (PedidoEntity pedido : pedidos) {
+            eventos.add(evento(pedido));
+        }
+        outboxEventoRepository.saveAll(eventos);
+    }
+    
+    private OutboxEventoEntity evento(PedidoEntity pedido) {
+        try {
+            return OutboxEventoEntity.builder()
+                    .topico(TOPICO_PEDIDOS_PROCESSADOS)
+                    .chave(pedido.getExternalId())
+                    .payload(objectMapper.writeValueAsString(pedido))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao serializar pedido para o outbox: {}", e.getMessage());
+            throw new RuntimeException("Erro ao serializar pedido", e);
+        }
+    }
+}
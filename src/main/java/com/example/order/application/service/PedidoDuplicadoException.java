@@ -0,0 +1,20 @@
+package com.example.order.application.service;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * O externalId já foi gravado. Para quem consome do Kafka é um reenvio, não uma falha: o
+ * registro pode ser confirmado sem nova tentativa. Na gravação só sai de um conflito na
+ * reivindicação em {@code order_external_ids}; outras violações de integridade (estouro de
+ * numeric, NOT NULL) são falhas e seguem para retentativa e DLQ.
+ */
+public class PedidoDuplicadoException extends RuntimeException {
+    
+    public PedidoDuplicadoException(String externalId) {
+        super("Pedido já existe: " + externalId);
+    }
+    
+    public PedidoDuplicadoException(String externalId, DuplicateKeyException causa) {
+        super("Pedido já existe: " + externalId, causa);
+    }
+}
\ No newline at end of file
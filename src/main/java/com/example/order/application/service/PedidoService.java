@@ -1,84 +1,228 @@
 package com.example.order.application.service;
 
+import com.example.order.application.dto.CursorPaginacao;
+import com.example.order.application.dto.EstatisticasPedidosDTO;
+import com.example.order.application.dto.PaginaPedidosDTO;
 import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.PedidoDetalheDTO;
+import com.example.order.application.dto.PedidoResponseDTO;
+import com.example.order.application.dto.ProdutoResponseDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
 import com.example.order.application.mapper.PedidoMapper;
 import com.example.order.domain.entity.PedidoEntity;
 import com.example.order.domain.entity.ProdutoEntity;
-import com.example.order.infrastructure.messaging.KafkaPedidoProducer;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.cache.EscritasRecentes;
+import com.example.order.infrastructure.cache.ExternalIdBloomFilter;
+import com.example.order.infrastructure.cache.PedidoCache;
+import com.example.order.infrastructure.config.AmostragemLog;
+import com.example.order.infrastructure.metrics.EstatisticasPedidos;
+import com.example.order.infrastructure.metrics.PedidoMetricas;
+import com.example.order.infrastructure.metrics.PedidoMetricas.Etapa;
+import com.example.order.infrastructure.repository.InsercaoPedidoRepository;
+import com.example.order.infrastructure.repository.PedidoProdutoProjecao;
 import com.example.order.infrastructure.repository.PedidoRepository;
 import com.example.order.infrastructure.repository.ProdutoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.order.application.dto.ProdutoDTO;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PedidoService {
     
+    public static final int LIMITE_PAGINA_PADRAO = 50;
+    public static final int LIMITE_PAGINA_MAXIMO = 500;
+    
+    // Limite inferior quando não há "since" nem cursor
+    private static final LocalDateTime INICIO_PADRAO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
     private final PedidoRepository pedidoRepository;
     private final ProdutoRepository produtoRepository;
     private final PedidoMapper pedidoMapper;
-    private final KafkaPedidoProducer kafkaPedidoProducer;
+    private final OutboxService outboxService;
+    private final ExternalIdBloomFilter externalIdBloomFilter;
+    private final PedidoCache pedidoCache;
+    private final PedidoMetricas pedidoMetricas;
+    private final InsercaoPedidoRepository insercaoPedidoRepository;
+    private final EstatisticasPedidos estatisticasPedidos;
+    private final AmostragemLog amostragemLog;
+    private final EscritasRecentes escritasRecentes;
+    
+    // Com true, o pedido é gravado por INSERT ... ON CONFLICT DO NOTHING (ver InsercaoPedidoRepository);
+    // com false, pelo caminho exists + save do JPA
+    @Value("${pedidos.ingestao.insercao-atomica:true}")
+    private boolean insercaoAtomica;
     
     @Transactional
     public PedidoEntity processarPedido(PedidoDTO pedidoDTO) {
-        log.info("=== INÍCIO DO PROCESSAMENTO ===");
-        log.info("Iniciando processamento do pedido: {}", pedidoDTO.getExternalId());
+        return processarPedido(pedidoDTO, OrigemIngestao.REST);
+    }
+    
+    @Transactional
+    public PedidoEntity processarPedido(PedidoDTO pedidoDTO, OrigemIngestao origem) {
+        return exigirNovo(processar(pedidoDTO, origem), pedidoDTO).pedido();
+    }
+    
+    /**
+     * Ingere um pedido e informa duplicidade no resultado em vez de lançar exceção: reenvios
+     * do mesmo externalId (Kafka, retentativas) concluem como {@code DUPLICADO}.
+     */
+    @Transactional
+    public ResultadoIngestaoDTO ingerir(PedidoDTO pedidoDTO, OrigemIngestao origem) {
+        PedidoAgregado agregado = processar(pedidoDTO, origem);
+        if (agregado == null) {
+            return duplicado(pedidoDTO.getExternalId(), "Pedido já existe: " + pedidoDTO.getExternalId());
+        }
+        return ResultadoIngestaoDTO.builder()
+                .externalId(agregado.pedido().getExternalId())
+                .situacao(ResultadoIngestaoDTO.Situacao.CRIADO)
+                .pedidoId(agregado.pedido().getId())
+                .build();
+    }
+    
+    /**
+     * Cria o pedido via REST e devolve a resposta montada a partir do agregado recém-gravado
+     * (pedido + produtos com IDs gerados), sem reconsultar os produtos.
+     */
+    @Transactional
+    public PedidoResponseDTO criarPedido(PedidoDTO pedidoDTO) {
+        PedidoAgregado agregado = exigirNovo(processar(pedidoDTO, OrigemIngestao.REST), pedidoDTO);
+        return pedidoMapper.toResponse(agregado.pedido(), agregado.produtos());
+    }
+    
+    private PedidoAgregado exigirNovo(PedidoAgregado agregado, PedidoDTO pedidoDTO) {
+        if (agregado == null) {
+            throw new PedidoDuplicadoException(pedidoDTO.getExternalId());
+        }
+        return agregado;
+    }
+    
+    /**
+     * Grava o pedido e seus produtos; devolve {@code null} se o externalId já existe.
+     */
+    private PedidoAgregado processar(PedidoDTO pedidoDTO, OrigemIngestao origem) {
+        // Linhas por etapa só para os pedidos amostrados; duplicados e falhas sempre saem
+        boolean detalhar = log.isInfoEnabled() && amostragemLog.detalhar(pedidoDTO.getExternalId());
+        if (detalhar) {
+            log.atInfo()
+                    .addKeyValue("externalId", pedidoDTO.getExternalId())
+                    .addKeyValue("origem", origem)
+                    .addKeyValue("produtos", pedidoDTO.getProdutos().size())
+                    .log("Processamento de pedido iniciado");
+        }
+        long inicioProcessamento = System.nanoTime();
+        long inicioEtapa = inicioProcessamento;
         
-        if (pedidoRepository.existsByExternalId(pedidoDTO.getExternalId())) {
-            log.warn("Pedido já existe: {}", pedidoDTO.getExternalId());
-            throw new RuntimeException("Pedido já existe: " + pedidoDTO.getExternalId());
+        // Na inserção atômica a duplicidade é decidida pelo próprio INSERT
+        if (!insercaoAtomica && externalIdBloomFilter.podeConter(pedidoDTO.getExternalId())) {
+            // Ausência no filtro de Bloom é definitiva: só vamos ao banco quando o externalId pode existir
+            if (pedidoRepository.existsByExternalId(pedidoDTO.getExternalId())) {
+                pedidoMetricas.registrarEtapa(origem, Etapa.DUPLICIDADE, inicioEtapa);
+                pedidoMetricas.registrarDuplicados(origem, 1);
+                log.atWarn().addKeyValue("externalId", pedidoDTO.getExternalId()).addKeyValue("origem", origem)
+                        .log("Pedido já existe");
+                return null;
+            }
+            externalIdBloomFilter.registrarFalsoPositivo();
         }
+        inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.DUPLICIDADE, inicioEtapa);
         
         try {
-            log.info("=== CONVERTENDO DTO ===");
             PedidoEntity pedido = pedidoMapper.toEntity(pedidoDTO);
-            log.info("DTO convertido com sucesso. Pedido: {}", pedido);
-            
             pedido.marcarComoProcessado();
-            log.info("Pedido marcado como processado");
+            inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.MAPEAMENTO, inicioEtapa);
             
-            log.info("=== CALCULANDO TOTAL ===");
-            BigDecimal total = pedidoDTO.getProdutos().stream()
-                    .map(ProdutoDTO::getPreco)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            Dinheiro total = calcularTotal(pedidoDTO.getProdutos());
             pedido.calcularTotal(total);
-            log.info("Total calculado: {}", total);
+            inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.TOTAL, inicioEtapa);
             
-
-            log.info("=== SALVANDO APENAS O PEDIDO ===");
-            log.info("Pedido antes de salvar: {}", pedido);
-            PedidoEntity pedidoSalvo = pedidoRepository.save(pedido);
-            log.info("Pedido salvo com sucesso: {}", pedidoSalvo.getId());
-            log.info("Pedido completo: {}", pedidoSalvo);
+            PedidoEntity pedidoSalvo = insercaoAtomica ? inserirSeAusente(pedido) : salvarEReivindicar(pedido);
+            if (pedidoSalvo == null) {
+                pedidoMetricas.registrarEtapa(origem, Etapa.PEDIDO, inicioEtapa);
+                pedidoMetricas.registrarDuplicados(origem, 1);
+                log.atWarn().addKeyValue("externalId", pedidoDTO.getExternalId()).addKeyValue("origem", origem)
+                        .log("Pedido já existe");
+                return null;
+            }
+            if (detalhar) {
+                log.atInfo()
+                        .addKeyValue("externalId", pedidoSalvo.getExternalId())
+                        .addKeyValue("pedidoId", pedidoSalvo.getId())
+                        .addKeyValue("total", total)
+                        .log("Pedido gravado");
+            }
+            externalIdBloomFilter.registrar(pedidoSalvo.getExternalId());
+            inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.PEDIDO, inicioEtapa);
             
-            log.info("=== PROCESSANDO PRODUTOS ===");
-            log.info("Processando {} produtos...", pedidoDTO.getProdutos().size());
-            for (int i = 0; i < pedidoDTO.getProdutos().size(); i++) {
-                ProdutoDTO produtoDTO = pedidoDTO.getProdutos().get(i);
-                log.info("Processando produto {}: {}", i + 1, produtoDTO.getNome());
-                
+            List<ProdutoEntity> produtos = new ArrayList<>(pedidoDTO.getProdutos().size());
+            for (ProdutoDTO produtoDTO : pedidoDTO.getProdutos()) {
                 ProdutoEntity produto = pedidoMapper.toEntity(produtoDTO);
                 produto.setPedidoId(pedidoSalvo.getId());
-                
-                log.info("Produto {} antes de salvar: {}", i + 1, produto);
-                ProdutoEntity produtoSalvo = produtoRepository.save(produto);
-                log.info("Produto {} salvo com sucesso, ID: {}", i + 1, produtoSalvo.getId());
+                produto.setCreatedAt(pedidoSalvo.getCreatedAt());
+                produtos.add(produto);
             }
             
-            log.info("=== PROCESSAMENTO CONCLUÍDO ===");
-            log.info("Processamento do pedido {} concluído com sucesso", pedidoDTO.getExternalId());
-            return pedidoSalvo;
+            // IDs vêm da sequência (pooled), então os INSERTs saem em lote JDBC no flush
+            List<ProdutoEntity> produtosSalvos = produtoRepository.saveAll(produtos);
+            inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.PRODUTOS, inicioEtapa);
+            
+            // O flush preenche createdAt antes de serializar o evento; a publicação no
+            // Kafka fica com o OutboxRelay, fora desta transação
+            pedidoRepository.flush();
+            inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.FLUSH, inicioEtapa);
+            outboxService.registrarPedidoProcessado(pedidoSalvo);
+            pedidoMetricas.registrarEtapa(origem, Etapa.OUTBOX, inicioEtapa);
+            pedidoCache.registrar(pedidoSalvo);
+            escritasRecentes.registrar(pedidoSalvo.getExternalId(), pedidoSalvo.getId());
+            estatisticasPedidos.registrar(pedidoSalvo.getStatus(), pedidoSalvo.getTotal(), produtos.size());
             
+            pedidoMetricas.registrarProcessamento(origem, inicioProcessamento);
+            pedidoMetricas.registrarProcessados(origem, 1);
+            pedidoMetricas.registrarProdutos(origem, produtos.size());
+            if (detalhar) {
+                log.atInfo()
+                        .addKeyValue("externalId", pedidoSalvo.getExternalId())
+                        .addKeyValue("pedidoId", pedidoSalvo.getId())
+                        .addKeyValue("produtos", produtosSalvos.size())
+                        .addKeyValue("duracaoMs", (System.nanoTime() - inicioProcessamento) / 1_000_000)
+                        .log("Processamento de pedido concluído");
+            }
+            return new PedidoAgregado(pedidoSalvo, produtosSalvos);
+            
+        } catch (PedidoDuplicadoException e) {
+            // A chave de order_external_ids continua sendo a garantia final contra duplicados concorrentes
+            pedidoMetricas.registrarDuplicados(origem, 1);
+            log.atWarn().addKeyValue("externalId", pedidoDTO.getExternalId()).addKeyValue("origem", origem)
+                    .log("Pedido já existe (violação de unicidade)");
+            throw e;
         } catch (Exception e) {
-            log.error("=== ERRO DETALHADO ===");
-            log.error("Erro detalhado ao processar pedido: {}", e.getMessage(), e);
+            pedidoMetricas.registrarFalhas(origem, 1);
+            log.atError()
+                    .addKeyValue("externalId", pedidoDTO.getExternalId())
+                    .addKeyValue("origem", origem)
+                    .addKeyValue("produtos", pedidoDTO.getProdutos().size())
+                    .setCause(e)
+                    .log("Falha ao processar pedido: {}", e.getMessage());
             
             String errorDetails = String.format(
                 "Erro ao processar pedido %s: %s (Causa: %s)",
@@ -91,27 +235,247 @@ public class PedidoService {
         }
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Processa um lote de pedidos em uma única transação.
+     * <p>
+     * ExternalIds repetidos dentro do lote são descartados (a primeira ocorrência vence) e os
+     * já existentes no banco são resolvidos com uma única consulta. Pedidos e produtos são
+     * gravados via {@code saveAll}. O resultado segue a ordem de entrada. A consulta em lote
+     * não passa pelo filtro de Bloom (um único IN já é barato), mas alimenta o filtro.
+     */
+    @Transactional
+    public List<ResultadoIngestaoDTO> processarLote(List<PedidoDTO> pedidosDTO) {
+        return processarLote(pedidosDTO, OrigemIngestao.REST);
+    }
+    
+    @Transactional
+    public List<ResultadoIngestaoDTO> processarLote(List<PedidoDTO> pedidosDTO, OrigemIngestao origem) {
+        log.info("Iniciando processamento de lote com {} pedidos (origem {})", pedidosDTO.size(), origem);
+        try {
+            return gravarLote(pedidosDTO, origem);
+        } catch (RuntimeException e) {
+            pedidoMetricas.registrarFalhas(origem, pedidosDTO.size());
+            throw e;
+        }
+    }
+    
+    private List<ResultadoIngestaoDTO> gravarLote(List<PedidoDTO> pedidosDTO, OrigemIngestao origem) {
+        long inicioProcessamento = System.nanoTime();
+        ResultadoIngestaoDTO[] resultados = new ResultadoIngestaoDTO[pedidosDTO.size()];
+        Map<String, Integer> primeiraOcorrencia = new HashMap<>();
+        for (int i = 0; i < pedidosDTO.size(); i++) {
+            String externalId = pedidosDTO.get(i).getExternalId();
+            if (primeiraOcorrencia.putIfAbsent(externalId, i) != null) {
+                resultados[i] = duplicado(externalId, "Pedido duplicado no lote: " + externalId);
+            }
+        }
+        
+        Set<String> existentes = primeiraOcorrencia.isEmpty()
+                ? Set.of()
+                : pedidoRepository.findExternalIdsExistentes(primeiraOcorrencia.keySet());
+        long inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.DUPLICIDADE, inicioProcessamento);
+        
+        List<Integer> indicesAceitos = new ArrayList<>(primeiraOcorrencia.size());
+        List<PedidoEntity> pedidos = new ArrayList<>(primeiraOcorrencia.size());
+        for (int i = 0; i < pedidosDTO.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            PedidoDTO pedidoDTO = pedidosDTO.get(i);
+            if (existentes.contains(pedidoDTO.getExternalId())) {
+                resultados[i] = duplicado(pedidoDTO.getExternalId(), "Pedido já existe: " + pedidoDTO.getExternalId());
+                continue;
+            }
+            
+            PedidoEntity pedido = pedidoMapper.toEntity(pedidoDTO);
+            pedido.marcarComoProcessado();
+            pedido.calcularTotal(calcularTotal(pedidoDTO.getProdutos()));
+            pedidos.add(pedido);
+            indicesAceitos.add(i);
+        }
+        inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.MAPEAMENTO, inicioEtapa);
+        
+        List<PedidoEntity> pedidosSalvos = pedidoRepository.saveAll(pedidos);
+        insercaoPedidoRepository.reivindicar(pedidosSalvos);
+        existentes.forEach(externalIdBloomFilter::registrar);
+        pedidosSalvos.forEach(pedido -> externalIdBloomFilter.registrar(pedido.getExternalId()));
+        inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.PEDIDO, inicioEtapa);
+        
+        List<ProdutoEntity> produtos = new ArrayList<>();
+        for (int j = 0; j < pedidosSalvos.size(); j++) {
+            int indice = indicesAceitos.get(j);
+            PedidoEntity pedidoSalvo = pedidosSalvos.get(j);
+            pedidoMetricas.registrarProdutos(origem, pedidosDTO.get(indice).getProdutos().size());
+            estatisticasPedidos.registrar(pedidoSalvo.getStatus(), pedidoSalvo.getTotal(),
+                    pedidosDTO.get(indice).getProdutos().size());
+            escritasRecentes.registrar(pedidoSalvo.getExternalId(), pedidoSalvo.getId());
+            for (ProdutoDTO produtoDTO : pedidosDTO.get(indice).getProdutos()) {
+                ProdutoEntity produto = pedidoMapper.toEntity(produtoDTO);
+                produto.setPedidoId(pedidoSalvo.getId());
+                produto.setCreatedAt(pedidoSalvo.getCreatedAt());
+                produtos.add(produto);
+            }
+            resultados[indice] = ResultadoIngestaoDTO.builder()
+                    .externalId(pedidoSalvo.getExternalId())
+                    .situacao(ResultadoIngestaoDTO.Situacao.CRIADO)
+                    .pedidoId(pedidoSalvo.getId())
+                    .build();
+        }
+        produtoRepository.saveAll(produtos);
+        inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.PRODUTOS, inicioEtapa);
+        
+        pedidoRepository.flush();
+        inicioEtapa = pedidoMetricas.registrarEtapa(origem, Etapa.FLUSH, inicioEtapa);
+        outboxService.registrarPedidosProcessados(pedidosSalvos);
+        pedidoMetricas.registrarEtapa(origem, Etapa.OUTBOX, inicioEtapa);
+        
+        pedidoMetricas.registrarProcessamentoLote(origem, inicioProcessamento);
+        pedidoMetricas.registrarProcessados(origem, pedidosSalvos.size());
+        pedidoMetricas.registrarDuplicados(origem, pedidosDTO.size() - pedidosSalvos.size());
+        log.info("Lote processado: {} pedidos criados, {} duplicados, {} produtos gravados",
+                pedidosSalvos.size(), pedidosDTO.size() - pedidosSalvos.size(), produtos.size());
+        return List.of(resultados);
+    }
+    
+    // Sem @Transactional: um acerto no cache não deve pegar conexão do pool; no miss o
+    // próprio repositório abre a transação somente leitura (réplica, se houver). Pedidos
+    // gravados há pouco são lidos do primário
     public PedidoEntity buscarPorId(Long id) {
-        return pedidoRepository.findById(id)
+        return escritasRecentes.lerPorId(id, () -> pedidoCache.buscarPorId(id, pedidoRepository::findById))
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + id));
     }
     
-    @Transactional(readOnly = true)
     public PedidoEntity buscarPorExternalId(String externalId) {
-        return pedidoRepository.findByExternalId(externalId)
+        return encontrarPorExternalId(externalId)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + externalId));
+    }
+    
+    public Optional<PedidoEntity> encontrarPorExternalId(String externalId) {
+        return escritasRecentes.lerPorExternalId(externalId,
+                () -> pedidoCache.buscarPorExternalId(externalId, pedidoRepository::findByExternalId));
+    }
+    
+    /**
+     * Pedido com seus produtos numa única consulta (join com projeção em DTO), sem passar
+     * pelo cache de entidades.
+     */
+    @Transactional(readOnly = true)
+    public PedidoDetalheDTO buscarComProdutosPorId(Long id) {
+        return escritasRecentes.lerPorId(id, () -> agregar(pedidoRepository.findComProdutosById(id)))
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + id));
+    }
+    
+    @Transactional(readOnly = true)
+    public PedidoDetalheDTO buscarComProdutosPorExternalId(String externalId) {
+        return escritasRecentes.lerPorExternalId(externalId,
+                        () -> agregar(pedidoRepository.findComProdutosByExternalId(externalId)))
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + externalId));
     }
     
+    private Optional<PedidoDetalheDTO> agregar(List<PedidoProdutoProjecao> linhas) {
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+        PedidoDetalheDTO pedido = pedidoMapper.toDetalhe(linhas.get(0));
+        List<ProdutoResponseDTO> produtos = new ArrayList<>(linhas.size());
+        for (PedidoProdutoProjecao linha : linhas) {
+            if (linha.produtoId() != null) {
+                produtos.add(pedidoMapper.toProdutoResponse(linha));
+            }
+        }
+        pedido.setProdutos(produtos);
+        return Optional.of(pedido);
+    }
+    
+    @Transactional(readOnly = true)
+    public PaginaPedidosDTO listarPedidos(PedidoStatus status, LocalDateTime desde, String cursor, int limite) {
+        return listarPedidos(status, desde, cursor, limite, false);
+    }
+    
+    /**
+     * Lista pedidos em ordem de {@code (createdAt, id)} com paginação por keyset. O cursor
+     * devolvido aponta para o último pedido da página; buscar a página seguinte custa o
+     * mesmo que a primeira, e só {@code limite + 1} linhas são lidas por chamada. Com
+     * {@code incluirProdutos}, os produtos da página inteira vêm numa segunda consulta só.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPedidosDTO listarPedidos(PedidoStatus status, LocalDateTime desde, String cursor, int limite,
+                                          boolean incluirProdutos) {
+        int tamanho = Math.max(1, Math.min(limite, LIMITE_PAGINA_MAXIMO));
+        CursorPaginacao posicao = cursor != null && !cursor.isBlank()
+                ? CursorPaginacao.decodificar(cursor)
+                : new CursorPaginacao(desde != null ? desde : INICIO_PADRAO, 0L);
+        
+        // Uma linha a mais indica se existe próxima página sem precisar de COUNT
+        PageRequest pagina = PageRequest.of(0, tamanho + 1);
+        List<PedidoEntity> pedidos = status != null
+                ? pedidoRepository.findPaginaByStatusAndDataInicio(status, posicao.createdAt(), posicao.id(), pagina)
+                : pedidoRepository.findPaginaByDataInicio(posicao.createdAt(), posicao.id(), pagina);
+        
+        String proximoCursor = null;
+        if (pedidos.size() > tamanho) {
+            pedidos = pedidos.subList(0, tamanho);
+            PedidoEntity ultimo = pedidos.get(tamanho - 1);
+            proximoCursor = new CursorPaginacao(ultimo.getCreatedAt(), ultimo.getId()).codificar();
+        }
+        
+        return PaginaPedidosDTO.builder()
+                .pedidos(pedidos)
+                .produtos(incluirProdutos ? produtosPorPedido(pedidos) : null)
+                .proximoCursor(proximoCursor)
+                .limite(tamanho)
+                .build();
+    }
+    
+    private Map<Long, List<ProdutoResponseDTO>> produtosPorPedido(List<PedidoEntity> pedidos) {
+        Map<Long, List<ProdutoResponseDTO>> produtos = new LinkedHashMap<>();
+        for (PedidoEntity pedido : pedidos) {
+            produtos.put(pedido.getId(), new ArrayList<>());
+        }
+        if (!produtos.isEmpty()) {
+            // A página vem em ordem de createdAt: a faixa limita a consulta às partições da página
+            LocalDateTime desde = pedidos.get(0).getCreatedAt();
+            LocalDateTime ate = pedidos.get(pedidos.size() - 1).getCreatedAt();
+            for (ProdutoEntity produto : produtoRepository.findByPedidoIdIn(produtos.keySet(), desde, ate)) {
+                produtos.get(produto.getPedidoId()).add(pedidoMapper.toResponse(produto));
+            }
+        }
+        return produtos;
+    }
+    
     @Transactional(readOnly = true)
     public List<ProdutoEntity> buscarProdutosPorPedidoId(Long pedidoId) {
-        return produtoRepository.findByPedidoId(pedidoId);
+        return escritasRecentes.lerPorId(pedidoId, () -> produtoRepository.findByPedidoId(pedidoId));
     }
 
     public boolean testarExistsByExternalId(String externalId) {
         return pedidoRepository.existsByExternalId(externalId);
     }
     
+    /**
+     * Totais por status e série por minuto dos últimos {@code minutos}, servidos de memória
+     * ({@link EstatisticasPedidos}), sem consultar {@code orders}.
+     */
+    public EstatisticasPedidosDTO consultarEstatisticas(int minutos) {
+        List<EstatisticasPedidos.Minuto> serie = estatisticasPedidos.ultimosMinutos(minutos);
+        List<EstatisticasPedidosDTO.MinutoDTO> porMinuto = new ArrayList<>(serie.size());
+        for (EstatisticasPedidos.Minuto minuto : serie) {
+            porMinuto.add(EstatisticasPedidosDTO.MinutoDTO.builder()
+                    .inicio(minuto.inicio())
+                    .total(resumo(somar(minuto.porStatus())))
+                    .porStatus(resumos(minuto.porStatus()))
+                    .build());
+        }
+        Map<PedidoStatus, EstatisticasPedidos.Resumo> totais = estatisticasPedidos.totais();
+        return EstatisticasPedidosDTO.builder()
+                .carregado(estatisticasPedidos.carregado())
+                .geradoEm(LocalDateTime.now())
+                .total(resumo(somar(totais)))
+                .porStatus(resumos(totais))
+                .porMinuto(porMinuto)
+                .build();
+    }
+    
     public long testarCount() {
         return pedidoRepository.count();
     }
@@ -123,4 +487,77 @@ public class PedidoService {
     public String testarKafka() {
         return "Kafka bean injetado com sucesso";
     }
-} 
\ No newline at end of file
+    
+    // Público para o benchmark JMH (CalculoTotalBenchmark). Acumula centavos em long: só o
+    // resultado vira objeto, qualquer que seja o número de produtos
+    public static Dinheiro calcularTotal(List<ProdutoDTO> produtos) {
+        long centavos = 0;
+        for (ProdutoDTO produto : produtos) {
+            centavos = Dinheiro.somarCentavos(centavos, produto.getPreco().centavos());
+        }
+        return Dinheiro.deCentavos(centavos);
+    }
+    
+    /**
+     * Caminho JPA: grava o pedido e reivindica o externalId; um externalId já reivindicado
+     * sai como {@link PedidoDuplicadoException}.
+     */
+    private PedidoEntity salvarEReivindicar(PedidoEntity pedido) {
+        PedidoEntity pedidoSalvo = pedidoRepository.save(pedido);
+        try {
+            insercaoPedidoRepository.reivindicar(List.of(pedidoSalvo));
+        } catch (DuplicateKeyException e) {
+            // Só a chave de order_external_ids indica duplicado; outras violações (estouro de
+            // numeric, NOT NULL) são falhas do pedido e seguem para o tratamento genérico
+            throw new PedidoDuplicadoException(pedido.getExternalId(), e);
+        }
+        return pedidoSalvo;
+    }
+    
+    /**
+     * Grava o pedido reivindicando o externalId no mesmo comando; devolve {@code null} se ele
+     * já existe. Os timestamps são preenchidos aqui porque o INSERT nativo não passa pelo
+     * Hibernate (truncados para a precisão do Postgres, para o cache e o evento baterem com o banco).
+     */
+    private PedidoEntity inserirSeAusente(PedidoEntity pedido) {
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        pedido.setCreatedAt(agora);
+        pedido.setUpdatedAt(agora);
+        Optional<Long> id = insercaoPedidoRepository.inserirSeAusente(pedido);
+        if (id.isEmpty()) {
+            return null;
+        }
+        pedido.setId(id.get());
+        return pedido;
+    }
+    
+    private static EstatisticasPedidos.Resumo somar(Map<PedidoStatus, EstatisticasPedidos.Resumo> porStatus) {
+        return porStatus.values().stream().reduce(EstatisticasPedidos.Resumo.VAZIO, EstatisticasPedidos.Resumo::somar);
+    }
+    
+    private static Map<PedidoStatus, EstatisticasPedidosDTO.ResumoDTO> resumos(
+            Map<PedidoStatus, EstatisticasPedidos.Resumo> porStatus) {
+        Map<PedidoStatus, EstatisticasPedidosDTO.ResumoDTO> resumos = new EnumMap<>(PedidoStatus.class);
+        porStatus.forEach((status, resumo) -> resumos.put(status, resumo(resumo)));
+        return resumos;
+    }
+    
+    private static EstatisticasPedidosDTO.ResumoDTO resumo(EstatisticasPedidos.Resumo resumo) {
+        return EstatisticasPedidosDTO.ResumoDTO.builder()
+                .pedidos(resumo.pedidos())
+                .receita(resumo.receita())
+                .itens(resumo.itens())
+                .build();
+    }
+    
+    private ResultadoIngestaoDTO duplicado(String externalId, String mensagem) {
+        return ResultadoIngestaoDTO.builder()
+                .externalId(externalId)
+                .situacao(ResultadoIngestaoDTO.Situacao.DUPLICADO)
+                .mensagem(mensagem)
+                .build();
+    }
+    
+    private record PedidoAgregado(PedidoEntity pedido, List<ProdutoEntity> produtos) {
+    }
+}
\ No newline at end of file
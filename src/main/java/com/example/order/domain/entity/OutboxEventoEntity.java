@@ -0,0 +1,46 @@
+package com.example.order.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento pendente de publicação no Kafka, gravado na mesma transação do pedido
+ * (transactional outbox). O OutboxRelay publica e marca {@code publishedAt}.
+ */
+@Entity
+@Table(name = "outbox_eventos")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventoEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_eventos_seq")
+    @SequenceGenerator(name = "outbox_eventos_seq", sequenceName = "outbox_eventos_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "topico", nullable = false)
+    private String topico;
+    
+    @Column(name = "chave", nullable = false)
+    private String chave;
+    
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
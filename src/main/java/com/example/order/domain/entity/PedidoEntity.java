@@ -1,22 +1,30 @@
 package com.example.order.domain.entity;
 
 import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.cache.PedidoCacheListener;
+import com.example.order.infrastructure.repository.DinheiroConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Pedido. No PostgreSQL a tabela é particionada por mês de {@code created_at} (ver
+ * {@code docker/postgres/init.sql}), então a unicidade de {@code external_id} fica na tabela
+ * {@code order_external_ids} ({@link PedidoExternalIdEntity}) e não aqui.
+ */
 @Entity
 @Table(name = "orders")
+@EntityListeners(PedidoCacheListener.class)
 @Getter
 @Setter
 @Builder
@@ -25,20 +33,22 @@ import java.util.List;
 public class PedidoEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
-    @Column(name = "external_id", nullable = false, unique = true)
+    @Column(name = "external_id", nullable = false)
     private String externalId;
     
     @Column(name = "total", precision = 10, scale = 2)
-    private BigDecimal total;
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro total;
     
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private PedidoStatus status;
     
-    @CreationTimestamp
+    // Chave de partição: preenchida no persist (e não no flush) para os produtos copiarem
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -46,8 +56,15 @@ public class PedidoEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @PrePersist
+    void preencherCriacao() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+    
     // Métodos de domínio
-    public void calcularTotal(BigDecimal total) {
+    public void calcularTotal(Dinheiro total) {
         this.total = total;
     }
     
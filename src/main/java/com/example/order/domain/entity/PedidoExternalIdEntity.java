@@ -0,0 +1,42 @@
+package com.example.order.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reivindicação de um externalId: uma linha por pedido gravado, fora das partições.
+ * <p>
+ * Com {@code orders} particionada, uma constraint unique precisa incluir {@code created_at};
+ * esta tabela mantém a unicidade global de {@code external_id} e guarda o {@code created_at}
+ * do pedido, o que deixa as buscas por externalId irem direto à partição certa. A retenção
+ * de {@code ManutencaoParticoesPedidos} apaga as linhas dos meses removidos: um externalId
+ * reenviado depois disso volta a ser gravado como pedido novo.
+ */
+@Entity
+@Table(name = "order_external_ids")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoExternalIdEntity {
+    
+    @Id
+    @Column(name = "external_id")
+    private String externalId;
+    
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.example.order.domain.entity;
 
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.repository.DinheiroConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +9,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "products")
@@ -19,15 +21,21 @@ import java.math.BigDecimal;
 public class ProdutoEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 100)
     private Long id;
     
     @Column(name = "nome", nullable = false)
     private String nome;
     
     @Column(name = "preco", precision = 10, scale = 2, nullable = false)
-    private BigDecimal preco;
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro preco;
     
     @Column(name = "pedido_id", nullable = false)
     private Long pedidoId;
+    
+    // Mesmo createdAt do pedido: produtos ficam na partição do mês do pedido
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 } 
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.order.domain.enums;
+
+public enum OrigemIngestao {
+    REST,
+    KAFKA
+}
@@ -0,0 +1,189 @@
+package com.example.order.domain.valor;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em ponto fixo: um {@code long} de centavos, sem {@link BigDecimal} no caminho
+ * de ingestão.
+ * <p>
+ * Somas usam aritmética exata ({@link Math#addExact}) e estouro vira
+ * {@link IllegalArgumentException}, o mesmo erro de um valor com mais de duas casas decimais.
+ * No JSON o valor continua sendo um número com duas casas ({@code 10.50}), como o
+ * {@code BigDecimal} era escrito; no banco, a coluna {@code numeric(10,2)} não muda.
+ * <p>
+ * Estende {@link Number} para que {@code @Positive} e afins da Bean Validation continuem
+ * valendo nos DTOs.
+ */
+@JsonSerialize(using = DinheiroJson.Serializador.class)
+@JsonDeserialize(using = DinheiroJson.Desserializador.class)
+public final class Dinheiro extends Number implements Comparable<Dinheiro> {
+    
+    public static final int CASAS_DECIMAIS = 2;
+    public static final Dinheiro ZERO = new Dinheiro(0);
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final long centavos;
+    
+    private Dinheiro(long centavos) {
+        this.centavos = centavos;
+    }
+    
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+    
+    /**
+     * Converte um {@link BigDecimal} sem arredondar: casas além dos centavos só são aceitas
+     * se forem zeros.
+     */
+    public static Dinheiro de(BigDecimal valor) {
+        try {
+            return deCentavos(valor.setScale(CASAS_DECIMAIS, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + valor.toPlainString(), e);
+        }
+    }
+    
+    public static Dinheiro de(String valor) {
+        return de(valor.toCharArray(), 0, valor.length());
+    }
+    
+    /**
+     * Lê um decimal simples ({@code -?\d+(\.\d+)?}) direto para centavos, sem alocar
+     * {@link BigDecimal}.
+     */
+    public static Dinheiro de(char[] texto, int inicio, int tamanho) {
+        int fim = inicio + tamanho;
+        int i = inicio;
+        boolean negativo = i < fim && texto[i] == '-';
+        if (negativo) {
+            i++;
+        }
+        int inicioInteiro = i;
+        long centavos = 0;
+        int casas = -1;
+        try {
+            for (; i < fim; i++) {
+                char c = texto[i];
+                if (c == '.' && casas < 0 && i > inicioInteiro) {
+                    casas = 0;
+                } else if (c >= '0' && c <= '9') {
+                    if (casas < CASAS_DECIMAIS) {
+                        centavos = Math.addExact(Math.multiplyExact(centavos, 10), c - '0');
+                        if (casas >= 0) {
+                            casas++;
+                        }
+                    } else if (c != '0') {
+                        throw invalido(texto, inicio, tamanho);
+                    }
+                } else {
+                    throw invalido(texto, inicio, tamanho);
+                }
+            }
+            if (i == inicioInteiro || casas == 0) {
+                throw invalido(texto, inicio, tamanho);
+            }
+            for (int faltam = CASAS_DECIMAIS - Math.max(casas, 0); faltam > 0; faltam--) {
+                centavos = Math.multiplyExact(centavos, 10);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor monetário fora do limite: " + new String(texto, inicio, tamanho), e);
+        }
+        return deCentavos(negativo ? -centavos : centavos);
+    }
+    
+    public Dinheiro somar(Dinheiro outro) {
+        return deCentavos(somarCentavos(centavos, outro.centavos));
+    }
+    
+    /**
+     * Soma de centavos com verificação de estouro, para acumular em {@code long} sem criar
+     * instâncias intermediárias.
+     */
+    public static long somarCentavos(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Soma de valores monetários fora do limite", e);
+        }
+    }
+    
+    public long centavos() {
+        return centavos;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, CASAS_DECIMAIS);
+    }
+    
+    public int signum() {
+        return Long.signum(centavos);
+    }
+    
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+    
+    @Override
+    public long longValue() {
+        return centavos / 100;
+    }
+    
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+    
+    @Override
+    public double doubleValue() {
+        return centavos / 100.0;
+    }
+    
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+    
+    @Override
+    public boolean equals(Object outro) {
+        return this == outro || outro instanceof Dinheiro dinheiro && dinheiro.centavos == centavos;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+    
+    /**
+     * Sempre com duas casas ({@code 10.50}, {@code -0.05}), no formato de
+     * {@link BigDecimal#toPlainString()} com escala 2.
+     */
+    @Override
+    public String toString() {
+        if (centavos == Long.MIN_VALUE) {
+            // Único valor sem absoluto em long
+            return toBigDecimal().toPlainString();
+        }
+        long absoluto = Math.abs(centavos);
+        int resto = (int) (absoluto % 100);
+        StringBuilder texto = new StringBuilder(24);
+        if (centavos < 0) {
+            texto.append('-');
+        }
+        texto.append(absoluto / 100).append('.');
+        if (resto < 10) {
+            texto.append('0');
+        }
+        return texto.append(resto).toString();
+    }
+    
+    private static IllegalArgumentException invalido(char[] texto, int inicio, int tamanho) {
+        return new IllegalArgumentException("Valor monetário inválido: " + new String(texto, inicio, tamanho));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.order.domain.valor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * (De)serialização Jackson de {@link Dinheiro}, registrada na própria classe para valer em
+ * qualquer {@code ObjectMapper} (JSON da API, outbox, Smile dos eventos).
+ */
+final class DinheiroJson {
+    
+    private DinheiroJson() {
+    }
+    
+    /**
+     * Escreve um número com duas casas ({@code 10.50}), o mesmo texto que o {@code BigDecimal}
+     * de escala 2 produzia.
+     */
+    static final class Serializador extends StdScalarSerializer<Dinheiro> {
+        
+        Serializador() {
+            super(Dinheiro.class);
+        }
+        
+        @Override
+        public void serialize(Dinheiro valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            if (gerador.canWriteFormattedNumbers()) {
+                gerador.writeNumber(valor.toString());
+            } else {
+                // Formatos binários (Smile) codificam o número, não o texto
+                gerador.writeNumber(valor.toBigDecimal());
+            }
+        }
+    }
+    
+    /**
+     * Aceita número ou texto e converte direto do buffer do parser para centavos; só notação
+     * científica passa por {@code BigDecimal}.
+     */
+    static final class Desserializador extends StdScalarDeserializer<Dinheiro> {
+        
+        Desserializador() {
+            super(Dinheiro.class);
+        }
+        
+        @Override
+        public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Dinheiro) contexto.handleUnexpectedToken(Dinheiro.class, parser);
+            }
+            try {
+                // Nos parsers textuais é o próprio buffer de leitura; no Smile, o número como texto
+                char[] texto = parser.getTextCharacters();
+                int inicio = parser.getTextOffset();
+                int tamanho = parser.getTextLength();
+                if (contemExpoente(texto, inicio, tamanho)) {
+                    return Dinheiro.de(new BigDecimal(texto, inicio, tamanho));
+                }
+                return Dinheiro.de(texto, inicio, tamanho);
+            } catch (IllegalArgumentException e) {
+                return (Dinheiro) contexto.handleWeirdStringValue(Dinheiro.class, parser.getText(), e.getMessage());
+            }
+        }
+        
+        private static boolean contemExpoente(char[] texto, int inicio, int tamanho) {
+            for (int i = inicio; i < inicio + tamanho; i++) {
+                if (texto[i] == 'e' || texto[i] == 'E') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Situação dos pedidos aceitos de forma assíncrona que ainda não estão no banco.
+ * <p>
+ * {@code RECEBIDO} é gravado quando o pedido é publicado em {@code pedidos.recebidos} e
+ * {@code ERRO} quando ele chega à DLQ. Depois de gravado, o status vem do próprio pedido; esta
+ * entrada só responde enquanto ele não existe. É um cache Caffeine em processo, limitado por
+ * tamanho e TTL: com várias instâncias, cada uma conhece apenas o que ela mesma aceitou ou
+ * mandou para a DLQ.
+ */
+@Component
+public class AcompanhamentoIngestao {
+    
+    static final String CACHE = "pedidos.acompanhamento";
+    
+    public record Situacao(PedidoStatus status, String mensagem, LocalDateTime atualizadoEm) {
+    }
+    
+    private final Cache<String, Situacao> situacoes;
+    
+    public AcompanhamentoIngestao(MeterRegistry meterRegistry,
+                                  @Value("${pedidos.async.acompanhamento.tamanho-maximo:100000}") long tamanhoMaximo,
+                                  @Value("${pedidos.async.acompanhamento.ttl:PT1H}") Duration ttl) {
+        this.situacoes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, situacoes, CACHE);
+    }
+    
+    public void registrarRecebido(String externalId) {
+        situacoes.put(externalId, new Situacao(PedidoStatus.RECEBIDO, null, LocalDateTime.now()));
+    }
+    
+    public void registrarErro(String externalId, String mensagem) {
+        situacoes.put(externalId, new Situacao(PedidoStatus.ERRO, mensagem, LocalDateTime.now()));
+    }
+    
+    public Optional<Situacao> buscar(String externalId) {
+        return Optional.ofNullable(situacoes.getIfPresent(externalId));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.example.order.infrastructure.cache;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom thread-safe sobre strings, com snapshot em arquivo mapeado em memória.
+ * <p>
+ * Os bits ficam em um {@link AtomicLongArray} (inserção via CAS, sem locks) e as k posições
+ * são derivadas de dois hashes de 64 bits (Kirsch-Mitzenmacher). O snapshot é gravado em um
+ * arquivo temporário mapeado e movido atomicamente, então um snapshot parcial nunca é lido.
+ */
+public class BloomFilter {
+    
+    private static final long MAGIC = 0x4F5244424C4F4F4DL; // "ORDBLOOM"
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+    
+    private final long numeroBits;
+    private final int numeroHashes;
+    private final AtomicLongArray bits;
+    private final LongAdder bitsLigados = new LongAdder();
+    
+    public BloomFilter(long capacidadeEsperada, double taxaFalsoPositivo) {
+        this(calcularNumeroBits(capacidadeEsperada, taxaFalsoPositivo),
+             calcularNumeroHashes(capacidadeEsperada, calcularNumeroBits(capacidadeEsperada, taxaFalsoPositivo)));
+    }
+    
+    private BloomFilter(long numeroBits, int numeroHashes) {
+        this.numeroBits = numeroBits;
+        this.numeroHashes = numeroHashes;
+        this.bits = new AtomicLongArray(Math.toIntExact(numeroBits / Long.SIZE));
+    }
+    
+    public boolean podeConter(String valor) {
+        long h1 = hash(valor, 0x9E3779B97F4A7C15L);
+        long h2 = hash(valor, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, numeroBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public void registrar(String valor) {
+        long h1 = hash(valor, 0x9E3779B97F4A7C15L);
+        long h2 = hash(valor, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, numeroBits);
+            int indice = (int) (posicao >>> 6);
+            long mascara = 1L << posicao;
+            long atual;
+            do {
+                atual = bits.get(indice);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(indice, atual, atual | mascara));
+            if ((atual & mascara) == 0) {
+                bitsLigados.increment();
+            }
+        }
+    }
+    
+    /**
+     * Fração de bits ligados.
+     */
+    public double ocupacao() {
+        return (double) bitsLigados.sum() / numeroBits;
+    }
+    
+    /**
+     * Taxa de falso positivo esperada para a ocupação atual: ocupacao^k.
+     */
+    public double taxaFalsoPositivoEstimada() {
+        return Math.pow(ocupacao(), numeroHashes);
+    }
+    
+    public long getNumeroBits() {
+        return numeroBits;
+    }
+    
+    public int getNumeroHashes() {
+        return numeroHashes;
+    }
+    
+    /**
+     * Grava o filtro em {@code arquivo} junto com a marca d'água informada (em geral o instante
+     * até o qual todos os valores já foram registrados).
+     */
+    public void salvar(Path arquivo, long marcaDagua) throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        Files.createDirectories(diretorio);
+        Path temporario = Files.createTempFile(diretorio, arquivo.getFileName().toString(), ".tmp");
+        try {
+            long tamanho = TAMANHO_CABECALHO + (long) bits.length() * Long.BYTES;
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+                mapa.order(ByteOrder.LITTLE_ENDIAN);
+                mapa.putLong(MAGIC).putInt(VERSAO).putLong(numeroBits).putInt(numeroHashes).putLong(marcaDagua);
+                LongBuffer corpo = mapa.asLongBuffer();
+                for (int i = 0; i < bits.length(); i++) {
+                    corpo.put(i, bits.get(i));
+                }
+                mapa.force();
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+    
+    /**
+     * Carrega um snapshot compatível com a capacidade e taxa configuradas. Retorna vazio se o
+     * arquivo não existir ou tiver sido gerado com outros parâmetros.
+     */
+    public static Optional<Snapshot> carregar(Path arquivo, long capacidadeEsperada, double taxaFalsoPositivo) throws IOException {
+        if (!Files.isReadable(arquivo)) {
+            return Optional.empty();
+        }
+        long numeroBits = calcularNumeroBits(capacidadeEsperada, taxaFalsoPositivo);
+        int numeroHashes = calcularNumeroHashes(capacidadeEsperada, numeroBits);
+        
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanhoEsperado = TAMANHO_CABECALHO + numeroBits / Long.SIZE * Long.BYTES;
+            if (canal.size() != tamanhoEsperado) {
+                return Optional.empty();
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanhoEsperado);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapa.getLong() != MAGIC || mapa.getInt() != VERSAO
+                    || mapa.getLong() != numeroBits || mapa.getInt() != numeroHashes) {
+                return Optional.empty();
+            }
+            long marcaDagua = mapa.getLong();
+            
+            BloomFilter filtro = new BloomFilter(numeroBits, numeroHashes);
+            LongBuffer corpo = mapa.asLongBuffer();
+            long ligados = 0;
+            for (int i = 0; i < filtro.bits.length(); i++) {
+                long palavra = corpo.get(i);
+                filtro.bits.lazySet(i, palavra);
+                ligados += Long.bitCount(palavra);
+            }
+            filtro.bitsLigados.add(ligados);
+            return Optional.of(new Snapshot(filtro, marcaDagua));
+        }
+    }
+    
+    static long calcularNumeroBits(long capacidadeEsperada, double taxaFalsoPositivo) {
+        double bitsIdeais = -capacidadeEsperada * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2));
+        long palavras = Math.max(1, (long) Math.ceil(bitsIdeais / Long.SIZE));
+        return palavras * Long.SIZE;
+    }
+    
+    static int calcularNumeroHashes(long capacidadeEsperada, long numeroBits) {
+        return Math.max(1, (int) Math.round((double) numeroBits / capacidadeEsperada * Math.log(2)));
+    }
+    
+    /**
+     * FNV-1a sobre os chars, semeado, finalizado com o fmix64 do MurmurHash3.
+     */
+    private static long hash(String valor, long semente) {
+        long h = 0xCBF29CE484222325L ^ semente;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+    
+    public record Snapshot(BloomFilter filtro, long marcaDagua) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.infrastructure.repository.RoteamentoDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Pedidos gravados ou alterados nesta instância há menos de
+ * {@code pedidos.replicas.leitura-propria.janela}. Com réplicas de leitura habilitadas, as
+ * leituras desses pedidos (por id ou externalId) vão ao primário: quem acabou de gravar não
+ * recebe um 404 ou um status antigo por causa do atraso de replicação.
+ * <p>
+ * A janela conta a partir do commit. Como o cache é em processo, uma leitura que chega a
+ * outra instância segue para a réplica.
+ */
+@Component
+public class EscritasRecentes {
+    
+    static final String CACHE = "pedidos.escritas-recentes";
+    
+    private final boolean habilitado;
+    // Chaves Long (id) e String (externalId) dividem o mesmo cache sem colidir
+    private final Cache<Object, Boolean> chaves;
+    
+    public EscritasRecentes(MeterRegistry meterRegistry,
+                            @Value("${pedidos.replicas.enabled:false}") boolean habilitado,
+                            @Value("${pedidos.replicas.leitura-propria.janela:PT5S}") Duration janela,
+                            @Value("${pedidos.replicas.leitura-propria.tamanho-maximo:100000}") long tamanhoMaximo) {
+        this.habilitado = habilitado && !janela.isZero() && !janela.isNegative();
+        this.chaves = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(janela)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, chaves, CACHE);
+    }
+    
+    /**
+     * Marca o pedido já na transação corrente e de novo no commit, quando a janela começa.
+     */
+    public void registrar(String externalId, Long id) {
+        if (!habilitado) {
+            return;
+        }
+        marcar(externalId, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    marcar(externalId, id);
+                }
+            });
+        }
+    }
+    
+    public <T> T lerPorId(Long id, Supplier<T> leitura) {
+        return ler(id, leitura);
+    }
+    
+    public <T> T lerPorExternalId(String externalId, Supplier<T> leitura) {
+        return ler(externalId, leitura);
+    }
+    
+    private <T> T ler(Object chave, Supplier<T> leitura) {
+        if (habilitado && chave != null && chaves.getIfPresent(chave) != null) {
+            return RoteamentoDataSource.noPrimario(leitura);
+        }
+        return leitura.get();
+    }
+    
+    private void marcar(String externalId, Long id) {
+        if (externalId != null) {
+            chaves.put(externalId, Boolean.TRUE);
+        }
+        if (id != null) {
+            chaves.put(id, Boolean.TRUE);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.infrastructure.repository.PedidoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Caminho rápido para a checagem de duplicidade por externalId.
+ * <p>
+ * {@link #podeConter(String)} == false garante que este nó nunca viu o externalId, e o
+ * SELECT de existência pode ser pulado. Uma resposta "talvez" cai no banco. Pedidos gravados
+ * por outras instâncias não passam por este filtro, então a chave de
+ * {@code order_external_ids} continua sendo a garantia final.
+ * <p>
+ * O filtro é salvo periodicamente em {@code pedidos.bloom.snapshot.arquivo}. Na subida o
+ * snapshot é mapeado e só os pedidos criados depois da marca d'água (menos
+ * {@code pedidos.bloom.snapshot.margem}) são relidos do banco. Sem snapshot, o filtro é
+ * reconstruído varrendo {@code orders}; até terminar, todas as consultas vão ao banco.
+ * <p>
+ * Só o caminho de {@code pedidos.ingestao.insercao-atomica=false} faz o SELECT de existência;
+ * a inserção atômica não consulta o filtro. Por isso {@code pedidos.bloom.enabled} segue, por
+ * padrão, o inverso da inserção atômica: sem uso, não há bitset, varredura na subida nem snapshot.
+ */
+@Component
+@Slf4j
+public class ExternalIdBloomFilter {
+    
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final long capacidadeEsperada;
+    private final double taxaFalsoPositivo;
+    private final Path arquivoSnapshot;
+    private final Duration margemRecuperacao;
+    
+    private volatile BloomFilter filtro;
+    private volatile boolean pronto;
+    
+    private final Counter consultasAusentes;
+    private final Counter consultasTalvez;
+    private final Counter falsosPositivos;
+    
+    public ExternalIdBloomFilter(PedidoRepository pedidoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${pedidos.bloom.enabled:#{!${pedidos.ingestao.insercao-atomica:true}}}") boolean habilitado,
+                                 @Value("${pedidos.bloom.capacidade:10000000}") long capacidadeEsperada,
+                                 @Value("${pedidos.bloom.taxa-falso-positivo:0.01}") double taxaFalsoPositivo,
+                                 @Value("${pedidos.bloom.snapshot.arquivo:data/externalid-bloom.bin}") Path arquivoSnapshot,
+                                 @Value("${pedidos.bloom.snapshot.margem:PT10M}") Duration margemRecuperacao) {
+        this.pedidoRepository = pedidoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+        this.capacidadeEsperada = capacidadeEsperada;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.arquivoSnapshot = arquivoSnapshot;
+        this.margemRecuperacao = margemRecuperacao;
+        
+        this.consultasAusentes = Counter.builder("pedidos.bloom.consultas")
+                .description("Consultas ao filtro de externalId")
+                .tag("resultado", "ausente")
+                .register(meterRegistry);
+        this.consultasTalvez = Counter.builder("pedidos.bloom.consultas")
+                .description("Consultas ao filtro de externalId")
+                .tag("resultado", "talvez")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("pedidos.bloom.falsos-positivos")
+                .description("Respostas 'talvez' que o banco mostrou não existir")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.bloom.taxa-falso-positivo", this, ExternalIdBloomFilter::taxaFalsoPositivoObservada)
+                .description("Falsos positivos / (falsos positivos + ausentes)")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.bloom.taxa-falso-positivo.estimada", this,
+                        f -> f.filtro != null ? f.filtro.taxaFalsoPositivoEstimada() : 0)
+                .description("Taxa de falso positivo esperada pela ocupação atual do filtro")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.bloom.ocupacao", this, f -> f.filtro != null ? f.filtro.ocupacao() : 0)
+                .description("Fração de bits ligados no filtro")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * false = externalId certamente nunca registrado neste nó; true = consultar o banco.
+     */
+    public boolean podeConter(String externalId) {
+        if (!pronto) {
+            return true;
+        }
+        if (filtro.podeConter(externalId)) {
+            consultasTalvez.increment();
+            return true;
+        }
+        consultasAusentes.increment();
+        return false;
+    }
+    
+    public void registrar(String externalId) {
+        if (filtro != null) {
+            filtro.registrar(externalId);
+        }
+    }
+    
+    public void registrarFalsoPositivo() {
+        if (pronto) {
+            falsosPositivos.increment();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarAquecimento() {
+        if (!habilitado) {
+            log.info("Filtro de Bloom de externalId desabilitado");
+            return;
+        }
+        Thread aquecimento = new Thread(this::aquecer, "bloom-aquecimento");
+        aquecimento.setDaemon(true);
+        aquecimento.start();
+    }
+    
+    void aquecer() {
+        long inicio = System.currentTimeMillis();
+        Optional<BloomFilter.Snapshot> snapshot = carregarSnapshot();
+        LocalDateTime desde;
+        if (snapshot.isPresent()) {
+            filtro = snapshot.get().filtro();
+            desde = LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.get().marcaDagua()), ZoneId.systemDefault())
+                    .minus(margemRecuperacao);
+            log.info("Snapshot do filtro de Bloom carregado em {} ms, relendo pedidos desde {}",
+                    System.currentTimeMillis() - inicio, desde);
+        } else {
+            filtro = new BloomFilter(capacidadeEsperada, taxaFalsoPositivo);
+            desde = LocalDateTime.of(1970, 1, 1, 0, 0);
+            log.info("Sem snapshot do filtro de Bloom, reconstruindo a partir de orders");
+        }
+        
+        try {
+            Long relidos = transactionTemplate.execute(status -> {
+                try (Stream<String> externalIds = pedidoRepository.streamExternalIdsDesde(desde)) {
+                    BloomFilter destino = filtro;
+                    return externalIds.peek(destino::registrar).count();
+                }
+            });
+            pronto = true;
+            log.info("Filtro de Bloom pronto em {} ms ({} externalIds relidos, {} bits, {} hashes)",
+                    System.currentTimeMillis() - inicio, relidos, filtro.getNumeroBits(), filtro.getNumeroHashes());
+        } catch (Exception e) {
+            log.error("Falha ao aquecer o filtro de Bloom, consultas seguem indo ao banco: {}", e.getMessage(), e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${pedidos.bloom.snapshot.intervalo-ms:60000}",
+               initialDelayString = "${pedidos.bloom.snapshot.intervalo-ms:60000}")
+    public void salvarSnapshot() {
+        if (!pronto) {
+            return;
+        }
+        // Marca tirada antes da cópia: registros concorrentes são relidos na recuperação
+        long marcaDagua = System.currentTimeMillis();
+        try {
+            filtro.salvar(arquivoSnapshot, marcaDagua);
+        } catch (IOException e) {
+            log.warn("Não foi possível salvar o snapshot do filtro de Bloom em {}: {}", arquivoSnapshot, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        salvarSnapshot();
+    }
+    
+    private Optional<BloomFilter.Snapshot> carregarSnapshot() {
+        try {
+            return BloomFilter.carregar(arquivoSnapshot, capacidadeEsperada, taxaFalsoPositivo);
+        } catch (IOException e) {
+            log.warn("Snapshot do filtro de Bloom ilegível em {}: {}", arquivoSnapshot, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private double taxaFalsoPositivoObservada() {
+        double fp = falsosPositivos.count();
+        double negativos = consultasAusentes.count();
+        return fp + negativos == 0 ? 0 : fp / (fp + negativos);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.domain.entity.PedidoEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache em processo dos pedidos lidos por id e por externalId.
+ * <p>
+ * Os dois índices são caches Caffeine limitados por tamanho e TTL; um pedido carregado por
+ * um deles é gravado nos dois. Escritas só entram no cache depois do commit, e alterações
+ * na entidade (ver {@link PedidoCacheListener}) invalidam as duas chaves antes e depois do
+ * commit, para que uma leitura concorrente não repovoe o cache com o valor antigo.
+ * <p>
+ * As instâncias em cache são entidades desanexadas: servem para leitura, não para alteração.
+ */
+@Component
+public class PedidoCache {
+    
+    static final String CACHE_POR_ID = "pedidos.por-id";
+    static final String CACHE_POR_EXTERNAL_ID = "pedidos.por-external-id";
+    
+    private final boolean habilitado;
+    private final Cache<Long, PedidoEntity> porId;
+    private final Cache<String, PedidoEntity> porExternalId;
+    
+    public PedidoCache(MeterRegistry meterRegistry,
+                       @Value("${pedidos.cache.enabled:true}") boolean habilitado,
+                       @Value("${pedidos.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                       @Value("${pedidos.cache.ttl:PT60S}") Duration ttl) {
+        this.habilitado = habilitado;
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.porExternalId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size... via /actuator/prometheus
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, CACHE_POR_ID);
+        CaffeineCacheMetrics.monitor(meterRegistry, porExternalId, CACHE_POR_EXTERNAL_ID);
+    }
+    
+    public Optional<PedidoEntity> buscarPorId(Long id, Function<Long, Optional<PedidoEntity>> carregador) {
+        if (!habilitado) {
+            return carregador.apply(id);
+        }
+        PedidoEntity pedido = porId.getIfPresent(id);
+        if (pedido != null) {
+            return Optional.of(pedido);
+        }
+        return carregar(carregador.apply(id));
+    }
+    
+    public Optional<PedidoEntity> buscarPorExternalId(String externalId,
+                                                      Function<String, Optional<PedidoEntity>> carregador) {
+        if (!habilitado) {
+            return carregador.apply(externalId);
+        }
+        PedidoEntity pedido = porExternalId.getIfPresent(externalId);
+        if (pedido != null) {
+            return Optional.of(pedido);
+        }
+        return carregar(carregador.apply(externalId));
+    }
+    
+    /**
+     * Grava o pedido nos dois índices assim que a transação corrente fizer commit
+     * (ou imediatamente, fora de transação).
+     */
+    public void registrar(PedidoEntity pedido) {
+        if (habilitado) {
+            aposCommit(() -> armazenar(pedido));
+        }
+    }
+    
+    public void invalidar(PedidoEntity pedido) {
+        if (!habilitado) {
+            return;
+        }
+        remover(pedido);
+        aposCommit(() -> remover(pedido));
+    }
+    
+    private Optional<PedidoEntity> carregar(Optional<PedidoEntity> pedido) {
+        pedido.ifPresent(this::armazenar);
+        return pedido;
+    }
+    
+    private void armazenar(PedidoEntity pedido) {
+        if (pedido.getId() != null) {
+            porId.put(pedido.getId(), pedido);
+        }
+        porExternalId.put(pedido.getExternalId(), pedido);
+    }
+    
+    private void remover(PedidoEntity pedido) {
+        if (pedido.getId() != null) {
+            porId.invalidate(pedido.getId());
+        }
+        porExternalId.invalidate(pedido.getExternalId());
+    }
+    
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
\ No newline at end of file
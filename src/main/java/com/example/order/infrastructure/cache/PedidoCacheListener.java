@@ -0,0 +1,28 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.domain.entity.PedidoEntity;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalida o {@link PedidoCache} quando um pedido é alterado (ex.: mudança de status) ou removido,
+ * e marca o pedido em {@link EscritasRecentes}.
+ * Instanciado pelo Hibernate através do container de beans do Spring.
+ */
+@Component
+@RequiredArgsConstructor
+public class PedidoCacheListener {
+    
+    private final PedidoCache pedidoCache;
+    private final EscritasRecentes escritasRecentes;
+    
+    @PostUpdate
+    @PostRemove
+    public void invalidar(PedidoEntity pedido) {
+        pedidoCache.invalidar(pedido);
+        // Até a réplica alcançar, o recarregamento do cache vem do primário
+        escritasRecentes.registrar(pedido.getExternalId(), pedido.getId());
+    }
+}
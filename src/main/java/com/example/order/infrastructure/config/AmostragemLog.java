@@ -0,0 +1,58 @@
+package com.example.order.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Amostragem dos logs detalhados do caminho quente ({@code pedidos.log.amostragem}, de 0 a 1).
+ * <p>
+ * Por pedido, a decisão sai do hash do externalId: todas as linhas de um pedido amostrado
+ * aparecem juntas, em qualquer instância e também nas retentativas. Erros e avisos não passam
+ * por aqui e são sempre registrados.
+ */
+@Component
+public class AmostragemLog {
+    
+    private static final int ESCALA = 10_000;
+    
+    private final int limite;
+    
+    public AmostragemLog(@Value("${pedidos.log.amostragem:1.0}") double taxa) {
+        if (taxa < 0 || taxa > 1) {
+            throw new IllegalArgumentException("Taxa de amostragem de log deve estar entre 0 e 1: " + taxa);
+        }
+        this.limite = (int) Math.round(taxa * ESCALA);
+    }
+    
+    /**
+     * true se o pedido deste externalId tem o log detalhado.
+     */
+    public boolean detalhar(String externalId) {
+        if (limite >= ESCALA) {
+            return true;
+        }
+        if (limite == 0 || externalId == null) {
+            return false;
+        }
+        return Math.floorMod(espalhar(externalId.hashCode()), ESCALA) < limite;
+    }
+    
+    /**
+     * Sorteio independente, para eventos sem chave (requisições HTTP).
+     */
+    public boolean detalhar() {
+        return limite >= ESCALA || limite > 0 && ThreadLocalRandom.current().nextInt(ESCALA) < limite;
+    }
+    
+    // Mistura final do MurmurHash3: externalIds sequenciais não caem todos na mesma faixa
+    private static int espalhar(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
\ No newline at end of file
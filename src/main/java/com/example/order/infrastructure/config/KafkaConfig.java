@@ -1,44 +1,183 @@
 package com.example.order.infrastructure.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@Slf4j
 public class KafkaConfig {
     
+    /**
+     * Perfis de agrupamento do producer. {@code LATENCIA} envia cada registro assim que
+     * possível; {@code VAZAO} espera mais para encher lotes maiores e comprime melhor.
+     * Cada valor pode ser sobrescrito em {@code pedidos.kafka.producer.*}.
+     */
+    public enum PerfilProdutor {
+        LATENCIA(0, 16_384, "none"),
+        EQUILIBRADO(5, 65_536, "lz4"),
+        VAZAO(20, 262_144, "zstd");
+        
+        final int lingerMs;
+        final int batchSize;
+        final String compressao;
+        
+        PerfilProdutor(int lingerMs, int batchSize, String compressao) {
+            this.lingerMs = lingerMs;
+            this.batchSize = batchSize;
+            this.compressao = compressao;
+        }
+    }
+    
+    static final String CLIENT_ID_EVENTOS = "order-service-eventos";
+    
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
     
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
     
+    /**
+     * Quando habilitado, o listener recebe o poll inteiro como lista e processa
+     * todos os pedidos em uma única transação (ver KafkaPedidoBatchConsumer).
+     */
+    @Value("${pedidos.kafka.consumer.batch-enabled:false}")
+    private boolean batchEnabled;
+    
+    /**
+     * O modo paralelo também recebe o poll como lista (ver KafkaPedidoParaleloConsumer).
+     */
+    @Value("${pedidos.kafka.consumer.paralelo.enabled:false}")
+    private boolean paraleloEnabled;
+    
+    // Modo lote: mesmas tentativas e atrasos das retentativas do modo por registro, mas bloqueantes
+    @Value("${pedidos.kafka.retry.tentativas:4}")
+    private int tentativas;
+    
+    @Value("${pedidos.kafka.retry.atraso-inicial-ms:1000}")
+    private long atrasoInicialMs;
+    
+    @Value("${pedidos.kafka.retry.multiplicador:5}")
+    private double multiplicador;
+    
+    @Value("${pedidos.kafka.retry.atraso-maximo-ms:60000}")
+    private long atrasoMaximoMs;
+    
+    @Value("${pedidos.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+    
+    @Value("${pedidos.kafka.consumer.concurrency:1}")
+    private int concurrency;
+    
+    @Value("${pedidos.kafka.producer.perfil:EQUILIBRADO}")
+    private PerfilProdutor perfilProdutor;
+    
+    // Vazios = valor do perfil
+    @Value("${pedidos.kafka.producer.linger-ms:}")
+    private Integer lingerMs;
+    
+    @Value("${pedidos.kafka.producer.batch-size:}")
+    private Integer batchSize;
+    
+    @Value("${pedidos.kafka.producer.compression-type:}")
+    private String compressao;
+    
+    private final Environment environment;
+    
+    public KafkaConfig(Environment environment) {
+        this.environment = environment;
+    }
+    
+    @Bean
+    public ProducerFactory<String, String> producerFactory(MeterRegistry meterRegistry) {
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(
+                configuracaoProducer(StringSerializer.class));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+    
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+    
+    /**
+     * Producer dos eventos publicados pela aplicação: mesma configuração do producer de texto,
+     * mas o valor já chega codificado em bytes (JSON ou Smile, ver CodecEventoPedido).
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactoryEventos(MeterRegistry meterRegistry) {
+        Map<String, Object> configProps = configuracaoProducer(ByteArraySerializer.class);
+        // Prefixo do client.id (a fábrica acrescenta -N): separa as métricas deste producer das do de texto
+        configProps.put(ProducerConfig.CLIENT_ID_CONFIG, CLIENT_ID_EVENTOS);
+        int tamanhoLote = (int) configProps.get(ProducerConfig.BATCH_SIZE_CONFIG);
+        log.info("Producer Kafka: perfil {} (linger.ms={}, batch.size={}, compression.type={})",
+                perfilProdutor, configProps.get(ProducerConfig.LINGER_MS_CONFIG), tamanhoLote,
+                configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(configProps);
+        // kafka.producer.* (batch.size.avg, record.queue.time.avg, request.latency.avg...) no /actuator/prometheus
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        Gauge.builder("pedidos.kafka.producer.lote.preenchimento", meterRegistry,
+                        registro -> preenchimentoLote(registro, CLIENT_ID_EVENTOS, tamanhoLote))
+                .description("Tamanho médio dos lotes enviados em relação ao batch.size configurado")
+                .register(meterRegistry);
+        return factory;
+    }
+    
+    @Bean
+    public KafkaTemplate<String, byte[]> kafkaTemplateEventos(ProducerFactory<String, byte[]> producerFactoryEventos) {
+        return new KafkaTemplate<>(producerFactoryEventos);
+    }
+    
+    private Map<String, Object> configuracaoProducer(Class<?> valueSerializer) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs != null ? lingerMs : perfilProdutor.lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize != null ? batchSize : perfilProdutor.batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                compressao != null && !compressao.isBlank() ? compressao : perfilProdutor.compressao);
+        return configProps;
     }
     
-    @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    static double preenchimentoLote(MeterRegistry meterRegistry, String clientId, int tamanhoLote) {
+        for (Gauge media : meterRegistry.find("kafka.producer.batch.size.avg").gauges()) {
+            String tag = media.getId().getTag("client.id");
+            if (tag != null && (tag.equals(clientId) || tag.startsWith(clientId + "-"))) {
+                return media.value() / tamanhoLote;
+            }
+        }
+        return Double.NaN;
     }
     
     @Bean
@@ -50,17 +189,48 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         configProps.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
         configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, StringDeserializer.class);
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
     
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
+            KafkaTemplate<String, String> kafkaTemplate) {
         ConcurrentKafkaListenerContainerFactory<String, String> factory = 
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(batchEnabled || paraleloEnabled);
+        factory.setConcurrency(concurrency);
+        // spring.threads.virtual.enabled=true (Java 21+): cada consumidor roda em uma thread virtual
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        if (batchEnabled && !paraleloEnabled) {
+            factory.setCommonErrorHandler(tratamentoErroLote(kafkaTemplate));
+        }
         return factory;
     }
+    
+    /**
+     * Error handler do KafkaPedidoBatchConsumer. Com o índice da {@code BatchListenerFailedException},
+     * confirma os registros anteriores, retenta só o que falhou e, esgotadas as tentativas, o
+     * publica em {@code <tópico>.dlq} (a mesma DLQ do modo por registro) e relê o restante do
+     * poll. Registro ilegível ou inválido vai direto para a DLQ.
+     */
+    DefaultErrorHandler tratamentoErroLote(KafkaTemplate<String, String> kafkaTemplate) {
+        DeadLetterPublishingRecoverer dlq = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(record.topic() + ".dlq", -1));
+        ExponentialBackOffWithMaxRetries espera = new ExponentialBackOffWithMaxRetries(tentativas - 1);
+        espera.setInitialInterval(atrasoInicialMs);
+        espera.setMultiplier(multiplicador);
+        espera.setMaxInterval(atrasoMaximoMs);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(dlq, espera);
+        errorHandler.addNotRetryableExceptions(JsonProcessingException.class, ConstraintViolationException.class);
+        return errorHandler;
+    }
 } 
\ No newline at end of file
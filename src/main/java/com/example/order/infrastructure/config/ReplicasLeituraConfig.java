@@ -0,0 +1,98 @@
+package com.example.order.infrastructure.config;
+
+import com.example.order.infrastructure.repository.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura do PostgreSQL ({@code pedidos.replicas.enabled=true}): as consultas em
+ * transações {@code readOnly} (GETs da API, exportação) vão a {@code pedidos.replicas.urls},
+ * em rodízio, e a ingestão continua sozinha no primário.
+ * <p>
+ * O primário segue configurado em {@code spring.datasource.*}. As réplicas usam o mesmo
+ * usuário, senha e tamanho de pool, salvo {@code pedidos.replicas.*}; seus pools aparecem nas
+ * métricas {@code hikaricp.*} como {@code pedidos-replica-N}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReplicasLeituraConfig {
+    
+    @Value("${pedidos.replicas.urls}")
+    private List<String> urls;
+    
+    @Value("${pedidos.replicas.username:${spring.datasource.username:}}")
+    private String usuario;
+    
+    @Value("${pedidos.replicas.password:${spring.datasource.password:}}")
+    private String senha;
+    
+    @Value("${pedidos.replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int tamanhoPool;
+    
+    // Curto: réplica fora do ar deve cair logo no primário, não segurar a requisição
+    @Value("${pedidos.replicas.connection-timeout:PT2S}")
+    private Duration timeoutConexao;
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("pedidos-primario");
+        return dataSource;
+    }
+    
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource dataSourcePrimario,
+                                                     DataSourceProperties propriedades,
+                                                     MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("pedidos-replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(usuario);
+            replica.setPassword(senha);
+            replica.setDriverClassName(propriedades.determineDriverClassName());
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setConnectionTimeout(timeoutConexao.toMillis());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        log.info("Leituras somente leitura distribuídas entre {} réplica(s)", replicas.size());
+        return new RoteamentoDataSource(dataSourcePrimario, replicas);
+    }
+    
+    /**
+     * O {@code DataSource} da aplicação (JPA, JdbcTemplate): a conexão real só é escolhida no
+     * primeiro comando, depois de a transação ter sido marcada como somente leitura.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        // Padrões do Hikari e do PostgreSQL informados aqui: sem eles o proxy abre uma conexão
+        // na subida só para descobri-los
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setTargetDataSource(roteamentoDataSource);
+        return dataSource;
+    }
+}
\ No newline at end of file
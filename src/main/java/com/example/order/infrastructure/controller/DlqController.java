@@ -0,0 +1,43 @@
+package com.example.order.infrastructure.controller;
+
+import com.example.order.application.dto.ReprocessamentoDlqDTO;
+import com.example.order.infrastructure.messaging.ReprocessadorDlq;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/pedidos/dlq")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "DLQ", description = "Operação da fila de pedidos que esgotaram as tentativas")
+public class DlqController {
+    
+    static final int LIMITE_MAXIMO = 10_000;
+    
+    private final ReprocessadorDlq reprocessadorDlq;
+    
+    @PostMapping("/replay")
+    @Operation(summary = "Reinjetar pedidos da DLQ",
+               description = "Republica em pedidos.recebidos até 'limit' registros de pedidos.recebidos.dlq, na ordem de cada partição")
+    public ResponseEntity<ReprocessamentoDlqDTO> reinjetar(@RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        log.info("Reinjetando até {} registros da DLQ", limit);
+        
+        int reinjetados = reprocessadorDlq.reinjetar(limit);
+        
+        return ResponseEntity.ok(ReprocessamentoDlqDTO.builder()
+                .topicoDlq(ReprocessadorDlq.TOPICO_DLQ)
+                .topicoDestino(ReprocessadorDlq.TOPICO_ORIGEM)
+                .reinjetados(reinjetados)
+                .build());
+    }
+}
\ No newline at end of file
@@ -1,26 +1,40 @@
 package com.example.order.infrastructure.controller;
 
+import com.example.order.application.dto.EstatisticasPedidosDTO;
+import com.example.order.application.dto.PaginaPedidosDTO;
 import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.PedidoResponseDTO;
+import com.example.order.application.dto.StatusPedidoDTO;
+import com.example.order.application.service.ExportacaoPedidosService;
+import com.example.order.application.service.IngestaoAssincronaService;
+import com.example.order.application.service.IngestaoLoteService;
 import com.example.order.application.service.PedidoService;
 import com.example.order.domain.entity.PedidoEntity;
-import com.example.order.domain.entity.ProdutoEntity;
 import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -32,60 +46,155 @@ import java.util.Map;
 public class PedidoController {
     
     private final PedidoService pedidoService;
+    private final IngestaoLoteService ingestaoLoteService;
+    private final ExportacaoPedidosService exportacaoPedidosService;
+    private final IngestaoAssincronaService ingestaoAssincronaService;
     
     @PostMapping
     @Operation(summary = "Criar novo pedido", description = "Processa e salva um novo pedido")
-    public ResponseEntity<Map<String, Object>> criarPedido(@RequestBody @Valid PedidoDTO pedidoDTO) {
-        log.info("Recebendo requisição para criar pedido: {}", pedidoDTO.getExternalId());
+    public ResponseEntity<PedidoResponseDTO> criarPedido(@RequestBody @Valid PedidoDTO pedidoDTO) {
+        log.debug("Recebendo requisição para criar pedido: {}", pedidoDTO.getExternalId());
         
-        PedidoEntity pedido = pedidoService.processarPedido(pedidoDTO);
+        // O service devolve o agregado recém-gravado: sem reconsultar os produtos
+        PedidoResponseDTO response = pedidoService.criarPedido(pedidoDTO);
         
-        // Buscar os produtos associados ao pedido
-        List<ProdutoEntity> produtos = pedidoService.buscarProdutosPorPedidoId(pedido.getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @PostMapping("/async")
+    @Operation(summary = "Aceitar pedido para processamento assíncrono",
+               description = "Valida e publica o pedido em pedidos.recebidos; responde 202 com a URL de status em Location")
+    public ResponseEntity<StatusPedidoDTO> aceitarPedido(@RequestBody @Valid PedidoDTO pedidoDTO) {
+        log.debug("Recebendo requisição assíncrona para pedido: {}", pedidoDTO.getExternalId());
+        
+        StatusPedidoDTO status = ingestaoAssincronaService.aceitar(pedidoDTO);
+        URI urlStatus = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/pedidos/external/{externalId}/status")
+                .buildAndExpand(pedidoDTO.getExternalId())
+                .toUri();
+        
+        return ResponseEntity.accepted().location(urlStatus).body(status);
+    }
+    
+    @PostMapping(
+        path = "/batch",
+        consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    @Operation(summary = "Ingestão em lote", 
+               description = "Recebe pedidos em NDJSON (ou array JSON) e devolve uma linha NDJSON por pedido: CRIADO, DUPLICADO ou INVALIDO")
+    public ResponseEntity<StreamingResponseBody> criarPedidosEmLote(HttpServletRequest request) {
+        log.info("Recebendo requisição de ingestão em lote");
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Pedido criado com sucesso");
-        response.put("pedidoId", pedido.getId());
-        response.put("externalId", pedido.getExternalId());
-        response.put("status", pedido.getStatus());
-        response.put("total", pedido.getTotal());
-        response.put("createdAt", pedido.getCreatedAt());
+        StreamingResponseBody corpo = saida -> ingestaoLoteService.ingerir(request.getInputStream(), saida);
         
-        // Adicionar os produtos à resposta
-        List<Map<String, Object>> produtosResponse = new ArrayList<>();
-        for (ProdutoEntity produto : produtos) {
-            Map<String, Object> produtoMap = new HashMap<>();
-            produtoMap.put("id", produto.getId());
-            produtoMap.put("nome", produto.getNome());
-            produtoMap.put("preco", produto.getPreco());
-            produtosResponse.add(produtoMap);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+    
+    @GetMapping
+    @Operation(summary = "Listar pedidos",
+               description = "Lista pedidos por (createdAt, id) com paginação por cursor; use proximoCursor para a página seguinte")
+    public ResponseEntity<PaginaPedidosDTO> listarPedidos(
+            @RequestParam(required = false) PedidoStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + PedidoService.LIMITE_PAGINA_PADRAO) int limit,
+            @RequestParam(required = false) String include) {
+        log.info("Listando pedidos - status: {}, since: {}, limit: {}, include: {}", status, since, limit, include);
+        
+        return ResponseEntity.ok(pedidoService.listarPedidos(status, since, cursor, limit, incluirProdutos(include)));
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Estatísticas de pedidos",
+               description = "Pedidos, receita e itens por status, acumulados e por minuto, servidos de memória sem consultar a tabela de pedidos")
+    public ResponseEntity<EstatisticasPedidosDTO> consultarEstatisticas(@RequestParam(defaultValue = "15") int minutos) {
+        return ResponseEntity.ok(pedidoService.consultarEstatisticas(minutos));
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Exportar pedidos",
+               description = "Exporta pedidos com produtos em streaming (NDJSON: um pedido por linha; CSV: uma linha por produto), opcionalmente em gzip")
+    public ResponseEntity<StreamingResponseBody> exportarPedidos(
+            @RequestParam(required = false) PedidoStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @RequestParam(defaultValue = "NDJSON") ExportacaoPedidosService.Formato format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Exportando pedidos - status: {}, since: {}, until: {}, format: {}, gzip: {}",
+                status, since, until, format, gzip);
+        
+        StreamingResponseBody corpo = saida ->
+                exportacaoPedidosService.exportar(status, since, until, format, gzip, saida);
+        
+        String arquivo = "pedidos." + (format == ExportacaoPedidosService.Formato.CSV ? "csv" : "ndjson");
+        MediaType tipo = format == ExportacaoPedidosService.Formato.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        if (gzip) {
+            arquivo += ".gz";
+            tipo = new MediaType("application", "gzip");
         }
-        response.put("produtos", produtosResponse);
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
     }
     
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido pelo seu ID interno")
-    public ResponseEntity<PedidoEntity> buscarPorId(@PathVariable Long id) {
+    @Operation(summary = "Buscar pedido por ID",
+               description = "Retorna um pedido pelo seu ID interno; com include=produtos, traz os produtos na mesma consulta")
+    public ResponseEntity<?> buscarPorId(@PathVariable Long id,
+                                         @RequestParam(required = false) String include) {
         log.info("Buscando pedido por ID: {}", id);
         
+        if (incluirProdutos(include)) {
+            return ResponseEntity.ok(pedidoService.buscarComProdutosPorId(id));
+        }
+        
         PedidoEntity pedido = pedidoService.buscarPorId(id);
         
         return ResponseEntity.ok(pedido);
     }
     
     @GetMapping("/external/{externalId}")
-    @Operation(summary = "Buscar pedido por External ID", description = "Retorna um pedido pelo seu ID externo")
-    public ResponseEntity<PedidoEntity> buscarPorExternalId(@PathVariable String externalId) {
+    @Operation(summary = "Buscar pedido por External ID",
+               description = "Retorna um pedido pelo seu ID externo; com include=produtos, traz os produtos na mesma consulta")
+    public ResponseEntity<?> buscarPorExternalId(@PathVariable String externalId,
+                                                 @RequestParam(required = false) String include) {
         log.info("Buscando pedido por External ID: {}", externalId);
         
+        if (incluirProdutos(include)) {
+            return ResponseEntity.ok(pedidoService.buscarComProdutosPorExternalId(externalId));
+        }
+        
         PedidoEntity pedido = pedidoService.buscarPorExternalId(externalId);
         
         return ResponseEntity.ok(pedido);
     }
     
+    @GetMapping("/external/{externalId}/status")
+    @Operation(summary = "Consultar status de pedido",
+               description = "RECEBIDO enquanto aguarda processamento, o status do pedido depois de gravado, ou ERRO se foi para a DLQ")
+    public ResponseEntity<StatusPedidoDTO> consultarStatus(@PathVariable String externalId) {
+        return ingestaoAssincronaService.consultarStatus(externalId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    private static boolean incluirProdutos(String include) {
+        if (include == null || include.isBlank()) {
+            return false;
+        }
+        if (!"produtos".equals(include)) {
+            throw new IllegalArgumentException("Valor de include não suportado: " + include + " (use include=produtos)");
+        }
+        return true;
+    }
+    
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Verifica se o serviço está funcionando")
     public ResponseEntity<String> health() {
@@ -292,7 +401,7 @@ public class PedidoController {
             PedidoEntity pedido = PedidoEntity.builder()
                     .externalId("TEST-BANCO-" + System.currentTimeMillis())
                     .status(PedidoStatus.RECEBIDO)
-                    .total(new BigDecimal("10.00"))
+                    .total(Dinheiro.de("10.00"))
                     .build();
             
             // Aqui vamos tentar acessar o repositório diretamente
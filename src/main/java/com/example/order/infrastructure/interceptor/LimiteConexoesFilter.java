@@ -0,0 +1,121 @@
+package com.example.order.infrastructure.interceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as requisições da API em andamento ao tamanho do pool do Hikari.
+ * <p>
+ * Com threads virtuais o Tomcat deixa de ter um teto de threads, e milhares de requisições
+ * simultâneas iriam disputar {@code maximum-pool-size} conexões, estourando o
+ * {@code connection-timeout} do Hikari. Aqui elas esperam na fila do semáforo (barato em
+ * thread virtual) e, passado {@code pedidos.concorrencia.espera-maxima}, recebem 503.
+ * <p>
+ * Nos endpoints assíncronos ({@code /batch} e {@code /export} devolvem
+ * {@code StreamingResponseBody}) a thread do servlet retorna antes de o corpo ser escrito; a
+ * permissão fica retida até o {@code AsyncContext} concluir, pois é ali que a conexão é usada.
+ * Só é registrado quando {@code spring.threads.virtual.enabled=true} em Java 21+.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class LimiteConexoesFilter extends OncePerRequestFilter {
+    
+    private final Semaphore permissoes;
+    private final long esperaMaximaNanos;
+    private final Counter rejeitadas;
+    
+    public LimiteConexoesFilter(MeterRegistry meterRegistry,
+                                @Value("${pedidos.concorrencia.limite:${spring.datasource.hikari.maximum-pool-size:10}}") int limite,
+                                @Value("${pedidos.concorrencia.espera-maxima:PT5S}") Duration esperaMaxima) {
+        this.permissoes = new Semaphore(limite, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.rejeitadas = Counter.builder("pedidos.concorrencia.rejeitadas")
+                .description("Requisições recusadas por esperar demais por uma permissão de conexão")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.concorrencia.em-espera", permissoes, Semaphore::getQueueLength)
+                .description("Requisições aguardando permissão de conexão")
+                .register(meterRegistry);
+        log.info("Threads virtuais ativas: requisições da API limitadas a {} simultâneas", limite);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean adquirida;
+        try {
+            adquirida = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        if (!adquirida) {
+            rejeitadas.increment();
+            log.warn("[CONCORRENCIA] {} {} recusada: sem conexão disponível", request.getMethod(), request.getRequestURI());
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        boolean assincrona = false;
+        try {
+            filterChain.doFilter(request, response);
+            assincrona = request.isAsyncStarted();
+        } finally {
+            if (assincrona) {
+                request.getAsyncContext().addListener(new LiberaAoConcluir());
+            } else {
+                permissoes.release();
+            }
+        }
+    }
+    
+    /**
+     * Devolve a permissão quando a requisição assíncrona termina. O container sempre chama
+     * {@code onComplete}, inclusive depois de timeout ou erro, então a liberação fica só nele.
+     */
+    private class LiberaAoConcluir implements AsyncListener {
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permissoes.release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
\ No newline at end of file
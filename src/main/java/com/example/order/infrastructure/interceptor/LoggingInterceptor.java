@@ -1,36 +1,55 @@
 package com.example.order.infrastructure.interceptor;
 
+import com.example.order.infrastructure.config.AmostragemLog;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * Uma linha por requisição, ao terminar, com método, URI, status e duração como campos.
+ * Requisições com erro (exceção ou status 5xx) são sempre registradas, com a exceção
+ * completa; as demais seguem {@code pedidos.log.amostragem}.
+ */
 @Component
 @Slf4j
 public class LoggingInterceptor implements HandlerInterceptor {
     
+    private static final String ATRIBUTO_INICIO = LoggingInterceptor.class.getName() + ".inicio";
+    
+    private final AmostragemLog amostragemLog;
+    
+    public LoggingInterceptor(AmostragemLog amostragemLog) {
+        this.amostragemLog = amostragemLog;
+    }
+    
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-        String userAgent = request.getHeader("User-Agent");
-        
-        log.info("[REQUEST] {} {} - User-Agent: {}", method, uri, userAgent);
-        
+        request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
         return true;
     }
     
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
         int status = response.getStatus();
+        boolean falha = ex != null || status >= 500;
+        if (!falha && !(log.isInfoEnabled() && amostragemLog.detalhar())) {
+            return;
+        }
         
+        LoggingEventBuilder evento = (falha ? log.atError() : log.atInfo())
+                .addKeyValue("metodo", request.getMethod())
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("status", status);
+        if (request.getAttribute(ATRIBUTO_INICIO) instanceof Long inicio) {
+            evento = evento.addKeyValue("duracaoMs", (System.nanoTime() - inicio) / 1_000_000);
+        }
         if (ex != null) {
-            log.error("[RESPONSE] {} {} - Status: {} - Error: {}", method, uri, status, ex.getMessage());
-        } else {
-            log.info("[RESPONSE] {} {} - Status: {}", method, uri, status);
+            evento = evento.setCause(ex);
         }
+        evento.addKeyValue("userAgent", request.getHeader("User-Agent"))
+                .log(falha ? "Requisição HTTP com erro" : "Requisição HTTP concluída");
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.domain.entity.PedidoEntity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codifica e decodifica os eventos de {@code pedidos.processados} em JSON ou Smile.
+ * <p>
+ * Smile é o formato binário do Jackson: mesmo modelo de dados do JSON (os consumidores
+ * usam o mesmo ObjectMapper, só trocando a factory), com números em binário e nomes de
+ * campo repetidos referenciados em vez de reescritos. O outbox continua guardando JSON; o
+ * relay transcodifica token a token na publicação, sem montar árvore nem entidade.
+ */
+@Component
+public class CodecEventoPedido {
+    
+    private final SmileFactory smileFactory;
+    private final ObjectMapper jsonMapper;
+    private final ObjectWriter escritorJson;
+    private final ObjectWriter escritorSmile;
+    private final ObjectReader leitorJson;
+    private final ObjectReader leitorSmile;
+    
+    public CodecEventoPedido(ObjectMapper objectMapper) {
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        this.smileFactory = (SmileFactory) smileMapper.getFactory();
+        this.jsonMapper = objectMapper;
+        this.escritorJson = objectMapper.writerFor(PedidoEntity.class);
+        this.escritorSmile = smileMapper.writerFor(PedidoEntity.class);
+        this.leitorJson = objectMapper.readerFor(PedidoEntity.class);
+        this.leitorSmile = smileMapper.readerFor(PedidoEntity.class);
+    }
+    
+    public byte[] codificar(PedidoEntity pedido, CodificacaoEvento codificacao) {
+        try {
+            return codificacao == CodificacaoEvento.SMILE
+                    ? escritorSmile.writeValueAsBytes(pedido)
+                    : escritorJson.writeValueAsBytes(pedido);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao serializar pedido", e);
+        }
+    }
+    
+    /**
+     * Converte um evento já serializado em JSON (como gravado no outbox) para a codificação pedida.
+     */
+    public byte[] transcodificar(String json, CodificacaoEvento codificacao) {
+        if (codificacao == CodificacaoEvento.JSON) {
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length());
+        try (JsonParser parser = jsonMapper.getFactory().createParser(json);
+             JsonGenerator gerador = smileFactory.createGenerator(saida)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    // Copiado como BigDecimal: via double, 10.00 viraria 10.0 e valores grandes perderiam precisão
+                    gerador.writeNumber(parser.getDecimalValue());
+                } else {
+                    gerador.copyCurrentEvent(parser);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao transcodificar evento", e);
+        }
+        return saida.toByteArray();
+    }
+    
+    public PedidoEntity decodificar(byte[] valor, CodificacaoEvento codificacao) {
+        try {
+            return codificacao == CodificacaoEvento.SMILE
+                    ? leitorSmile.readValue(valor)
+                    : leitorJson.readValue(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao desserializar pedido", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.order.infrastructure.messaging;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codificação do valor dos eventos publicados, anunciada no header {@value #HEADER} de cada
+ * registro. Registros sem o header são JSON (formato anterior à opção binária).
+ */
+public enum CodificacaoEvento {
+    
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+    
+    public static final String HEADER = "contentType";
+    
+    private final String tipo;
+    private final byte[] tipoBytes;
+    
+    CodificacaoEvento(String tipo) {
+        this.tipo = tipo;
+        this.tipoBytes = tipo.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    public String tipo() {
+        return tipo;
+    }
+    
+    byte[] tipoBytes() {
+        return tipoBytes;
+    }
+    
+    public static CodificacaoEvento de(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        if (header == null) {
+            return JSON;
+        }
+        String tipo = new String(header.value(), StandardCharsets.UTF_8);
+        for (CodificacaoEvento codificacao : values()) {
+            if (codificacao.tipo.equals(tipo)) {
+                return codificacao;
+            }
+        }
+        throw new IllegalArgumentException("Codificação de evento não suportada: " + tipo);
+    }
+}
\ No newline at end of file
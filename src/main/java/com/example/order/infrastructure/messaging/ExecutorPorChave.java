@@ -0,0 +1,58 @@
+package com.example.order.infrastructure.messaging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de workers particionado por chave: cada worker é uma thread única com fila própria e
+ * a chave escolhe o worker por hash. Tarefas da mesma chave rodam na ordem de submissão;
+ * chaves diferentes rodam em paralelo, limitadas ao número de workers.
+ */
+class ExecutorPorChave {
+    
+    private final String nome;
+    private final ExecutorService[] workers;
+    
+    ExecutorPorChave(String nome, int quantidadeWorkers) {
+        if (quantidadeWorkers < 1) {
+            throw new IllegalArgumentException("Quantidade de workers deve ser positiva: " + quantidadeWorkers);
+        }
+        this.nome = nome;
+        this.workers = new ExecutorService[quantidadeWorkers];
+        for (int i = 0; i < quantidadeWorkers; i++) {
+            String nomeThread = nome + "-worker-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, nomeThread);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    CompletableFuture<Void> submeter(String chave, Runnable tarefa) {
+        return CompletableFuture.runAsync(tarefa, workers[worker(chave)]);
+    }
+    
+    int worker(String chave) {
+        return chave == null ? 0 : Math.floorMod(chave.hashCode(), workers.length);
+    }
+    
+    int quantidadeWorkers() {
+        return workers.length;
+    }
+    
+    String nome() {
+        return nome;
+    }
+    
+    void encerrar(long timeout, TimeUnit unidade) throws InterruptedException {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        for (ExecutorService worker : workers) {
+            worker.awaitTermination(timeout, unidade);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.example.order.application.service.PedidoDuplicadoException;
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listener em modo lote para {@code pedidos.recebidos}.
+ * <p>
+ * Ativo com {@code pedidos.kafka.consumer.batch-enabled=true}: cada poll vira uma única
+ * transação em {@link PedidoService#processarLote(List, OrigemIngestao)} e um único ack. Se o
+ * lote falha (um pedido com total fora de {@code numeric(10,2)}, por exemplo), a transação
+ * inteira é desfeita e os registros são regravados um a um, em ordem; o primeiro que falhar
+ * sozinho é informado por {@link BatchListenerFailedException} com o seu índice. O error handler
+ * do container (ver {@code KafkaConfig}) confirma os anteriores, retenta esse registro com os
+ * atrasos de {@code pedidos.kafka.retry.*}, manda-o para {@code pedidos.recebidos.dlq} e relê
+ * o restante do poll. Registros que não podem ser convertidos ou que não passam na validação
+ * vão para a DLQ sem retentativa. Com {@code pedidos.kafka.consumer.paralelo.enabled=true}
+ * quem consome é o {@link KafkaPedidoParaleloConsumer}.
+ */
+@Component
+@ConditionalOnExpression("${pedidos.kafka.consumer.batch-enabled:false} and !${pedidos.kafka.consumer.paralelo.enabled:false}")
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaPedidoBatchConsumer {
+    
+    private final PedidoService pedidoService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    
+    @KafkaListener(
+        topics = "pedidos.recebidos",
+        groupId = "order-service-group",
+        containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumirLote(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        log.info("Recebendo lote do Kafka com {} registros", records.size());
+        
+        // Só os registros antes do primeiro ilegível ou inválido: ele vai para a DLQ e o restante volta no próximo poll
+        List<PedidoDTO> pedidos = new ArrayList<>(records.size());
+        RuntimeException rejeicao = null;
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                pedidos.add(converter(record));
+            } catch (JsonProcessingException | ConstraintViolationException e) {
+                log.error("Registro recusado - Partition: {}, Offset: {}: {}",
+                        record.partition(), record.offset(), e.getMessage());
+                rejeicao = new BatchListenerFailedException("Registro ilegível ou inválido", e, pedidos.size());
+                break;
+            }
+        }
+        
+        if (!pedidos.isEmpty()) {
+            gravar(records, pedidos);
+        }
+        if (rejeicao != null) {
+            throw rejeicao;
+        }
+        ack.acknowledge();
+    }
+    
+    private PedidoDTO converter(ConsumerRecord<String, String> record) throws JsonProcessingException {
+        PedidoDTO pedidoDTO = objectMapper.readValue(record.value(), PedidoDTO.class);
+        Set<ConstraintViolation<PedidoDTO>> violacoes = validator.validate(pedidoDTO);
+        if (!violacoes.isEmpty()) {
+            throw new ConstraintViolationException("Pedido inválido (" + violacoes.size() + " erros)", violacoes);
+        }
+        return pedidoDTO;
+    }
+    
+    private void gravar(List<ConsumerRecord<String, String>> records, List<PedidoDTO> pedidos) {
+        try {
+            List<ResultadoIngestaoDTO> resultados = pedidoService.processarLote(pedidos, OrigemIngestao.KAFKA);
+            long criados = resultados.stream()
+                    .filter(r -> r.getSituacao() == ResultadoIngestaoDTO.Situacao.CRIADO)
+                    .count();
+            log.info("Lote processado com sucesso: {} criados de {} registros", criados, pedidos.size());
+        } catch (RuntimeException e) {
+            log.warn("Falha no lote de {} registros, regravando um a um: {}", pedidos.size(), e.getMessage());
+            gravarUmAUm(records, pedidos);
+        }
+    }
+    
+    /**
+     * Cada pedido na sua própria transação, na ordem do poll. O que já foi gravado (inclusive
+     * por outra instância) conclui como duplicado.
+     */
+    private void gravarUmAUm(List<ConsumerRecord<String, String>> records, List<PedidoDTO> pedidos) {
+        for (int i = 0; i < pedidos.size(); i++) {
+            try {
+                pedidoService.ingerir(pedidos.get(i), OrigemIngestao.KAFKA);
+            } catch (PedidoDuplicadoException e) {
+                log.warn("{} - Partition: {}, Offset: {}", e.getMessage(), records.get(i).partition(), records.get(i).offset());
+            } catch (RuntimeException e) {
+                log.error("Erro ao processar pedido {} - Partition: {}, Offset: {}: {}", pedidos.get(i).getExternalId(),
+                        records.get(i).partition(), records.get(i).offset(), e.getMessage(), e);
+                throw new BatchListenerFailedException("Erro ao processar pedido", e, i);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,48 +1,137 @@
 package com.example.order.infrastructure.messaging;
 
 import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.example.order.application.service.PedidoDuplicadoException;
 import com.example.order.application.service.PedidoService;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.example.order.infrastructure.cache.AcompanhamentoIngestao;
+import com.example.order.infrastructure.config.AmostragemLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Listener por registro de {@code pedidos.recebidos} com retentativas não bloqueantes.
+ * <p>
+ * Um registro que falha é republicado em {@code pedidos.recebidos.retry-N}, cada tópico com
+ * um atraso maior ({@code pedidos.kafka.retry.*}), e a partição de origem segue consumindo.
+ * Esgotadas as tentativas, ou quando o payload nem é JSON válido, o registro vai para
+ * {@code pedidos.recebidos.dlq} com a causa nos headers {@code kafka_dlt-exception-*}; de lá
+ * pode ser reinjetado por {@code POST /api/pedidos/dlq/replay}, e o status consultado em
+ * {@code /api/pedidos/external/{externalId}/status} passa a ser {@code ERRO}. Pedido já
+ * gravado é confirmado sem nova tentativa; só conta como reenvio o resultado {@code DUPLICADO}
+ * ou o conflito na reivindicação do externalId ({@link PedidoDuplicadoException}), nunca
+ * outra violação de integridade.
+ */
 @Component
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = {"pedidos.kafka.consumer.batch-enabled", "pedidos.kafka.consumer.paralelo.enabled"},
+        havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class KafkaPedidoConsumer {
     
     private final PedidoService pedidoService;
     private final ObjectMapper objectMapper;
+    private final AcompanhamentoIngestao acompanhamento;
+    private final AmostragemLog amostragemLog;
+    private final Counter duplicados;
+    private final Counter mortos;
+    
+    public KafkaPedidoConsumer(PedidoService pedidoService, ObjectMapper objectMapper,
+                               AcompanhamentoIngestao acompanhamento, AmostragemLog amostragemLog,
+                               MeterRegistry meterRegistry) {
+        this.pedidoService = pedidoService;
+        this.objectMapper = objectMapper;
+        this.acompanhamento = acompanhamento;
+        this.amostragemLog = amostragemLog;
+        this.duplicados = Counter.builder("pedidos.kafka.consumer.reenvios")
+                .description("Registros de pedidos já gravados, confirmados sem reprocessar")
+                .register(meterRegistry);
+        this.mortos = Counter.builder("pedidos.kafka.consumer.dlq")
+                .description("Registros enviados para a DLQ após esgotar as tentativas")
+                .register(meterRegistry);
+    }
     
+    @RetryableTopic(
+        attempts = "${pedidos.kafka.retry.tentativas:4}",
+        backoff = @Backoff(
+            delayExpression = "${pedidos.kafka.retry.atraso-inicial-ms:1000}",
+            multiplierExpression = "${pedidos.kafka.retry.multiplicador:5}",
+            maxDelayExpression = "${pedidos.kafka.retry.atraso-maximo-ms:60000}"
+        ),
+        retryTopicSuffix = ".retry",
+        dltTopicSuffix = ".dlq",
+        topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+        numPartitions = "${pedidos.kafka.retry.particoes:3}",
+        kafkaTemplate = "kafkaTemplate",
+        exclude = JsonProcessingException.class,
+        traversingCauses = "true"
+    )
     @KafkaListener(
         topics = "pedidos.recebidos",
         groupId = "order-service-group",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumirPedido(@Payload String json, 
-                              @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                              @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-                              @Header(KafkaHeaders.OFFSET) long offset) {
+    public void consumirPedido(ConsumerRecord<String, String> record, Acknowledgment ack) {
         try {
-            log.info("Recebendo pedido do Kafka - Topic: {}, Partition: {}, Offset: {}", 
-                    topic, partition, offset);
-            
-            PedidoDTO pedidoDTO = objectMapper.readValue(json, PedidoDTO.class);
-            log.info("Processando pedido recebido: {}", pedidoDTO.getExternalId());
-            
-            pedidoService.processarPedido(pedidoDTO);
-            
-            log.info("Pedido processado com sucesso: {}", pedidoDTO.getExternalId());
+            PedidoDTO pedidoDTO = objectMapper.readValue(record.value(), PedidoDTO.class);
             
+            ResultadoIngestaoDTO resultado = pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+            if (resultado.getSituacao() == ResultadoIngestaoDTO.Situacao.DUPLICADO) {
+                // Reenvio (inclusive de uma tentativa anterior que gravou mas não confirmou)
+                duplicados.increment();
+                log.warn("{} - Topic: {}, Offset: {}", resultado.getMensagem(), record.topic(), record.offset());
+            } else if (amostragemLog.detalhar(pedidoDTO.getExternalId())) {
+                log.atInfo()
+                        .addKeyValue("externalId", pedidoDTO.getExternalId())
+                        .addKeyValue("topico", record.topic())
+                        .addKeyValue("particao", record.partition())
+                        .addKeyValue("offset", record.offset())
+                        .log("Pedido do Kafka processado");
+            }
+        
+        } catch (PedidoDuplicadoException e) {
+            // Corrida perdida na reivindicação do externalId no caminho exists + save
+            // (pedidos.ingestao.insercao-atomica=false); qualquer outra violação cai no catch abaixo
+            duplicados.increment();
+            log.warn("{} - Topic: {}, Offset: {}", e.getMessage(), record.topic(), record.offset());
         } catch (Exception e) {
-            log.error("Erro ao processar pedido recebido do Kafka: {}", e.getMessage(), e);
-            // Aqui poderia implementar DLQ (Dead Letter Queue) ou retry logic
+            log.error("Erro ao processar pedido recebido do Kafka ({}): {}", record.topic(), e.getMessage(), e);
             throw new RuntimeException("Erro ao processar pedido", e);
         }
+        ack.acknowledge();
+    }
+    
+    @DltHandler
+    public void registrarNaDlq(ConsumerRecord<String, String> record, Acknowledgment ack) {
+        mortos.increment();
+        String causa = header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error("Pedido enviado para a DLQ - Topic: {}, Chave: {}, Origem: {}, Causa: {}",
+                record.topic(), record.key(), header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC), causa);
+        // A chave é o externalId (POST /api/pedidos/async publica assim)
+        if (record.key() != null) {
+            acompanhamento.registrarErro(record.key(), causa);
+        }
+        ack.acknowledge();
+    }
+    
+    private static String header(ConsumerRecord<String, String> record, String nome) {
+        Header header = record.headers().lastHeader(nome);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener de {@code pedidos.recebidos} que processa o poll em paralelo sem perder a ordem
+ * por chave.
+ * <p>
+ * Ativo com {@code pedidos.kafka.consumer.paralelo.enabled=true}. Cada registro vai para um
+ * worker escolhido pela chave do registro (ou pelo externalId, quando a chave é nula), então
+ * registros da mesma chave são processados na ordem do tópico e chaves diferentes rodam ao
+ * mesmo tempo. O número de workers vem de
+ * {@code pedidos.kafka.consumer.paralelo.workers-por-topico.[topico]}, com
+ * {@code pedidos.kafka.consumer.paralelo.workers} como padrão.
+ * <p>
+ * O listener espera todos os registros do poll. Se algum falhou, confirma só os anteriores
+ * ao primeiro com falha e devolve o restante ao tópico ({@code nack}), que volta no próximo
+ * poll após {@code pedidos.kafka.consumer.paralelo.espera-reentrega}; registros já gravados
+ * que voltarem são reconhecidos como duplicados. Depois de uma falha, os registros seguintes
+ * da mesma chave no poll não são processados, para não passarem à frente do que falhou.
+ * Registros ilegíveis ou inválidos são descartados com log.
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.kafka.consumer.paralelo.enabled", havingValue = "true")
+@Slf4j
+public class KafkaPedidoParaleloConsumer {
+    
+    private final PedidoService pedidoService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int workersPadrao;
+    private final Map<String, Integer> workersPorTopico;
+    private final Duration esperaReentrega;
+    private final Map<String, ExecutorPorChave> executores = new ConcurrentHashMap<>();
+    private final Timer tempoPoll;
+    private final Counter devolvidos;
+    
+    public KafkaPedidoParaleloConsumer(PedidoService pedidoService,
+                                       ObjectMapper objectMapper,
+                                       Validator validator,
+                                       MeterRegistry meterRegistry,
+                                       Environment environment,
+                                       @Value("${pedidos.kafka.consumer.paralelo.workers:8}") int workersPadrao,
+                                       @Value("${pedidos.kafka.consumer.paralelo.espera-reentrega:PT1S}") Duration esperaReentrega) {
+        this.pedidoService = pedidoService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.workersPadrao = workersPadrao;
+        this.workersPorTopico = Binder.get(environment)
+                .bind("pedidos.kafka.consumer.paralelo.workers-por-topico", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        this.esperaReentrega = esperaReentrega;
+        this.tempoPoll = Timer.builder("pedidos.kafka.consumer.paralelo.poll")
+                .description("Tempo para processar todos os registros de um poll")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.devolvidos = Counter.builder("pedidos.kafka.consumer.paralelo.devolvidos")
+                .description("Registros devolvidos ao tópico por falha num registro anterior do poll")
+                .register(meterRegistry);
+    }
+    
+    @KafkaListener(
+        topics = "pedidos.recebidos",
+        groupId = "order-service-group",
+        containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumirParalelo(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        long inicio = System.nanoTime();
+        Set<String> chavesComFalha = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            PedidoDTO pedidoDTO = converter(record);
+            if (pedidoDTO == null) {
+                tarefas.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            String chave = record.key() != null ? record.key() : pedidoDTO.getExternalId();
+            tarefas.add(executor(record.topic()).submeter(chave,
+                    () -> processar(record, chave, pedidoDTO, chavesComFalha)));
+        }
+        
+        int primeiraFalha = aguardar(tarefas);
+        if (primeiraFalha < 0) {
+            ack.acknowledge();
+            log.info("Poll processado em paralelo: {} registros", records.size());
+        } else {
+            ConsumerRecord<String, String> falhou = records.get(primeiraFalha);
+            devolvidos.increment(records.size() - primeiraFalha);
+            log.warn("Falha no poll a partir de Partition: {}, Offset: {}; confirmados {} de {} registros",
+                    falhou.partition(), falhou.offset(), primeiraFalha, records.size());
+            ack.nack(primeiraFalha, esperaReentrega);
+        }
+        tempoPoll.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+    
+    private PedidoDTO converter(ConsumerRecord<String, String> record) {
+        try {
+            PedidoDTO pedidoDTO = objectMapper.readValue(record.value(), PedidoDTO.class);
+            Set<ConstraintViolation<PedidoDTO>> violacoes = validator.validate(pedidoDTO);
+            if (!violacoes.isEmpty()) {
+                log.warn("Pedido inválido descartado - Partition: {}, Offset: {}, Erros: {}",
+                        record.partition(), record.offset(), violacoes.size());
+                return null;
+            }
+            return pedidoDTO;
+        } catch (JsonProcessingException e) {
+            log.error("Registro ilegível descartado - Partition: {}, Offset: {}: {}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Roda no worker da chave. A ingestão só grava o que ainda não existe, então um registro
+     * reentregue depois de já ter sido gravado conclui como duplicado, sem erro.
+     */
+    private void processar(ConsumerRecord<String, String> record, String chave, PedidoDTO pedidoDTO,
+                           Set<String> chavesComFalha) {
+        if (chavesComFalha.contains(chave)) {
+            throw new IllegalStateException("Registro anterior da chave " + chave + " falhou neste poll");
+        }
+        try {
+            pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+        } catch (RuntimeException e) {
+            chavesComFalha.add(chave);
+            log.error("Erro ao processar pedido {} - Partition: {}, Offset: {}: {}",
+                    pedidoDTO.getExternalId(), record.partition(), record.offset(), e.getMessage(), e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Espera todas as tarefas (nenhuma fica rodando depois do ack) e devolve o índice da
+     * primeira que falhou, ou -1.
+     */
+    private static int aguardar(List<CompletableFuture<Void>> tarefas) {
+        int primeiraFalha = -1;
+        for (int i = 0; i < tarefas.size(); i++) {
+            try {
+                tarefas.get(i).join();
+            } catch (CompletionException e) {
+                if (primeiraFalha < 0) {
+                    primeiraFalha = i;
+                }
+            }
+        }
+        return primeiraFalha;
+    }
+    
+    private ExecutorPorChave executor(String topico) {
+        return executores.computeIfAbsent(topico, t -> {
+            int workers = workersPorTopico.getOrDefault(t, workersPadrao);
+            log.info("Consumo paralelo de {} com {} workers", t, workers);
+            return new ExecutorPorChave(t, workers);
+        });
+    }
+    
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        for (ExecutorPorChave executor : executores.values()) {
+            executor.encerrar(30, TimeUnit.SECONDS);
+        }
+    }
+}
\ No newline at end of file
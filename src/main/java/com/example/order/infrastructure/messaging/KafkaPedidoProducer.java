@@ -1,47 +1,160 @@
 package com.example.order.infrastructure.messaging;
 
+import com.example.order.domain.entity.OutboxEventoEntity;
 import com.example.order.domain.entity.PedidoEntity;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Publicação assíncrona no Kafka com número limitado de envios em andamento.
+ * <p>
+ * Cada envio ocupa uma permissão de {@code pedidos.kafka.producer.max-em-voo} até o broker
+ * confirmar (ou falhar). Quando todas estão ocupadas, quem envia espera até
+ * {@code pedidos.kafka.producer.espera-maxima} e, passado esse tempo, recebe um future com
+ * falha: a pressão volta para o chamador em vez de acumular futures sem limite. O
+ * agrupamento (linger/batch/compressão) fica a cargo do perfil configurado em
+ * {@link com.example.order.infrastructure.config.KafkaConfig}; retentativas de envio são
+ * feitas pelo próprio client ({@code retries} com idempotência).
+ * <p>
+ * O valor sai na codificação de {@code pedidos.kafka.producer.codificacao} (JSON por padrão,
+ * ou Smile), anunciada no header {@value CodificacaoEvento#HEADER} de cada registro.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaPedidoProducer {
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
-    
     private static final String TOPIC_PEDIDOS_PROCESSADOS = "pedidos.processados";
     
-    @Retryable(maxAttempts = 3)
-    public CompletableFuture<SendResult<String, String>> enviarPedidoProcessado(PedidoEntity pedido) {
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final CodecEventoPedido codec;
+    private final CodificacaoEvento codificacao;
+    private final Semaphore emVoo;
+    private final long esperaMaximaNanos;
+    private final Timer latenciaEnvio;
+    private final Counter falhas;
+    private final Counter rejeitados;
+    
+    public KafkaPedidoProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                               CodecEventoPedido codec,
+                               MeterRegistry meterRegistry,
+                               @Value("${pedidos.kafka.producer.codificacao:JSON}") CodificacaoEvento codificacao,
+                               @Value("${pedidos.kafka.producer.max-em-voo:10000}") int maxEmVoo,
+                               @Value("${pedidos.kafka.producer.espera-maxima:PT30S}") Duration esperaMaxima) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.codec = codec;
+        this.codificacao = codificacao;
+        this.emVoo = new Semaphore(maxEmVoo);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.latenciaEnvio = Timer.builder("pedidos.kafka.producer.envio")
+                .description("Tempo entre o envio e a confirmação do broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.falhas = Counter.builder("pedidos.kafka.producer.falhas")
+                .description("Envios ao Kafka que falharam")
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("pedidos.kafka.producer.rejeitados")
+                .description("Envios recusados por esperar demais por uma vaga em voo")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.kafka.producer.em-voo", emVoo, semaforo -> maxEmVoo - semaforo.availablePermits())
+                .description("Envios aguardando confirmação do broker")
+                .register(meterRegistry);
+    }
+    
+    public CompletableFuture<SendResult<String, byte[]>> enviarPedidoProcessado(PedidoEntity pedido) {
+        log.info("Enviando pedido processado para Kafka: {}", pedido.getExternalId());
+        return enviar(TOPIC_PEDIDOS_PROCESSADOS, pedido.getExternalId(), codec.codificar(pedido, codificacao));
+    }
+    
+    /**
+     * Envia todos os pedidos sem esperar confirmação um a um; o future conclui quando o
+     * broker confirmar todos, ou falha com o primeiro erro.
+     */
+    public CompletableFuture<Void> enviarPedidosProcessados(List<PedidoEntity> pedidos) {
+        CompletableFuture<?>[] envios = new CompletableFuture<?>[pedidos.size()];
+        for (int i = 0; i < pedidos.size(); i++) {
+            PedidoEntity pedido = pedidos.get(i);
+            envios[i] = enviar(TOPIC_PEDIDOS_PROCESSADOS, pedido.getExternalId(), codec.codificar(pedido, codificacao));
+        }
+        log.debug("Enviados {} pedidos processados para Kafka", pedidos.size());
+        return CompletableFuture.allOf(envios);
+    }
+    
+    /**
+     * Envia os eventos do outbox a partir do JSON gravado (sem reserializar a entidade).
+     */
+    public CompletableFuture<Void> enviarEventos(List<OutboxEventoEntity> eventos) {
+        CompletableFuture<?>[] envios = new CompletableFuture<?>[eventos.size()];
+        for (int i = 0; i < eventos.size(); i++) {
+            OutboxEventoEntity evento = eventos.get(i);
+            envios[i] = enviarEvento(evento.getTopico(), evento.getChave(), evento.getPayload());
+        }
+        return CompletableFuture.allOf(envios);
+    }
+    
+    /**
+     * Envia um evento já serializado em JSON, transcodificado para a codificação configurada.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> enviarEvento(String topico, String chave, String payload) {
+        return enviar(topico, chave, codec.transcodificar(payload, codificacao));
+    }
+    
+    /**
+     * Envia o valor já codificado, esperando uma vaga em voo se o limite foi atingido.
+     */
+    private CompletableFuture<SendResult<String, byte[]>> enviar(String topico, String chave, byte[] valor) {
+        if (!adquirirVaga()) {
+            rejeitados.increment();
+            return CompletableFuture.failedFuture(new TimeoutException(
+                    "Limite de envios em voo atingido ao publicar em " + topico));
+        }
+        
+        long inicio = System.nanoTime();
+        ProducerRecord<String, byte[]> registro = new ProducerRecord<>(topico, chave, valor);
+        registro.headers().add(CodificacaoEvento.HEADER, codificacao.tipoBytes());
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = kafkaTemplate.send(registro);
+        } catch (RuntimeException e) {
+            emVoo.release();
+            falhas.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        
+        future.whenComplete((result, throwable) -> {
+            emVoo.release();
+            latenciaEnvio.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            if (throwable != null) {
+                falhas.increment();
+                log.error("Erro ao enviar evento para Kafka: {}", throwable.getMessage());
+            } else {
+                log.debug("Evento enviado com sucesso para Kafka: {}", chave);
+            }
+        });
+        
+        return future;
+    }
+    
+    private boolean adquirirVaga() {
         try {
-            String json = objectMapper.writeValueAsString(pedido);
-            log.info("Enviando pedido processado para Kafka: {}", pedido.getExternalId());
-            
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(TOPIC_PEDIDOS_PROCESSADOS, pedido.getExternalId(), json);
-            
-            future.whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    log.error("Erro ao enviar pedido para Kafka: {}", throwable.getMessage());
-                } else {
-                    log.info("Pedido enviado com sucesso para Kafka: {}", pedido.getExternalId());
-                }
-            });
-            
-            return future;
-        } catch (JsonProcessingException e) {
-            log.error("Erro ao serializar pedido: {}", e.getMessage());
-            throw new RuntimeException("Erro ao serializar pedido", e);
+            return emVoo.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
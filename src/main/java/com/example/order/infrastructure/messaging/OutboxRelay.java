@@ -0,0 +1,126 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.domain.entity.OutboxEventoEntity;
+import com.example.order.infrastructure.repository.OutboxEventoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena a tabela de outbox para o Kafka em lotes.
+ * <p>
+ * A cada rodada trava até {@code pedidos.outbox.relay.tamanho-lote} eventos com
+ * {@code FOR UPDATE SKIP LOCKED}, envia todos sem esperar um a um, aguarda as confirmações
+ * do broker e marca o lote inteiro como publicado com um único UPDATE. Se algum envio falhar
+ * a transação é desfeita e o lote volta a ficar pendente (entrega at-least-once; o
+ * consumidor deduplica pela chave externalId).
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final KafkaPedidoProducer kafkaPedidoProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final long timeoutEnvioMs;
+    private final Duration retencao;
+    
+    private final DistributionSummary tamanhoLoteMetrica;
+    private final Counter publicadosMetrica;
+    private final AtomicLong atrasoMs = new AtomicLong();
+    
+    public OutboxRelay(OutboxEventoRepository outboxEventoRepository,
+                       KafkaPedidoProducer kafkaPedidoProducer,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${pedidos.outbox.relay.tamanho-lote:500}") int tamanhoLote,
+                       @Value("${pedidos.outbox.relay.timeout-envio-ms:30000}") long timeoutEnvioMs,
+                       @Value("${pedidos.outbox.retencao:PT24H}") Duration retencao) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.kafkaPedidoProducer = kafkaPedidoProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.timeoutEnvioMs = timeoutEnvioMs;
+        this.retencao = retencao;
+        
+        this.tamanhoLoteMetrica = DistributionSummary.builder("pedidos.outbox.relay.lote")
+                .description("Eventos publicados por rodada do relay")
+                .baseUnit("eventos")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.publicadosMetrica = Counter.builder("pedidos.outbox.relay.publicados")
+                .description("Eventos do outbox publicados no Kafka")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.outbox.relay.atraso", atrasoMs, valor -> valor.get() / 1000.0)
+                .description("Idade do evento pendente mais antigo na última rodada do relay")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${pedidos.outbox.relay.intervalo-ms:200}")
+    public void publicarPendentes() {
+        try {
+            int publicados;
+            do {
+                publicados = transactionTemplate.execute(status -> publicarLote());
+            } while (publicados == tamanhoLote);
+        } catch (Exception e) {
+            log.error("Erro ao publicar eventos do outbox: {}", e.getMessage(), e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${pedidos.outbox.limpeza-intervalo-ms:3600000}")
+    public void removerPublicados() {
+        Integer removidos = transactionTemplate.execute(status ->
+                outboxEventoRepository.removerPublicadosAntesDe(LocalDateTime.now().minus(retencao)));
+        if (removidos != null && removidos > 0) {
+            log.info("Removidos {} eventos já publicados do outbox", removidos);
+        }
+    }
+    
+    int publicarLote() {
+        List<OutboxEventoEntity> eventos = outboxEventoRepository.travarPendentes(tamanhoLote);
+        if (eventos.isEmpty()) {
+            atrasoMs.set(0);
+            return 0;
+        }
+        // Ordenado por id: o primeiro é o pendente mais antigo
+        atrasoMs.set(Math.max(0, Duration.between(eventos.get(0).getCreatedAt(), LocalDateTime.now()).toMillis()));
+        
+        CompletableFuture<Void> envios = kafkaPedidoProducer.enviarEventos(eventos);
+        List<Long> ids = new ArrayList<>(eventos.size());
+        for (OutboxEventoEntity evento : eventos) {
+            ids.add(evento.getId());
+        }
+        
+        try {
+            envios.get(timeoutEnvioMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new RuntimeException("Falha ao publicar lote de " + eventos.size() + " eventos do outbox", e);
+        }
+        
+        outboxEventoRepository.marcarComoPublicados(ids, LocalDateTime.now());
+        tamanhoLoteMetrica.record(eventos.size());
+        publicadosMetrica.increment(eventos.size());
+        log.debug("Lote de {} eventos do outbox publicado", eventos.size());
+        return eventos.size();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.infrastructure.cache.AcompanhamentoIngestao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reinjeta em {@code pedidos.recebidos} os registros parados em {@code pedidos.recebidos.dlq}.
+ * <p>
+ * Lê a DLQ com um grupo próprio ({@code pedidos.kafka.retry.dlq.grupo-replay}), então cada
+ * chamada continua de onde a anterior parou. O offset de um registro só é confirmado depois
+ * que o broker aceitou a cópia no tópico de origem: uma falha no meio não perde registros,
+ * no máximo reinjeta de novo os do último poll (e o consumidor trata duplicados).
+ */
+@Component
+@Slf4j
+public class ReprocessadorDlq {
+    
+    public static final String TOPICO_ORIGEM = "pedidos.recebidos";
+    public static final String TOPICO_DLQ = "pedidos.recebidos.dlq";
+    
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final AcompanhamentoIngestao acompanhamento;
+    private final String grupo;
+    private final Duration esperaPoll;
+    private final Counter reinjetados;
+    
+    public ReprocessadorDlq(ConsumerFactory<String, String> consumerFactory,
+                            KafkaTemplate<String, String> kafkaTemplate,
+                            AcompanhamentoIngestao acompanhamento,
+                            MeterRegistry meterRegistry,
+                            @Value("${pedidos.kafka.retry.dlq.grupo-replay:order-service-dlq-replay}") String grupo,
+                            @Value("${pedidos.kafka.retry.dlq.espera-poll:PT2S}") Duration esperaPoll) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.acompanhamento = acompanhamento;
+        this.grupo = grupo;
+        this.esperaPoll = esperaPoll;
+        this.reinjetados = Counter.builder("pedidos.kafka.dlq.reinjetados")
+                .description("Registros da DLQ reinjetados no tópico de origem")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Reinjeta até {@code limite} registros, na ordem de cada partição da DLQ, e devolve
+     * quantos foram reinjetados. Chamadas simultâneas são serializadas.
+     */
+    public synchronized int reinjetar(int limite) {
+        int total = 0;
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(grupo, null, "-dlq-replay")) {
+            List<PartitionInfo> particoes = consumer.partitionsFor(TOPICO_DLQ);
+            if (particoes == null || particoes.isEmpty()) {
+                log.info("DLQ {} inexistente ou sem partições; nada a reinjetar", TOPICO_DLQ);
+                return 0;
+            }
+            consumer.assign(particoes.stream()
+                    .map(particao -> new TopicPartition(particao.topic(), particao.partition()))
+                    .toList());
+            
+            while (total < limite) {
+                ConsumerRecords<String, String> records = consumer.poll(esperaPoll);
+                if (records.isEmpty()) {
+                    break;
+                }
+                List<CompletableFuture<?>> envios = new ArrayList<>(records.count());
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<String> recebidos = new ArrayList<>(records.count());
+                for (ConsumerRecord<String, String> record : records) {
+                    if (total == limite) {
+                        break;
+                    }
+                    envios.add(kafkaTemplate.send(TOPICO_ORIGEM, record.key(), record.value()));
+                    if (record.key() != null) {
+                        recebidos.add(record.key());
+                    }
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    total++;
+                }
+                CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).join();
+                consumer.commitSync(offsets);
+                reinjetados.increment(envios.size());
+                recebidos.forEach(acompanhamento::registrarRecebido);
+            }
+        }
+        log.info("Reinjetados {} registros de {} em {}", total, TOPICO_DLQ, TOPICO_ORIGEM);
+        return total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,300 @@
+package com.example.order.infrastructure.metrics;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.repository.EstatisticaPedidosProjecao;
+import com.example.order.infrastructure.repository.PedidoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas de pedidos em memória, para painéis que não devem consultar {@code orders}.
+ * <p>
+ * Mantém, por {@link PedidoStatus}, contadores acumulados de pedidos, receita (em centavos) e
+ * itens, e uma janela circular de {@code pedidos.estatisticas.janela-minutos} minutos com os
+ * mesmos contadores por minuto. Tudo em {@link LongAdder}: quem grava não disputa lock, e só a
+ * virada de minuto de uma posição da janela sincroniza. Pedidos entram após o commit.
+ * <p>
+ * Na subida os valores de pedidos criados antes da construção deste componente são lidos uma
+ * vez do banco (em segundo plano, duas consultas agregadas); até terminar, {@link #carregado()}
+ * é false e os números cobrem só o que esta instância gravou. Depois disso não há consulta:
+ * pedidos gravados por outras instâncias só aparecem na próxima subida.
+ */
+@Component
+@Slf4j
+public class EstatisticasPedidos {
+    
+    private static final long MILIS_POR_MINUTO = 60_000;
+    
+    private final PedidoRepository pedidoRepository;
+    private final Clock clock;
+    private final boolean cargaInicial;
+    private final LocalDateTime marcaCarga;
+    private final Map<PedidoStatus, Acumulador> totais = new EnumMap<>(PedidoStatus.class);
+    private final JanelaMinuto[] janelas;
+    
+    private volatile boolean carregado;
+    
+    @Autowired
+    public EstatisticasPedidos(PedidoRepository pedidoRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${pedidos.estatisticas.janela-minutos:60}") int janelaMinutos,
+                               @Value("${pedidos.estatisticas.carga-inicial:true}") boolean cargaInicial) {
+        this(pedidoRepository, meterRegistry, janelaMinutos, cargaInicial, Clock.systemDefaultZone());
+    }
+    
+    EstatisticasPedidos(PedidoRepository pedidoRepository, MeterRegistry meterRegistry, int janelaMinutos,
+                        boolean cargaInicial, Clock clock) {
+        if (janelaMinutos < 1) {
+            throw new IllegalArgumentException("Janela de estatísticas deve ter ao menos 1 minuto: " + janelaMinutos);
+        }
+        this.pedidoRepository = pedidoRepository;
+        this.clock = clock;
+        this.cargaInicial = cargaInicial;
+        // Pedidos criados a partir daqui são contados ao vivo; os anteriores vêm da carga
+        this.marcaCarga = LocalDateTime.now(clock).truncatedTo(ChronoUnit.MICROS);
+        this.carregado = !cargaInicial;
+        this.janelas = new JanelaMinuto[janelaMinutos];
+        for (int i = 0; i < janelaMinutos; i++) {
+            janelas[i] = new JanelaMinuto();
+        }
+        for (PedidoStatus status : PedidoStatus.values()) {
+            Acumulador total = new Acumulador();
+            totais.put(status, total);
+            String tagStatus = status.name();
+            Gauge.builder("pedidos.estatisticas.pedidos", total, acumulador -> acumulador.pedidos.sum())
+                    .description("Pedidos gravados, acumulado desde a criação da base")
+                    .tag("status", tagStatus)
+                    .register(meterRegistry);
+            Gauge.builder("pedidos.estatisticas.receita", total, acumulador -> acumulador.receitaCentavos.sum() / 100.0)
+                    .description("Soma dos totais dos pedidos gravados")
+                    .tag("status", tagStatus)
+                    .register(meterRegistry);
+            Gauge.builder("pedidos.estatisticas.itens", total, acumulador -> acumulador.itens.sum())
+                    .description("Produtos dos pedidos gravados")
+                    .tag("status", tagStatus)
+                    .register(meterRegistry);
+            Gauge.builder("pedidos.estatisticas.ultimo-minuto.pedidos", this, estatisticas -> estatisticas.ultimoMinuto(status).pedidos())
+                    .description("Pedidos gravados no último minuto completo")
+                    .tag("status", tagStatus)
+                    .register(meterRegistry);
+            Gauge.builder("pedidos.estatisticas.ultimo-minuto.receita", this,
+                            estatisticas -> estatisticas.ultimoMinuto(status).receita().doubleValue())
+                    .description("Receita dos pedidos gravados no último minuto completo")
+                    .tag("status", tagStatus)
+                    .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Conta um pedido gravado. Dentro de uma transação só entra após o commit.
+     */
+    public void registrar(PedidoStatus status, Dinheiro total, int itens) {
+        long centavos = total != null ? total.centavos() : 0;
+        aposCommit(() -> acumular(status, minutoAtual(), 1, centavos, itens));
+    }
+    
+    public Map<PedidoStatus, Resumo> totais() {
+        Map<PedidoStatus, Resumo> resumo = new EnumMap<>(PedidoStatus.class);
+        totais.forEach((status, acumulador) -> resumo.put(status, acumulador.resumo()));
+        return resumo;
+    }
+    
+    /**
+     * Os últimos {@code minutos} minutos, do mais antigo ao atual (ainda em andamento).
+     */
+    public List<Minuto> ultimosMinutos(int minutos) {
+        if (minutos < 1 || minutos > janelas.length) {
+            throw new IllegalArgumentException("Minutos deve estar entre 1 e " + janelas.length + ": " + minutos);
+        }
+        long atual = minutoAtual();
+        List<Minuto> serie = new ArrayList<>(minutos);
+        for (long minuto = atual - minutos + 1; minuto <= atual; minuto++) {
+            JanelaMinuto janela = janelas[posicao(minuto)];
+            Map<PedidoStatus, Resumo> porStatus = new EnumMap<>(PedidoStatus.class);
+            for (PedidoStatus status : PedidoStatus.values()) {
+                porStatus.put(status, janela.minuto == minuto ? janela.porStatus.get(status).resumo() : Resumo.VAZIO);
+            }
+            serie.add(new Minuto(inicioDoMinuto(minuto), porStatus));
+        }
+        return serie;
+    }
+    
+    public int janelaMinutos() {
+        return janelas.length;
+    }
+    
+    public boolean carregado() {
+        return carregado;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (!cargaInicial) {
+            return;
+        }
+        Thread carga = new Thread(this::carregar, "estatisticas-carga");
+        carga.setDaemon(true);
+        carga.start();
+    }
+    
+    void carregar() {
+        long inicio = System.currentTimeMillis();
+        try {
+            for (EstatisticaPedidosProjecao linha : pedidoRepository.resumirPorStatus(marcaCarga)) {
+                totais.get(PedidoStatus.valueOf(linha.getStatus()))
+                        .somar(linha.getPedidos(), centavos(linha), linha.getItens());
+            }
+            LocalDateTime desde = inicioDoMinuto(minutoAtual() - janelas.length + 1);
+            for (EstatisticaPedidosProjecao linha : pedidoRepository.resumirPorMinutoEStatus(desde, marcaCarga)) {
+                // created_at é hora local: o "epoch" da consulta é essa hora lida como UTC
+                long minuto = LocalDateTime.ofEpochSecond(linha.getMinuto(), 0, ZoneOffset.UTC)
+                        .atZone(clock.getZone()).toEpochSecond() / 60;
+                JanelaMinuto janela = janela(minuto);
+                if (janela != null) {
+                    janela.porStatus.get(PedidoStatus.valueOf(linha.getStatus()))
+                            .somar(linha.getPedidos(), centavos(linha), linha.getItens());
+                }
+            }
+            carregado = true;
+            log.info("Estatísticas de pedidos carregadas do banco em {} ms (pedidos criados antes de {})",
+                    System.currentTimeMillis() - inicio, marcaCarga);
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar estatísticas de pedidos do banco; seguem só os valores desta instância: {}",
+                    e.getMessage(), e);
+        }
+    }
+    
+    private void acumular(PedidoStatus status, long minuto, long pedidos, long centavos, long itens) {
+        totais.get(status).somar(pedidos, centavos, itens);
+        JanelaMinuto janela = janela(minuto);
+        if (janela != null) {
+            janela.porStatus.get(status).somar(pedidos, centavos, itens);
+        }
+    }
+    
+    private Resumo ultimoMinuto(PedidoStatus status) {
+        long minuto = minutoAtual() - 1;
+        JanelaMinuto janela = janelas[posicao(minuto)];
+        return janela.minuto == minuto ? janela.porStatus.get(status).resumo() : Resumo.VAZIO;
+    }
+    
+    /**
+     * Posição da janela para o minuto, zerada se ainda guardava um minuto mais antigo; null se
+     * o minuto já saiu da janela.
+     */
+    private JanelaMinuto janela(long minuto) {
+        if (minuto <= minutoAtual() - janelas.length) {
+            return null;
+        }
+        JanelaMinuto janela = janelas[posicao(minuto)];
+        if (janela.minuto == minuto) {
+            return janela;
+        }
+        synchronized (janela) {
+            if (janela.minuto < minuto) {
+                janela.porStatus.values().forEach(Acumulador::zerar);
+                janela.minuto = minuto;
+            }
+            return janela.minuto == minuto ? janela : null;
+        }
+    }
+    
+    private int posicao(long minuto) {
+        return (int) Math.floorMod(minuto, (long) janelas.length);
+    }
+    
+    private long minutoAtual() {
+        return Math.floorDiv(clock.millis(), MILIS_POR_MINUTO);
+    }
+    
+    private LocalDateTime inicioDoMinuto(long minuto) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(minuto * MILIS_POR_MINUTO), clock.getZone());
+    }
+    
+    private static long centavos(EstatisticaPedidosProjecao linha) {
+        return Dinheiro.de(linha.getReceita()).centavos();
+    }
+    
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+    
+    /**
+     * Pedidos, receita e itens de um status num período.
+     */
+    public record Resumo(long pedidos, Dinheiro receita, long itens) {
+        
+        public static final Resumo VAZIO = new Resumo(0, Dinheiro.ZERO, 0);
+        
+        public Resumo somar(Resumo outro) {
+            return new Resumo(pedidos + outro.pedidos, receita.somar(outro.receita), itens + outro.itens);
+        }
+    }
+    
+    public record Minuto(LocalDateTime inicio, Map<PedidoStatus, Resumo> porStatus) {
+    }
+    
+    private static final class Acumulador {
+        
+        private final LongAdder pedidos = new LongAdder();
+        private final LongAdder receitaCentavos = new LongAdder();
+        private final LongAdder itens = new LongAdder();
+        
+        void somar(long quantidadePedidos, long centavos, long quantidadeItens) {
+            pedidos.add(quantidadePedidos);
+            receitaCentavos.add(centavos);
+            itens.add(quantidadeItens);
+        }
+        
+        Resumo resumo() {
+            return new Resumo(pedidos.sum(), Dinheiro.deCentavos(receitaCentavos.sum()), itens.sum());
+        }
+        
+        void zerar() {
+            pedidos.reset();
+            receitaCentavos.reset();
+            itens.reset();
+        }
+    }
+    
+    private static final class JanelaMinuto {
+        
+        private final Map<PedidoStatus, Acumulador> porStatus = new EnumMap<>(PedidoStatus.class);
+        private volatile long minuto = Long.MIN_VALUE;
+        
+        JanelaMinuto() {
+            for (PedidoStatus status : PedidoStatus.values()) {
+                porStatus.put(status, new Acumulador());
+            }
+        }
+    }
+}
\ No newline at end of file
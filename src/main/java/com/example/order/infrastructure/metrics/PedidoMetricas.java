@@ -0,0 +1,125 @@
+package com.example.order.infrastructure.metrics;
+
+import com.example.order.domain.enums.OrigemIngestao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do pipeline de processamento de pedidos, por etapa e por origem (REST/KAFKA).
+ * <p>
+ * {@code pedidos.processamento.etapa} é um timer com histograma de percentis por etapa, e
+ * {@code pedidos.processamento} cobre o pedido inteiro, com a tag {@code unidade} separando
+ * pedidos avulsos ({@code pedido}) de lotes ({@code lote}). Com IDs por sequência e JDBC batch,
+ * os INSERTs de pedido e produtos saem no flush: {@code PEDIDO}/{@code PRODUTOS} medem o
+ * persist e {@code FLUSH} mede a ida ao banco. No lote, {@code MAPEAMENTO} inclui o cálculo
+ * dos totais e cada etapa cobre o lote inteiro. Todos os medidores são criados na subida
+ * para que a medição não aloque por pedido.
+ */
+@Component
+public class PedidoMetricas {
+
+    public enum Etapa {
+        DUPLICIDADE,
+        MAPEAMENTO,
+        TOTAL,
+        PEDIDO,
+        PRODUTOS,
+        FLUSH,
+        OUTBOX
+    }
+
+    private final Map<OrigemIngestao, Map<Etapa, Timer>> etapas = new EnumMap<>(OrigemIngestao.class);
+    private final Map<OrigemIngestao, Timer> processamento = new EnumMap<>(OrigemIngestao.class);
+    private final Map<OrigemIngestao, Timer> processamentoLote = new EnumMap<>(OrigemIngestao.class);
+    private final Map<OrigemIngestao, Counter> processados = new EnumMap<>(OrigemIngestao.class);
+    private final Map<OrigemIngestao, Counter> duplicados = new EnumMap<>(OrigemIngestao.class);
+    private final Map<OrigemIngestao, Counter> falhas = new EnumMap<>(OrigemIngestao.class);
+    private final Map<OrigemIngestao, DistributionSummary> produtosPorPedido = new EnumMap<>(OrigemIngestao.class);
+
+    public PedidoMetricas(MeterRegistry meterRegistry) {
+        for (OrigemIngestao origem : OrigemIngestao.values()) {
+            String tagOrigem = origem.name();
+            Map<Etapa, Timer> timers = new EnumMap<>(Etapa.class);
+            for (Etapa etapa : Etapa.values()) {
+                timers.put(etapa, Timer.builder("pedidos.processamento.etapa")
+                        .description("Tempo de cada etapa do processamento de pedidos")
+                        .tag("etapa", etapa.name().toLowerCase(Locale.ROOT))
+                        .tag("origem", tagOrigem)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+            etapas.put(origem, timers);
+            processamento.put(origem, Timer.builder("pedidos.processamento")
+                    .description("Tempo total de processamento de um pedido ou lote")
+                    .tag("origem", tagOrigem)
+                    .tag("unidade", "pedido")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            processamentoLote.put(origem, Timer.builder("pedidos.processamento")
+                    .description("Tempo total de processamento de um pedido ou lote")
+                    .tag("origem", tagOrigem)
+                    .tag("unidade", "lote")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            processados.put(origem, Counter.builder("pedidos.processados")
+                    .description("Pedidos gravados com sucesso")
+                    .tag("origem", tagOrigem)
+                    .register(meterRegistry));
+            duplicados.put(origem, Counter.builder("pedidos.duplicados")
+                    .description("Pedidos descartados por externalId já existente")
+                    .tag("origem", tagOrigem)
+                    .register(meterRegistry));
+            falhas.put(origem, Counter.builder("pedidos.falhas")
+                    .description("Pedidos que falharam no processamento")
+                    .tag("origem", tagOrigem)
+                    .register(meterRegistry));
+            produtosPorPedido.put(origem, DistributionSummary.builder("pedidos.produtos.quantidade")
+                    .description("Quantidade de produtos por pedido")
+                    .tag("origem", tagOrigem)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Registra a etapa iniciada em {@code inicioNanos} e devolve o instante atual, que serve
+     * de início para a etapa seguinte.
+     */
+    public long registrarEtapa(OrigemIngestao origem, Etapa etapa, long inicioNanos) {
+        long agora = System.nanoTime();
+        etapas.get(origem).get(etapa).record(agora - inicioNanos, TimeUnit.NANOSECONDS);
+        return agora;
+    }
+
+    public void registrarProcessamento(OrigemIngestao origem, long inicioNanos) {
+        processamento.get(origem).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registrarProcessamentoLote(OrigemIngestao origem, long inicioNanos) {
+        processamentoLote.get(origem).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void registrarProcessados(OrigemIngestao origem, int quantidade) {
+        processados.get(origem).increment(quantidade);
+    }
+
+    public void registrarDuplicados(OrigemIngestao origem, int quantidade) {
+        duplicados.get(origem).increment(quantidade);
+    }
+
+    public void registrarFalhas(OrigemIngestao origem, int quantidade) {
+        falhas.get(origem).increment(quantidade);
+    }
+
+    public void registrarProdutos(OrigemIngestao origem, int quantidade) {
+        produtosPorPedido.get(origem).record(quantidade);
+    }
+}
\ No newline at end of file
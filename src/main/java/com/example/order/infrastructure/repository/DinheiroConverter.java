@@ -0,0 +1,24 @@
+package com.example.order.infrastructure.repository;
+
+import com.example.order.domain.valor.Dinheiro;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Grava {@link Dinheiro} nas colunas {@code numeric(10,2)} existentes, sem mudar o esquema.
+ */
+@Converter
+public class DinheiroConverter implements AttributeConverter<Dinheiro, BigDecimal> {
+    
+    @Override
+    public BigDecimal convertToDatabaseColumn(Dinheiro valor) {
+        return valor != null ? valor.toBigDecimal() : null;
+    }
+    
+    @Override
+    public Dinheiro convertToEntityAttribute(BigDecimal valor) {
+        return valor != null ? Dinheiro.de(valor) : null;
+    }
+}
\ No newline at end of file
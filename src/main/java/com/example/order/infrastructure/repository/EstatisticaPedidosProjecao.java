@@ -0,0 +1,21 @@
+package com.example.order.infrastructure.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregado de pedidos por status usado para carregar as estatísticas na subida. Nas consultas
+ * por minuto, {@code minuto} é o início do minuto em segundos desde a época, lido como UTC a
+ * partir de {@code created_at} (que é hora local, sem fuso).
+ */
+public interface EstatisticaPedidosProjecao {
+    
+    String getStatus();
+    
+    Long getPedidos();
+    
+    BigDecimal getReceita();
+    
+    Long getItens();
+    
+    Long getMinuto();
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.order.infrastructure.repository;
+
+import com.example.order.domain.entity.PedidoEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Inserção de pedido que reivindica o externalId no mesmo comando.
+ * <p>
+ * O externalId é reivindicado em {@code order_external_ids} com
+ * {@code INSERT ... ON CONFLICT (external_id) DO NOTHING} e o pedido só é gravado, no mesmo
+ * comando, se a reivindicação entrou: uma ida ao banco em vez de {@code exists} +
+ * {@code insert}, sem janela entre as duas e sem violação de unicidade abortando a transação.
+ * Com dois inserts concorrentes do mesmo externalId, o segundo espera o primeiro terminar e só
+ * grava se ele tiver desfeito a transação. A unicidade fica nessa tabela porque {@code orders}
+ * é particionada por {@code created_at} e não comporta uma constraint unique só de
+ * {@code external_id}.
+ * <p>
+ * Roda pelo JdbcTemplate na conexão da transação JPA corrente. O id vem de
+ * {@code nextval('orders_seq')}; como o Hibernate reserva um bloco de {@code allocationSize}
+ * ids por valor da sequência, o valor consumido aqui nunca coincide com um id do pool dele.
+ */
+@Repository
+public class InsercaoPedidoRepository {
+    
+    private static final String INSERIR_SE_AUSENTE = """
+            WITH reivindicacao AS (
+                INSERT INTO order_external_ids (external_id, pedido_id, created_at)
+                VALUES (?, nextval('orders_seq'), ?)
+                ON CONFLICT (external_id) DO NOTHING
+                RETURNING external_id, pedido_id, created_at)
+            INSERT INTO orders (id, external_id, total, status, created_at, updated_at)
+            SELECT pedido_id, external_id, ?, ?, created_at, ? FROM reivindicacao
+            RETURNING id""";
+    
+    private static final String REIVINDICAR = """
+            INSERT INTO order_external_ids (external_id, pedido_id, created_at) VALUES (?, ?, ?)""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public InsercaoPedidoRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    /**
+     * Grava o pedido (com {@code createdAt}/{@code updatedAt} já preenchidos) e devolve o id
+     * gerado, ou vazio se o externalId já existe.
+     */
+    public Optional<Long> inserirSeAusente(PedidoEntity pedido) {
+        List<Long> ids = jdbcTemplate.queryForList(INSERIR_SE_AUSENTE, Long.class,
+                pedido.getExternalId(),
+                Timestamp.valueOf(pedido.getCreatedAt()),
+                pedido.getTotal().toBigDecimal(),
+                pedido.getStatus().name(),
+                Timestamp.valueOf(pedido.getUpdatedAt()));
+        return ids.stream().findFirst();
+    }
+    
+    /**
+     * Reivindica os externalIds de pedidos gravados pelo JPA (id e {@code createdAt} já
+     * atribuídos), num lote JDBC. Um externalId já reivindicado lança
+     * {@link org.springframework.dao.DuplicateKeyException}, como a antiga constraint unique
+     * de {@code orders}.
+     */
+    public void reivindicar(List<PedidoEntity> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(REIVINDICAR, pedidos, pedidos.size(), (comando, pedido) -> {
+            comando.setString(1, pedido.getExternalId());
+            comando.setLong(2, pedido.getId());
+            comando.setTimestamp(3, Timestamp.valueOf(pedido.getCreatedAt()));
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.example.order.infrastructure.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Partições mensais de {@code orders} e {@code products} (por {@code created_at}).
+ * <p>
+ * A cada execução cria, se faltarem, as partições do mês corrente e dos
+ * {@code pedidos.particoes.meses-a-frente} seguintes, para que nenhum insert caia fora de uma
+ * partição. A retenção remove partições inteiras: as de meses anteriores a
+ * {@code pedidos.particoes.retencao-meses} são desanexadas com {@code DETACH PARTITION ...
+ * CONCURRENTLY} (sem bloquear leituras e escritas na tabela pai) e apagadas com
+ * {@code DROP TABLE}, em vez de um {@code DELETE} linha a linha que incha índices e gera WAL.
+ * <p>
+ * {@code order_external_ids} não é particionada (guarda a unicidade global do externalId),
+ * então a mesma retenção a esvazia com {@code DELETE} das reivindicações com
+ * {@code created_at} anterior ao primeiro mês mantido, em lotes de
+ * {@code pedidos.particoes.lote-limpeza} linhas pelo índice de {@code created_at}: cada lote é
+ * uma transação curta, e o espaço liberado é reaproveitado pelos inserts seguintes. Sem isso a
+ * tabela (e o índice de {@code external_id}, tocado por todo insert) cresceria para sempre,
+ * com linhas apontando para pedidos que já não existem. Um externalId reenviado depois da
+ * retenção volta a ser gravado como pedido novo.
+ * <p>
+ * Só age sobre tabelas realmente particionadas (o esquema de {@code docker/postgres/init.sql});
+ * com as tabelas criadas pelo Hibernate, como no perfil de testes, não faz nada. Partições
+ * fora do padrão {@code <tabela>_pAAAAMM} são ignoradas.
+ */
+@Component
+@Slf4j
+public class ManutencaoParticoesPedidos {
+    
+    static final List<String> TABELAS = List.of("orders", "products");
+    
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String CONSULTA_PARTICIONADA = """
+            SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid
+                           WHERE c.relname = ? AND pg_table_is_visible(c.oid))""";
+    private static final String CONSULTA_PARTICOES = """
+            SELECT c.relname AS nome, i.inhdetachpending AS desanexando
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class pai ON pai.oid = i.inhparent
+            WHERE pai.relname = ? AND pg_table_is_visible(pai.oid)""";
+    private static final String REMOVER_REIVINDICACOES = """
+            DELETE FROM order_external_ids WHERE external_id IN (
+                SELECT external_id FROM order_external_ids WHERE created_at < ? LIMIT ?)""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final int mesesAFrente;
+    private final int retencaoMeses;
+    private final int loteLimpeza;
+    private final Clock clock;
+    
+    @Autowired
+    public ManutencaoParticoesPedidos(DataSource dataSource,
+                                      @Value("${pedidos.particoes.enabled:true}") boolean habilitado,
+                                      @Value("${pedidos.particoes.meses-a-frente:3}") int mesesAFrente,
+                                      @Value("${pedidos.particoes.retencao-meses:12}") int retencaoMeses,
+                                      @Value("${pedidos.particoes.lote-limpeza:10000}") int loteLimpeza) {
+        this(new JdbcTemplate(dataSource), habilitado, mesesAFrente, retencaoMeses, loteLimpeza,
+                Clock.systemDefaultZone());
+    }
+    
+    ManutencaoParticoesPedidos(JdbcTemplate jdbcTemplate, boolean habilitado, int mesesAFrente, int retencaoMeses,
+                               int loteLimpeza, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitado = habilitado;
+        this.mesesAFrente = mesesAFrente;
+        this.retencaoMeses = retencaoMeses;
+        this.loteLimpeza = loteLimpeza;
+        this.clock = clock;
+    }
+    
+    // Roda também logo na subida: a primeira execução de um fixedDelay não espera o intervalo
+    @Scheduled(fixedDelayString = "${pedidos.particoes.intervalo-ms:3600000}")
+    public void manter() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            YearMonth atual = YearMonth.now(clock);
+            boolean retencaoAplicada = false;
+            for (String tabela : TABELAS) {
+                if (!particionada(tabela)) {
+                    log.debug("Tabela {} não é particionada; manutenção de partições ignorada", tabela);
+                    continue;
+                }
+                criarParticoes(tabela, atual);
+                removerExpiradas(tabela, atual);
+                retencaoAplicada = true;
+            }
+            if (retencaoAplicada) {
+                removerReivindicacoesExpiradas(atual);
+            }
+        } catch (DataAccessException e) {
+            log.error("Falha na manutenção das partições de pedidos: {}", e.getMessage(), e);
+        }
+    }
+    
+    private boolean particionada(String tabela) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(CONSULTA_PARTICIONADA, Boolean.class, tabela));
+    }
+    
+    private void criarParticoes(String tabela, YearMonth atual) {
+        for (int i = 0; i <= mesesAFrente; i++) {
+            YearMonth mes = atual.plusMonths(i);
+            jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    nomeParticao(tabela, mes), tabela, mes.atDay(1), mes.plusMonths(1).atDay(1)));
+        }
+    }
+    
+    private void removerExpiradas(String tabela, YearMonth atual) {
+        if (retencaoMeses <= 0) {
+            return;
+        }
+        YearMonth limite = atual.minusMonths(retencaoMeses);
+        List<Particao> particoes = jdbcTemplate.query(CONSULTA_PARTICOES,
+                (linha, numero) -> new Particao(linha.getString("nome"), linha.getBoolean("desanexando")), tabela);
+        for (Particao particao : particoes) {
+            YearMonth mes = mesDaParticao(tabela, particao.nome());
+            if (mes == null || !mes.isBefore(limite)) {
+                continue;
+            }
+            // Um DETACH CONCURRENTLY interrompido deixa a partição pendente: só resta finalizar
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " DETACH PARTITION " + particao.nome()
+                    + (particao.desanexando() ? " FINALIZE" : " CONCURRENTLY"));
+            jdbcTemplate.execute("DROP TABLE " + particao.nome());
+            log.info("Partição {} de {} removida pela retenção de {} meses", particao.nome(), tabela, retencaoMeses);
+        }
+    }
+    
+    /**
+     * Apaga, em lotes, as reivindicações de pedidos criados antes do primeiro mês mantido (os
+     * das partições já removidas). Para quando um lote vem incompleto.
+     */
+    private void removerReivindicacoesExpiradas(YearMonth atual) {
+        if (retencaoMeses <= 0) {
+            return;
+        }
+        Timestamp limite = Timestamp.valueOf(atual.minusMonths(retencaoMeses).atDay(1).atStartOfDay());
+        long total = 0;
+        int removidas;
+        do {
+            removidas = jdbcTemplate.update(REMOVER_REIVINDICACOES, limite, loteLimpeza);
+            total += removidas;
+        } while (removidas >= loteLimpeza);
+        if (total > 0) {
+            log.info("{} reivindicações de externalId anteriores a {} removidas pela retenção", total, limite);
+        }
+    }
+    
+    static String nomeParticao(String tabela, YearMonth mes) {
+        return tabela + "_p" + mes.format(SUFIXO);
+    }
+    
+    static YearMonth mesDaParticao(String tabela, String nome) {
+        String prefixo = tabela + "_p";
+        if (!nome.startsWith(prefixo) || nome.length() != prefixo.length() + 6) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(nome.substring(prefixo.length()), SUFIXO);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    record Particao(String nome, boolean desanexando) {
+    }
+}
\ No newline at end of file
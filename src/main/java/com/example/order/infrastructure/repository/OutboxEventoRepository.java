@@ -0,0 +1,32 @@
+package com.example.order.infrastructure.repository;
+
+import com.example.order.domain.entity.OutboxEventoEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventoRepository extends JpaRepository<OutboxEventoEntity, Long> {
+    
+    /**
+     * Trava os próximos eventos pendentes. SKIP LOCKED deixa várias instâncias do relay
+     * drenarem a tabela em paralelo sem disputar as mesmas linhas.
+     */
+    @Query(value = "SELECT * FROM outbox_eventos WHERE published_at IS NULL ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEventoEntity> travarPendentes(@Param("limite") int limite);
+    
+    @Modifying
+    @Query("UPDATE OutboxEventoEntity e SET e.publishedAt = :publicadoEm WHERE e.id IN :ids")
+    int marcarComoPublicados(@Param("ids") Collection<Long> ids, @Param("publicadoEm") LocalDateTime publicadoEm);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEventoEntity e WHERE e.publishedAt < :limite")
+    int removerPublicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,22 @@
+package com.example.order.infrastructure.repository;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha de pedido com um de seus produtos, lida por projeção (sem entidades gerenciadas).
+ * As colunas de produto são nulas quando o pedido não tem produtos.
+ */
+public record PedidoProdutoProjecao(
+        Long id,
+        String externalId,
+        PedidoStatus status,
+        Dinheiro total,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long produtoId,
+        String produtoNome,
+        Dinheiro produtoPreco) {
+}
\ No newline at end of file
@@ -2,24 +2,115 @@ package com.example.order.infrastructure.repository;
 
 import com.example.order.domain.entity.PedidoEntity;
 import com.example.order.domain.enums.PedidoStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<PedidoEntity, Long> {
     
-    Optional<PedidoEntity> findByExternalId(String externalId);
+    /**
+     * O {@code created_at} reivindicado em {@code order_external_ids} restringe a busca a uma
+     * partição (poda em tempo de execução), em vez de consultar o índice de cada mês.
+     * <p>
+     * Somente leitura aqui, e não só no service: é chamado fora de transação no miss do cache
+     * ({@code PedidoService.encontrarPorExternalId}), e métodos com {@code @Query} não herdam a
+     * transação somente leitura do {@code SimpleJpaRepository}; sem ela a leitura iria ao primário.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM PedidoEntity p WHERE p.externalId = :externalId AND p.createdAt = " +
+           "(SELECT c.createdAt FROM PedidoExternalIdEntity c WHERE c.externalId = :externalId)")
+    Optional<PedidoEntity> findByExternalId(@Param("externalId") String externalId);
     
     List<PedidoEntity> findByStatus(PedidoStatus status);
     
+    // O limite em created_at descarta as partições anteriores a dataInicio
     @Query("SELECT p FROM PedidoEntity p WHERE p.status = :status AND p.createdAt >= :dataInicio")
     List<PedidoEntity> findByStatusAndDataInicio(@Param("status") PedidoStatus status, 
                                                 @Param("dataInicio") java.time.LocalDateTime dataInicio);
     
-    boolean existsByExternalId(String externalId);
-} 
\ No newline at end of file
+    /**
+     * Página por keyset: pedidos depois de {@code (createdAt, id)} na ordem {@code (created_at, id)}.
+     * O custo não depende da profundidade da página (índice {@code idx_orders_status_created_at_id}).
+     * Use {@code PageRequest.of(0, tamanho)}: não há consulta de contagem.
+     */
+    @Query("SELECT p FROM PedidoEntity p WHERE p.status = :status AND p.createdAt >= :createdAt " +
+           "AND (p.createdAt > :createdAt OR p.id > :id) ORDER BY p.createdAt, p.id")
+    List<PedidoEntity> findPaginaByStatusAndDataInicio(@Param("status") PedidoStatus status,
+                                                       @Param("createdAt") java.time.LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pagina);
+    
+    @Query("SELECT p FROM PedidoEntity p WHERE p.createdAt >= :createdAt " +
+           "AND (p.createdAt > :createdAt OR p.id > :id) ORDER BY p.createdAt, p.id")
+    List<PedidoEntity> findPaginaByDataInicio(@Param("createdAt") java.time.LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pagina);
+    
+    /**
+     * Pedido e produtos numa única consulta: uma linha por produto (ou uma linha com produto
+     * nulo, se o pedido não tiver produtos), ordenadas pelo id do produto. O join também pela
+     * chave de partição ({@code createdAt}) faz os produtos serem lidos só da partição do pedido.
+     */
+    @Query("SELECT new com.example.order.infrastructure.repository.PedidoProdutoProjecao(" +
+           "p.id, p.externalId, p.status, p.total, p.createdAt, p.updatedAt, pr.id, pr.nome, pr.preco) " +
+           "FROM PedidoEntity p LEFT JOIN ProdutoEntity pr ON pr.pedidoId = p.id AND pr.createdAt = p.createdAt " +
+           "WHERE p.id = :id ORDER BY pr.id")
+    List<PedidoProdutoProjecao> findComProdutosById(@Param("id") Long id);
+    
+    @Query("SELECT new com.example.order.infrastructure.repository.PedidoProdutoProjecao(" +
+           "p.id, p.externalId, p.status, p.total, p.createdAt, p.updatedAt, pr.id, pr.nome, pr.preco) " +
+           "FROM PedidoEntity p LEFT JOIN ProdutoEntity pr ON pr.pedidoId = p.id AND pr.createdAt = p.createdAt " +
+           "WHERE p.externalId = :externalId AND p.createdAt = " +
+           "(SELECT c.createdAt FROM PedidoExternalIdEntity c WHERE c.externalId = :externalId) ORDER BY pr.id")
+    List<PedidoProdutoProjecao> findComProdutosByExternalId(@Param("externalId") String externalId);
+    
+    // Existência pela chave de order_external_ids: um índice só, qualquer que seja o número de partições
+    @Query("SELECT COUNT(c) > 0 FROM PedidoExternalIdEntity c WHERE c.externalId = :externalId")
+    boolean existsByExternalId(@Param("externalId") String externalId);
+    
+    @Query("SELECT c.externalId FROM PedidoExternalIdEntity c WHERE c.externalId IN :externalIds")
+    Set<String> findExternalIdsExistentes(@Param("externalIds") Collection<String> externalIds);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT p.externalId FROM PedidoEntity p WHERE p.createdAt >= :desde")
+    Stream<String> streamExternalIdsDesde(@Param("desde") java.time.LocalDateTime desde);
+    
+    /**
+     * Pedidos, receita e itens por status, para pedidos criados antes de {@code ate}.
+     */
+    @Query(value = "SELECT o.status AS status, COUNT(*) AS pedidos, COALESCE(SUM(o.total), 0) AS receita, " +
+                   "COALESCE(SUM(i.itens), 0) AS itens " +
+                   "FROM orders o LEFT JOIN (SELECT pedido_id, created_at, COUNT(*) AS itens FROM products " +
+                   "WHERE created_at < :ate GROUP BY pedido_id, created_at) i " +
+                   "ON i.pedido_id = o.id AND i.created_at = o.created_at " +
+                   "WHERE o.created_at < :ate GROUP BY o.status",
+           nativeQuery = true)
+    List<EstatisticaPedidosProjecao> resumirPorStatus(@Param("ate") java.time.LocalDateTime ate);
+    
+    /**
+     * O mesmo agregado por minuto de criação, restrito a {@code [desde, ate)}.
+     */
+    @Query(value = "SELECT CAST(EXTRACT(EPOCH FROM date_trunc('minute', o.created_at)) AS bigint) AS minuto, " +
+                   "o.status AS status, COUNT(*) AS pedidos, COALESCE(SUM(o.total), 0) AS receita, " +
+                   "COALESCE(SUM(i.itens), 0) AS itens " +
+                   "FROM orders o LEFT JOIN LATERAL (SELECT COUNT(*) AS itens FROM products p " +
+                   "WHERE p.pedido_id = o.id AND p.created_at = o.created_at) i " +
+                   "ON true " +
+                   "WHERE o.created_at >= :desde AND o.created_at < :ate GROUP BY 1, 2",
+           nativeQuery = true)
+    List<EstatisticaPedidosProjecao> resumirPorMinutoEStatus(@Param("desde") java.time.LocalDateTime desde,
+                                                            @Param("ate") java.time.LocalDateTime ate);
+}
\ No newline at end of file
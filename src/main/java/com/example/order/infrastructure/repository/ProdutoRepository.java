@@ -2,11 +2,23 @@ package com.example.order.infrastructure.repository;
 
 import com.example.order.domain.entity.ProdutoEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<ProdutoEntity, Long> {
     List<ProdutoEntity> findByPedidoId(Long pedidoId);
+    
+    // Produtos de vários pedidos numa consulta só (evita N+1 em leituras de vários pedidos); a
+    // faixa de createdAt dos pedidos restringe a leitura às partições deles
+    @Query("SELECT p FROM ProdutoEntity p WHERE p.pedidoId IN :pedidoIds " +
+           "AND p.createdAt BETWEEN :desde AND :ate ORDER BY p.pedidoId, p.id")
+    List<ProdutoEntity> findByPedidoIdIn(@Param("pedidoIds") Collection<Long> pedidoIds,
+                                         @Param("desde") LocalDateTime desde,
+                                         @Param("ate") LocalDateTime ate);
 } 
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.order.infrastructure.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envia transações {@code readOnly} às réplicas, em rodízio, e todo o resto ao primário.
+ * <p>
+ * A decisão é tomada quando a conexão é pedida, então precisa estar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: sem ele, o
+ * gerenciador de transações pega a conexão antes de marcar a transação como somente leitura.
+ * Se a réplica escolhida não entrega conexão, a leitura cai no primário.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    
+    static final String PRIMARIO = "primario";
+    
+    private static final ThreadLocal<Boolean> NO_PRIMARIO = new ThreadLocal<>();
+    
+    private final DataSource primario;
+    private final List<DataSource> replicas;
+    private final List<String> chavesReplicas = new ArrayList<>();
+    private final AtomicInteger proxima = new AtomicInteger();
+    
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas) {
+        this.primario = primario;
+        this.replicas = List.copyOf(replicas);
+        Map<Object, Object> alvos = new HashMap<>();
+        alvos.put(PRIMARIO, primario);
+        for (int i = 0; i < replicas.size(); i++) {
+            chavesReplicas.add("replica-" + i);
+            alvos.put(chavesReplicas.get(i), replicas.get(i));
+        }
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+    
+    /**
+     * Executa a leitura no primário mesmo dentro de uma transação {@code readOnly}; usado para
+     * ler o que acabou de ser gravado, antes que a réplica alcance o primário.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        if (NO_PRIMARIO.get() != null) {
+            return leitura.get();
+        }
+        NO_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            NO_PRIMARIO.remove();
+        }
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (chavesReplicas.isEmpty() || NO_PRIMARIO.get() != null
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARIO;
+        }
+        return chavesReplicas.get(Math.floorMod(proxima.getAndIncrement(), chavesReplicas.size()));
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object chave = determineCurrentLookupKey();
+        DataSource alvo = getResolvedDataSources().get(chave);
+        if (alvo == primario) {
+            return alvo.getConnection();
+        }
+        try {
+            return alvo.getConnection();
+        } catch (SQLException e) {
+            log.warn("Réplica {} sem conexão disponível, lendo do primário: {}", chave, e.getMessage());
+            return primario.getConnection();
+        }
+    }
+    
+    /**
+     * Fecha os pools das réplicas; o primário é um bean próprio e é fechado pelo contexto.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+}
\ No newline at end of file
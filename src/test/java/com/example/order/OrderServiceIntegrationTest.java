@@ -3,6 +3,7 @@ package com.example.order;
 import com.example.order.application.dto.PedidoDTO;
 import com.example.order.application.dto.ProdutoDTO;
 import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.valor.Dinheiro;
 import com.example.order.infrastructure.repository.PedidoRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +18,6 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
-import java.math.BigDecimal;
 import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,12 +48,12 @@ class OrderServiceIntegrationTest {
         // Given
         ProdutoDTO produto1 = ProdutoDTO.builder()
                 .nome("Produto Teste 1")
-                .preco(new BigDecimal("15.99"))
+                .preco(Dinheiro.de("15.99"))
                 .build();
         
         ProdutoDTO produto2 = ProdutoDTO.builder()
                 .nome("Produto Teste 2")
-                .preco(new BigDecimal("25.50"))
+                .preco(Dinheiro.de("25.50"))
                 .build();
         
         PedidoDTO pedidoDTO = PedidoDTO.builder()
@@ -74,7 +74,7 @@ class OrderServiceIntegrationTest {
         
         PedidoEntity pedidoCriado = response.getBody();
         assertEquals("TEST-INTEGRATION-001", pedidoCriado.getExternalId());
-        assertEquals(new BigDecimal("41.49"), pedidoCriado.getTotal());
+        assertEquals(Dinheiro.de("41.49"), pedidoCriado.getTotal());
         assertNotNull(pedidoCriado.getId());
         
         // Verificar se foi salvo no banco
@@ -86,7 +86,7 @@ class OrderServiceIntegrationTest {
         // Given - Criar um pedido primeiro
         ProdutoDTO produto = ProdutoDTO.builder()
                 .nome("Produto Busca")
-                .preco(new BigDecimal("10.00"))
+                .preco(Dinheiro.de("10.00"))
                 .build();
         
         PedidoDTO pedidoDTO = PedidoDTO.builder()
@@ -0,0 +1,111 @@
+package com.example.order.application.service;
+
+import com.example.order.application.service.ExportacaoPedidosService.EscritorExportacao;
+import com.example.order.application.service.ExportacaoPedidosService.Formato;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacaoPedidosServiceTest {
+    
+    private static final LocalDateTime CRIADO_EM = LocalDateTime.of(2024, 1, 15, 10, 30);
+    
+    @Mock
+    private DataSource dataSource;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private ExportacaoPedidosService exportacaoPedidosService;
+    
+    @BeforeEach
+    void setUp() {
+        exportacaoPedidosService = new ExportacaoPedidosService(dataSource, transactionManager, objectMapper, 1000);
+    }
+    
+    @Test
+    void deveAgruparProdutosDoMesmoPedidoNumaLinhaNdjson() throws Exception {
+        // Given
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorExportacao escritor = exportacaoPedidosService.criarEscritor(Formato.NDJSON, saida);
+        
+        // When
+        escreverLinhas(escritor);
+        
+        // Then
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals(2, escritor.pedidos());
+        
+        JsonNode primeiro = objectMapper.readTree(linhas[0]);
+        assertEquals(1L, primeiro.get("id").asLong());
+        assertEquals("EXT-1", primeiro.get("externalId").asText());
+        assertEquals("2024-01-15T10:30:00", primeiro.get("createdAt").asText());
+        assertEquals(2, primeiro.get("produtos").size());
+        assertEquals("Caneta, azul", primeiro.get("produtos").get(0).get("nome").asText());
+        assertTrue(linhas[0].contains("\"preco\":5.50"), linhas[0]);
+        
+        JsonNode segundo = objectMapper.readTree(linhas[1]);
+        assertEquals("EXT-2", segundo.get("externalId").asText());
+        assertEquals(0, segundo.get("produtos").size());
+    }
+    
+    @Test
+    void deveEscreverUmaLinhaCsvPorProdutoComEscape() throws Exception {
+        // Given
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        EscritorExportacao escritor = exportacaoPedidosService.criarEscritor(Formato.CSV, saida);
+        
+        // When
+        escreverLinhas(escritor);
+        
+        // Then
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertArrayEquals(new String[] {
+                "pedido_id,external_id,status,total,created_at,produto_id,produto_nome,produto_preco",
+                "1,EXT-1,PROCESSADO,15.50,2024-01-15T10:30:00,10,\"Caneta, azul\",10.00",
+                "1,EXT-1,PROCESSADO,15.50,2024-01-15T10:30:00,11,\"Papel \"\"A4\"\"\",5.50",
+                "2,EXT-2,RECEBIDO,,2024-01-15T10:30:00,,,"
+        }, linhas);
+    }
+    
+    @Test
+    void naoDeveEscreverPedidosQuandoNaoHaLinhas() throws Exception {
+        // Given
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        
+        // When
+        exportacaoPedidosService.criarEscritor(Formato.NDJSON, ndjson).finalizar();
+        exportacaoPedidosService.criarEscritor(Formato.CSV, csv).finalizar();
+        
+        // Then
+        assertEquals(0, ndjson.size());
+        assertEquals(ExportacaoPedidosService.EscritorCsv.CABECALHO, csv.toString(StandardCharsets.UTF_8));
+    }
+    
+    private void escreverLinhas(EscritorExportacao escritor) throws Exception {
+        escritor.linha(1L, "EXT-1", "PROCESSADO", new BigDecimal("15.50"), CRIADO_EM,
+                10L, "Caneta, azul", new BigDecimal("10.00"));
+        escritor.linha(1L, "EXT-1", "PROCESSADO", new BigDecimal("15.50"), CRIADO_EM,
+                11L, "Papel \"A4\"", new BigDecimal("5.50"));
+        escritor.linha(2L, "EXT-2", "RECEBIDO", null, CRIADO_EM, null, null, null);
+        escritor.finalizar();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.StatusPedidoDTO;
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.cache.AcompanhamentoIngestao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestaoAssincronaServiceTest {
+    
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+    
+    @Mock
+    private PedidoService pedidoService;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AcompanhamentoIngestao acompanhamento;
+    private IngestaoAssincronaService ingestaoAssincronaService;
+    private PedidoDTO pedidoDTO;
+    
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        acompanhamento = new AcompanhamentoIngestao(meterRegistry, 100, Duration.ofMinutes(1));
+        ingestaoAssincronaService = new IngestaoAssincronaService(kafkaTemplate, objectMapper, pedidoService,
+                acompanhamento, meterRegistry, Duration.ofMillis(100));
+        pedidoDTO = PedidoDTO.builder()
+                .externalId("EXT-001")
+                .produtos(List.of(ProdutoDTO.builder().nome("Produto 1").preco(Dinheiro.de("10.50")).build()))
+                .build();
+    }
+    
+    @Test
+    void devePublicarComExternalIdComoChaveERegistrarRecebido() throws Exception {
+        // Given
+        when(kafkaTemplate.send(eq("pedidos.recebidos"), eq("EXT-001"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        StatusPedidoDTO status = ingestaoAssincronaService.aceitar(pedidoDTO);
+        
+        // Then
+        assertEquals(PedidoStatus.RECEBIDO, status.getStatus());
+        assertEquals(PedidoStatus.RECEBIDO, acompanhamento.buscar("EXT-001").orElseThrow().status());
+        verify(kafkaTemplate).send("pedidos.recebidos", "EXT-001", objectMapper.writeValueAsString(pedidoDTO));
+        verifyNoInteractions(pedidoService);
+    }
+    
+    @Test
+    void deveFalharSemRegistrarQuandoBrokerNaoConfirmaATempo() {
+        // Given
+        when(kafkaTemplate.send(eq("pedidos.recebidos"), eq("EXT-001"), anyString()))
+                .thenReturn(new CompletableFuture<>());
+        
+        // When & Then
+        assertThrows(IngestaoIndisponivelException.class, () -> ingestaoAssincronaService.aceitar(pedidoDTO));
+        assertTrue(acompanhamento.buscar("EXT-001").isEmpty());
+    }
+    
+    @Test
+    void devePreferirStatusDoPedidoGravado() {
+        // Given
+        acompanhamento.registrarRecebido("EXT-001");
+        acompanhamento.registrarErro("EXT-002", "Erro ao processar pedido");
+        when(pedidoService.encontrarPorExternalId("EXT-001")).thenReturn(Optional.of(PedidoEntity.builder()
+                .id(1L)
+                .externalId("EXT-001")
+                .status(PedidoStatus.PROCESSADO)
+                .build()));
+        when(pedidoService.encontrarPorExternalId("EXT-002")).thenReturn(Optional.empty());
+        when(pedidoService.encontrarPorExternalId("EXT-003")).thenReturn(Optional.empty());
+        
+        // When
+        StatusPedidoDTO gravado = ingestaoAssincronaService.consultarStatus("EXT-001").orElseThrow();
+        StatusPedidoDTO comErro = ingestaoAssincronaService.consultarStatus("EXT-002").orElseThrow();
+        
+        // Then
+        assertEquals(PedidoStatus.PROCESSADO, gravado.getStatus());
+        assertEquals(1L, gravado.getPedidoId());
+        assertEquals(PedidoStatus.ERRO, comErro.getStatus());
+        assertEquals("Erro ao processar pedido", comErro.getMensagem());
+        assertTrue(ingestaoAssincronaService.consultarStatus("EXT-003").isEmpty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestaoLoteServiceTest {
+    
+    private static final String PEDIDO_1 = "{\"externalId\":\"EXT-1\",\"produtos\":[{\"nome\":\"A\",\"preco\":10.50}]}";
+    private static final String PEDIDO_2 = "{\"externalId\":\"EXT-2\",\"produtos\":[{\"nome\":\"B\",\"preco\":5.00}]}";
+    private static final String PEDIDO_3 = "{\"externalId\":\"EXT-3\",\"produtos\":[{\"nome\":\"C\",\"preco\":1.00}]}";
+    private static final String PEDIDO_SEM_PRODUTOS = "{\"externalId\":\"EXT-INVALIDO\",\"produtos\":[]}";
+    
+    @Mock
+    private PedidoService pedidoService;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    
+    private IngestaoLoteService ingestaoLoteService;
+    
+    @BeforeEach
+    void setUp() {
+        ingestaoLoteService = new IngestaoLoteService(pedidoService, validator, objectMapper, 2);
+        when(pedidoService.processarLote(anyList())).thenAnswer(invocation -> {
+            List<PedidoDTO> pedidos = invocation.getArgument(0);
+            return pedidos.stream()
+                    .map(p -> ResultadoIngestaoDTO.builder()
+                            .externalId(p.getExternalId())
+                            .situacao(ResultadoIngestaoDTO.Situacao.CRIADO)
+                            .pedidoId(1L)
+                            .build())
+                    .toList();
+        });
+    }
+    
+    @Test
+    void deveProcessarNdjsonEmBlocosMantendoAOrdem() throws Exception {
+        // Given
+        String corpo = String.join("\n", PEDIDO_1, PEDIDO_SEM_PRODUTOS, PEDIDO_2, PEDIDO_3);
+        
+        // When
+        List<ResultadoIngestaoDTO> resultados = ingerir(corpo);
+        
+        // Then
+        assertEquals(4, resultados.size());
+        assertEquals("EXT-1", resultados.get(0).getExternalId());
+        assertEquals(ResultadoIngestaoDTO.Situacao.CRIADO, resultados.get(0).getSituacao());
+        assertEquals("EXT-INVALIDO", resultados.get(1).getExternalId());
+        assertEquals(ResultadoIngestaoDTO.Situacao.INVALIDO, resultados.get(1).getSituacao());
+        assertEquals("EXT-2", resultados.get(2).getExternalId());
+        assertEquals("EXT-3", resultados.get(3).getExternalId());
+        
+        // Blocos de 2 itens lidos: [EXT-1, inválido] e [EXT-2, EXT-3]
+        verify(pedidoService, times(2)).processarLote(anyList());
+    }
+    
+    @Test
+    void deveAceitarArrayJson() throws Exception {
+        // Given
+        String corpo = "[" + PEDIDO_1 + "," + PEDIDO_2 + "]";
+        
+        // When
+        List<ResultadoIngestaoDTO> resultados = ingerir(corpo);
+        
+        // Then
+        assertEquals(2, resultados.size());
+        assertTrue(resultados.stream().allMatch(r -> r.getSituacao() == ResultadoIngestaoDTO.Situacao.CRIADO));
+    }
+    
+    @Test
+    void deveMarcarComoInvalidoPedidoComTipoErradoEContinuar() throws Exception {
+        // Given
+        String precoInvalido = "{\"externalId\":\"EXT-X\",\"produtos\":[{\"nome\":\"X\",\"preco\":\"abc\"}]}";
+        String corpo = String.join("\n", precoInvalido, PEDIDO_1);
+        
+        // When
+        List<ResultadoIngestaoDTO> resultados = ingerir(corpo);
+        
+        // Then
+        assertEquals(2, resultados.size());
+        assertEquals(ResultadoIngestaoDTO.Situacao.INVALIDO, resultados.get(0).getSituacao());
+        assertEquals(ResultadoIngestaoDTO.Situacao.CRIADO, resultados.get(1).getSituacao());
+    }
+    
+    @Test
+    void deveReportarErroQuandoBlocoFalha() throws Exception {
+        // Given
+        reset(pedidoService);
+        when(pedidoService.processarLote(anyList())).thenThrow(new RuntimeException("banco indisponível"));
+        
+        // When
+        List<ResultadoIngestaoDTO> resultados = ingerir(PEDIDO_1);
+        
+        // Then
+        assertEquals(1, resultados.size());
+        assertEquals(ResultadoIngestaoDTO.Situacao.ERRO, resultados.get(0).getSituacao());
+    }
+    
+    private List<ResultadoIngestaoDTO> ingerir(String corpo) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ingestaoLoteService.ingerir(new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8)), saida);
+        return objectMapper.readerFor(ResultadoIngestaoDTO.class)
+                .<ResultadoIngestaoDTO>readValues(saida.toByteArray())
+                .readAll();
+    }
+}
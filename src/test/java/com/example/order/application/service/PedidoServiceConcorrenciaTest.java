@@ -0,0 +1,102 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.repository.PedidoRepository;
+import com.example.order.infrastructure.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispara o mesmo externalId de várias threads ao mesmo tempo: com a inserção atômica
+ * exatamente uma grava o pedido e as demais recebem {@code DUPLICADO}, sem exceção.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@EmbeddedKafka(partitions = 1, topics = {"pedidos.recebidos", "pedidos.processados"})
+class PedidoServiceConcorrenciaTest {
+    
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private PedidoService pedidoService;
+    
+    @Autowired
+    private PedidoRepository pedidoRepository;
+    
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    
+    @Test
+    void deveGravarUmaUnicaVezOMesmoExternalIdDisparadoEmParalelo() throws Exception {
+        // Given
+        String externalId = "CONC-" + UUID.randomUUID();
+        PedidoDTO pedidoDTO = PedidoDTO.builder()
+                .externalId(externalId)
+                .produtos(List.of(
+                        ProdutoDTO.builder().nome("Produto 1").preco(Dinheiro.de("10.00")).build(),
+                        ProdutoDTO.builder().nome("Produto 2").preco(Dinheiro.de("5.50")).build()))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ResultadoIngestaoDTO>> tentativas = new ArrayList<>(THREADS);
+        
+        // When
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                tentativas.add(executor.submit(() -> {
+                    largada.await();
+                    return pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+                }));
+            }
+            largada.countDown();
+            List<ResultadoIngestaoDTO> resultados = new ArrayList<>(THREADS);
+            for (Future<ResultadoIngestaoDTO> tentativa : tentativas) {
+                // get() relança qualquer exceção da ingestão e falha o teste
+                resultados.add(tentativa.get(30, TimeUnit.SECONDS));
+            }
+            
+            // Then
+            Map<ResultadoIngestaoDTO.Situacao, Long> porSituacao = resultados.stream()
+                    .collect(Collectors.groupingBy(ResultadoIngestaoDTO::getSituacao, Collectors.counting()));
+            assertEquals(1L, porSituacao.get(ResultadoIngestaoDTO.Situacao.CRIADO));
+            assertEquals(THREADS - 1L, porSituacao.get(ResultadoIngestaoDTO.Situacao.DUPLICADO));
+            
+            PedidoEntity gravado = pedidoRepository.findByExternalId(externalId).orElseThrow();
+            Long pedidoId = resultados.stream()
+                    .filter(resultado -> resultado.getSituacao() == ResultadoIngestaoDTO.Situacao.CRIADO)
+                    .map(ResultadoIngestaoDTO::getPedidoId)
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(pedidoId, gravado.getId());
+            assertEquals(Dinheiro.de("15.50"), gravado.getTotal());
+            assertEquals(2, produtoRepository.findByPedidoId(pedidoId).size());
+            assertTrue(pedidoRepository.existsByExternalId(externalId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
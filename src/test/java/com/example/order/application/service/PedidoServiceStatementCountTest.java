@@ -0,0 +1,153 @@
+package com.example.order.application.service;
+
+import com.example.order.application.dto.PaginaPedidosDTO;
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.PedidoDetalheDTO;
+import com.example.order.application.dto.PedidoResponseDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.repository.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conta os statements JDBC emitidos por {@link PedidoService#processarPedido(PedidoDTO)}.
+ * Com IDs por sequência (pooled) e INSERTs em lote, o custo cresce por lote de
+ * {@code hibernate.jdbc.batch_size} e não por produto. As leituras com produtos custam
+ * um statement por pedido isolado e dois por página, qualquer que seja o tamanho.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@EmbeddedKafka(partitions = 1, topics = {"pedidos.recebidos", "pedidos.processados"})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PedidoServiceStatementCountTest {
+    
+    private static final int BATCH_SIZE = 100;
+    
+    @Autowired
+    private PedidoService pedidoService;
+    
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100, 200})
+    void deveEmitirStatementsProporcionaisAoNumeroDeLotesENaoDeProdutos(int quantidadeProdutos) {
+        // Given
+        PedidoDTO pedidoDTO = pedido(quantidadeProdutos);
+        
+        // When
+        Long pedidoId = pedidoService.processarPedido(pedidoDTO).getId();
+        long statements = statistics.getPrepareStatementCount();
+        
+        // Then
+        // 1 SELECT de duplicidade + até 1 nextval de pedido + 1 INSERT de pedido (na inserção
+        // atômica é um único INSERT ... ON CONFLICT pelo JDBC, fora destas estatísticas)
+        // + por lote de produtos: até 1 nextval e 1 INSERT em lote
+        // + evento no outbox: até 1 nextval e 1 INSERT
+        int lotes = (quantidadeProdutos + BATCH_SIZE - 1) / BATCH_SIZE;
+        long limite = 5 + 2L * lotes;
+        System.out.printf("[statements] produtos=%d statements=%d limite=%d%n", quantidadeProdutos, statements, limite);
+        assertTrue(statements <= limite,
+                "Esperado no máximo " + limite + " statements para " + quantidadeProdutos + " produtos, mas foram " + statements);
+        assertEquals(quantidadeProdutos, produtoRepository.findByPedidoId(pedidoId).size());
+    }
+    
+    @Test
+    void deveCriarPedidoSemReconsultarProdutos() {
+        // Given
+        PedidoDTO pedidoDTO = pedido(10);
+        
+        // When
+        PedidoResponseDTO resposta = pedidoService.criarPedido(pedidoDTO);
+        
+        // Then
+        // Produtos e IDs vêm do agregado gravado: nenhuma entidade é carregada do banco
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(10, resposta.getProdutos().size());
+        resposta.getProdutos().forEach(produto -> assertNotNull(produto.getId()));
+        assertNotNull(resposta.getCreatedAt());
+    }
+    
+    @Test
+    void deveBuscarPedidoComProdutosNumUnicoStatement() {
+        // Given
+        PedidoResponseDTO criado = pedidoService.criarPedido(pedido(10));
+        statistics.clear();
+        
+        // When
+        PedidoDetalheDTO porId = pedidoService.buscarComProdutosPorId(criado.getId());
+        PedidoDetalheDTO porExternalId = pedidoService.buscarComProdutosPorExternalId(criado.getExternalId());
+        
+        // Then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(10, porId.getProdutos().size());
+        assertEquals(10, porExternalId.getProdutos().size());
+    }
+    
+    @Test
+    void deveListarPaginaComProdutosEmDoisStatements() {
+        // Given
+        LocalDateTime inicio = LocalDateTime.now().minusSeconds(1);
+        for (int i = 0; i < 5; i++) {
+            pedidoService.criarPedido(pedido(3));
+        }
+        statistics.clear();
+        
+        // When
+        PaginaPedidosDTO pagina = pedidoService.listarPedidos(null, inicio, null, 5, true);
+        
+        // Then
+        // 1 SELECT da página + 1 SELECT dos produtos de todos os pedidos da página
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(5, pagina.getPedidos().size());
+        pagina.getPedidos().forEach(p -> assertEquals(3, pagina.getProdutos().get(p.getId()).size()));
+    }
+    
+    private PedidoDTO pedido(int quantidadeProdutos) {
+        List<ProdutoDTO> produtos = new ArrayList<>(quantidadeProdutos);
+        for (int i = 0; i < quantidadeProdutos; i++) {
+            produtos.add(ProdutoDTO.builder()
+                    .nome("Produto " + i)
+                    .preco(Dinheiro.de("1.99"))
+                    .build());
+        }
+        return PedidoDTO.builder()
+                .externalId("STMT-" + UUID.randomUUID())
+                .produtos(produtos)
+                .build();
+    }
+}
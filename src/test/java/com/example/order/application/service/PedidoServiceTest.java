@@ -1,27 +1,57 @@
 package com.example.order.application.service;
 
+import com.example.order.application.dto.CursorPaginacao;
+import com.example.order.application.dto.EstatisticasPedidosDTO;
+import com.example.order.application.dto.PaginaPedidosDTO;
 import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.PedidoDetalheDTO;
+import com.example.order.application.dto.PedidoResponseDTO;
 import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.ProdutoResponseDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
 import com.example.order.application.mapper.PedidoMapper;
 import com.example.order.domain.entity.PedidoEntity;
 import com.example.order.domain.entity.ProdutoEntity;
+import com.example.order.domain.enums.OrigemIngestao;
 import com.example.order.domain.enums.PedidoStatus;
-import com.example.order.infrastructure.messaging.KafkaPedidoProducer;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.cache.ExternalIdBloomFilter;
+import com.example.order.infrastructure.cache.EscritasRecentes;
+import com.example.order.infrastructure.cache.PedidoCache;
+import com.example.order.infrastructure.config.AmostragemLog;
+import com.example.order.infrastructure.metrics.EstatisticasPedidos;
+import com.example.order.infrastructure.metrics.PedidoMetricas;
+import com.example.order.infrastructure.repository.InsercaoPedidoRepository;
+import com.example.order.infrastructure.repository.PedidoProdutoProjecao;
 import com.example.order.infrastructure.repository.PedidoRepository;
 import com.example.order.infrastructure.repository.ProdutoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,7 +67,31 @@ class PedidoServiceTest {
     private PedidoMapper pedidoMapper;
     
     @Mock
-    private KafkaPedidoProducer kafkaPedidoProducer;
+    private OutboxService outboxService;
+    
+    @Mock
+    private ExternalIdBloomFilter externalIdBloomFilter;
+    
+    @Mock
+    private InsercaoPedidoRepository insercaoPedidoRepository;
+    
+    @Spy
+    private PedidoCache pedidoCache = new PedidoCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private PedidoMetricas pedidoMetricas = new PedidoMetricas(meterRegistry);
+    
+    @Spy
+    private EstatisticasPedidos estatisticasPedidos = new EstatisticasPedidos(null, meterRegistry, 60, false);
+    
+    @Spy
+    private AmostragemLog amostragemLog = new AmostragemLog(1.0);
+    
+    @Spy
+    private EscritasRecentes escritasRecentes =
+            new EscritasRecentes(new SimpleMeterRegistry(), false, Duration.ofSeconds(5), 1000);
     
     @InjectMocks
     private PedidoService pedidoService;
@@ -52,12 +106,12 @@ class PedidoServiceTest {
         // Setup DTO
         ProdutoDTO produto1 = ProdutoDTO.builder()
                 .nome("Produto 1")
-                .preco(new BigDecimal("10.50"))
+                .preco(Dinheiro.de("10.50"))
                 .build();
         
         ProdutoDTO produto2 = ProdutoDTO.builder()
                 .nome("Produto 2")
-                .preco(new BigDecimal("20.00"))
+                .preco(Dinheiro.de("20.00"))
                 .build();
         
         pedidoDTO = PedidoDTO.builder()
@@ -70,20 +124,20 @@ class PedidoServiceTest {
                 .id(1L)
                 .externalId("EXT-001")
                 .status(PedidoStatus.PROCESSADO)
-                .total(new BigDecimal("30.50"))
+                .total(Dinheiro.de("30.50"))
                 .build();
         
         produtoEntity1 = ProdutoEntity.builder()
                 .id(1L)
                 .nome("Produto 1")
-                .preco(new BigDecimal("10.50"))
+                .preco(Dinheiro.de("10.50"))
                 .pedidoId(1L)
                 .build();
         
         produtoEntity2 = ProdutoEntity.builder()
                 .id(2L)
                 .nome("Produto 2")
-                .preco(new BigDecimal("20.00"))
+                .preco(Dinheiro.de("20.00"))
                 .pedidoId(1L)
                 .build();
     }
@@ -91,12 +145,12 @@ class PedidoServiceTest {
     @Test
     void deveProcessarPedidoComSucesso() {
         // Given
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(true);
         when(pedidoRepository.existsByExternalId("EXT-001")).thenReturn(false);
         when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoEntity);
         when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
         when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
-        when(produtoRepository.save(any(ProdutoEntity.class))).thenReturn(produtoEntity1, produtoEntity2);
-        when(kafkaPedidoProducer.enviarPedidoProcessado(any())).thenReturn(null);
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
         
         // When
         PedidoEntity resultado = pedidoService.processarPedido(pedidoDTO);
@@ -107,14 +161,114 @@ class PedidoServiceTest {
         assertEquals(PedidoStatus.PROCESSADO, resultado.getStatus());
         
         verify(pedidoRepository).existsByExternalId("EXT-001");
-        verify(pedidoRepository, times(2)).save(any(PedidoEntity.class)); // Uma vez para salvar o pedido, outra para atualizar com produtos
-        verify(produtoRepository, times(2)).save(any(ProdutoEntity.class)); // Uma vez para cada produto
-        verify(kafkaPedidoProducer).enviarPedidoProcessado(any(PedidoEntity.class));
+        verify(pedidoRepository).save(any(PedidoEntity.class));
+        verify(produtoRepository).saveAll(argThat(produtos -> ((List<?>) produtos).size() == 2)); // Todos os produtos em um único saveAll
+        verify(produtoRepository, never()).save(any(ProdutoEntity.class));
+        verify(outboxService).registrarPedidoProcessado(pedidoEntity); // Publicação fica com o relay do outbox
+        verify(externalIdBloomFilter).registrarFalsoPositivo();
+        verify(externalIdBloomFilter).registrar("EXT-001");
+        verify(pedidoCache).registrar(pedidoEntity);
+        verify(estatisticasPedidos).registrar(PedidoStatus.PROCESSADO, Dinheiro.de("30.50"), 2);
+        assertSame(pedidoEntity, pedidoService.buscarPorExternalId("EXT-001")); // Sem transação, entra no cache na hora
+        verify(pedidoRepository, never()).findByExternalId(any());
+    }
+    
+    @Test
+    void deveIgnorarConsultaDeExistenciaQuandoFiltroDeBloomDescartaExternalId() {
+        // Given
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(false);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoEntity);
+        when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
+        when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
+        
+        // When
+        pedidoService.processarPedido(pedidoDTO);
+        
+        // Then
+        verify(pedidoRepository, never()).existsByExternalId(any());
+        verify(externalIdBloomFilter, never()).registrarFalsoPositivo();
+        verify(externalIdBloomFilter).registrar("EXT-001");
+    }
+    
+    @Test
+    void deveTratarEstouroNumericoComoFalhaENaoComoDuplicado() {
+        // Given
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(false);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoEntity);
+        when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
+        when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
+        doThrow(new DataIntegrityViolationException("numeric field overflow")).when(pedidoRepository).flush();
+        
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+        });
+        
+        assertFalse(exception instanceof PedidoDuplicadoException);
+        assertInstanceOf(DataIntegrityViolationException.class, exception.getCause());
+        assertEquals(1.0, meterRegistry.get("pedidos.falhas").tag("origem", "KAFKA").counter().count());
+        assertEquals(0.0, meterRegistry.get("pedidos.duplicados").tag("origem", "KAFKA").counter().count());
+        verify(outboxService, never()).registrarPedidoProcessado(any());
+    }
+    
+    @Test
+    void deveTratarEstouroNumericoNaInsercaoAtomicaComoFalha() {
+        // Given
+        ReflectionTestUtils.setField(pedidoService, "insercaoAtomica", true);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(PedidoEntity.builder().externalId("EXT-001").build());
+        when(insercaoPedidoRepository.inserirSeAusente(any(PedidoEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("numeric field overflow"));
+        
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+        });
+        
+        assertFalse(exception instanceof PedidoDuplicadoException);
+        assertEquals(1.0, meterRegistry.get("pedidos.falhas").tag("origem", "KAFKA").counter().count());
+        assertEquals(0.0, meterRegistry.get("pedidos.duplicados").tag("origem", "KAFKA").counter().count());
+    }
+    
+    @Test
+    void deveTratarExternalIdJaReivindicadoComoPedidoDuplicado() {
+        // Given
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(false);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoEntity);
+        when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        doThrow(new DuplicateKeyException("order_external_ids_pkey")).when(insercaoPedidoRepository)
+                .reivindicar(List.of(pedidoEntity));
+        
+        // When & Then
+        assertThrows(PedidoDuplicadoException.class, () -> pedidoService.processarPedido(pedidoDTO));
+        verify(produtoRepository, never()).saveAll(anyList());
+        verify(outboxService, never()).registrarPedidoProcessado(any());
+    }
+    
+    @Test
+    void deveCriarPedidoDevolvendoAgregadoSemReconsultarProdutos() {
+        // Given
+        PedidoResponseDTO resposta = PedidoResponseDTO.builder().id(1L).build();
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(false);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoEntity);
+        when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
+        when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
+        when(pedidoMapper.toResponse(pedidoEntity, List.of(produtoEntity1, produtoEntity2))).thenReturn(resposta);
+        
+        // When
+        PedidoResponseDTO resultado = pedidoService.criarPedido(pedidoDTO);
+        
+        // Then
+        assertSame(resposta, resultado);
+        verify(produtoRepository, never()).findByPedidoId(any());
     }
     
     @Test
     void deveLancarExcecaoQuandoPedidoJaExiste() {
         // Given
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(true);
         when(pedidoRepository.existsByExternalId("EXT-001")).thenReturn(true);
         
         // When & Then
@@ -125,7 +279,122 @@ class PedidoServiceTest {
         assertEquals("Pedido já existe: EXT-001", exception.getMessage());
         verify(pedidoRepository, never()).save(any());
         verify(produtoRepository, never()).save(any());
-        verify(kafkaPedidoProducer, never()).enviarPedidoProcessado(any());
+        verify(outboxService, never()).registrarPedidoProcessado(any());
+    }
+    
+    @Test
+    void deveGravarPedidoPelaInsercaoAtomicaSemConsultarExistencia() {
+        // Given
+        ReflectionTestUtils.setField(pedidoService, "insercaoAtomica", true);
+        PedidoEntity novo = PedidoEntity.builder().externalId("EXT-001").build();
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(novo);
+        when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
+        when(insercaoPedidoRepository.inserirSeAusente(novo)).thenReturn(Optional.of(42L));
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
+        
+        // When
+        ResultadoIngestaoDTO resultado = pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+        
+        // Then
+        assertEquals(ResultadoIngestaoDTO.Situacao.CRIADO, resultado.getSituacao());
+        assertEquals(42L, resultado.getPedidoId());
+        assertEquals(PedidoStatus.PROCESSADO, novo.getStatus());
+        assertEquals(Dinheiro.de("30.50"), novo.getTotal());
+        assertNotNull(novo.getCreatedAt());
+        assertEquals(novo.getCreatedAt(), novo.getUpdatedAt());
+        assertEquals(42L, produtoEntity1.getPedidoId());
+        verify(externalIdBloomFilter, never()).podeConter(any());
+        verify(pedidoRepository, never()).existsByExternalId(any());
+        verify(pedidoRepository, never()).save(any());
+        verify(externalIdBloomFilter).registrar("EXT-001");
+        verify(outboxService).registrarPedidoProcessado(novo);
+    }
+    
+    @Test
+    void deveInformarDuplicadoPelaInsercaoAtomicaSemExcecao() {
+        // Given
+        ReflectionTestUtils.setField(pedidoService, "insercaoAtomica", true);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(PedidoEntity.builder().externalId("EXT-001").build());
+        when(insercaoPedidoRepository.inserirSeAusente(any(PedidoEntity.class))).thenReturn(Optional.empty());
+        
+        // When
+        ResultadoIngestaoDTO resultado = pedidoService.ingerir(pedidoDTO, OrigemIngestao.KAFKA);
+        
+        // Then
+        assertEquals(ResultadoIngestaoDTO.Situacao.DUPLICADO, resultado.getSituacao());
+        assertEquals("Pedido já existe: EXT-001", resultado.getMensagem());
+        assertNull(resultado.getPedidoId());
+        verify(produtoRepository, never()).saveAll(anyList());
+        verify(outboxService, never()).registrarPedidoProcessado(any());
+        assertEquals(1.0, meterRegistry.get("pedidos.duplicados").tag("origem", "KAFKA").counter().count());
+        assertEquals(0.0, meterRegistry.get("pedidos.falhas").tag("origem", "KAFKA").counter().count());
+    }
+    
+    @Test
+    void deveRegistrarMetricasPorEtapaEOrigem() {
+        // Given
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(false);
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoEntity);
+        when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
+        when(pedidoRepository.save(any(PedidoEntity.class))).thenReturn(pedidoEntity);
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
+        
+        // When
+        pedidoService.processarPedido(pedidoDTO, OrigemIngestao.KAFKA);
+        
+        // Then
+        for (PedidoMetricas.Etapa etapa : PedidoMetricas.Etapa.values()) {
+            assertEquals(1, meterRegistry.get("pedidos.processamento.etapa")
+                    .tags("etapa", etapa.name().toLowerCase(), "origem", "KAFKA").timer().count());
+        }
+        assertEquals(1, meterRegistry.get("pedidos.processamento").tags("origem", "KAFKA", "unidade", "pedido").timer().count());
+        assertEquals(0, meterRegistry.get("pedidos.processamento").tags("origem", "KAFKA", "unidade", "lote").timer().count());
+        assertEquals(1.0, meterRegistry.get("pedidos.processados").tag("origem", "KAFKA").counter().count());
+        assertEquals(0.0, meterRegistry.get("pedidos.processados").tag("origem", "REST").counter().count());
+        assertEquals(2.0, meterRegistry.get("pedidos.produtos.quantidade").tag("origem", "KAFKA").summary().totalAmount());
+    }
+    
+    @Test
+    void deveContarDuplicadosEFalhas() {
+        // Given
+        when(externalIdBloomFilter.podeConter(any())).thenReturn(true);
+        when(pedidoRepository.existsByExternalId("EXT-001")).thenReturn(true);
+        when(pedidoRepository.existsByExternalId("EXT-FALHA")).thenReturn(false);
+        PedidoDTO comFalha = PedidoDTO.builder()
+                .externalId("EXT-FALHA")
+                .produtos(pedidoDTO.getProdutos())
+                .build();
+        when(pedidoMapper.toEntity(comFalha)).thenThrow(new IllegalStateException("mapper"));
+        
+        // When
+        assertThrows(RuntimeException.class, () -> pedidoService.processarPedido(pedidoDTO));
+        assertThrows(RuntimeException.class, () -> pedidoService.processarPedido(comFalha));
+        
+        // Then
+        assertEquals(1.0, meterRegistry.get("pedidos.duplicados").tag("origem", "REST").counter().count());
+        assertEquals(1.0, meterRegistry.get("pedidos.falhas").tag("origem", "REST").counter().count());
+    }
+    
+    @Test
+    void deveConsultarEstatisticasSomandoOsStatus() {
+        // Given
+        estatisticasPedidos.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("30.50"), 2);
+        estatisticasPedidos.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("9.50"), 1);
+        estatisticasPedidos.registrar(PedidoStatus.RECEBIDO, Dinheiro.de("5.00"), 3);
+        
+        // When
+        EstatisticasPedidosDTO estatisticas = pedidoService.consultarEstatisticas(5);
+        
+        // Then
+        assertTrue(estatisticas.isCarregado());
+        assertEquals(3, estatisticas.getTotal().getPedidos());
+        assertEquals(Dinheiro.de("45.00"), estatisticas.getTotal().getReceita());
+        assertEquals(6, estatisticas.getTotal().getItens());
+        assertEquals(2, estatisticas.getPorStatus().get(PedidoStatus.PROCESSADO).getPedidos());
+        assertEquals(Dinheiro.de("40.00"), estatisticas.getPorStatus().get(PedidoStatus.PROCESSADO).getReceita());
+        assertEquals(5, estatisticas.getPorMinuto().size());
+        assertEquals(3, estatisticas.getPorMinuto().stream().mapToLong(minuto -> minuto.getTotal().getPedidos()).sum());
+        verifyNoInteractions(pedidoRepository);
     }
     
     @Test
@@ -181,6 +450,136 @@ class PedidoServiceTest {
         assertEquals("Pedido não encontrado: EXT-999", exception.getMessage());
     }
     
+    @Test
+    void deveServirBuscasRepetidasPeloCache() {
+        // Given
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoEntity));
+        
+        // When
+        PedidoEntity primeira = pedidoService.buscarPorId(1L);
+        PedidoEntity segunda = pedidoService.buscarPorId(1L);
+        PedidoEntity porExternalId = pedidoService.buscarPorExternalId("EXT-001");
+        
+        // Then
+        assertSame(primeira, segunda);
+        assertSame(primeira, porExternalId);
+        verify(pedidoRepository, times(1)).findById(1L);
+        verify(pedidoRepository, never()).findByExternalId(any());
+    }
+    
+    @Test
+    void deveNaoCachearPedidoInexistente() {
+        // Given
+        when(pedidoRepository.findByExternalId("EXT-999")).thenReturn(Optional.empty());
+        
+        // When
+        assertThrows(RuntimeException.class, () -> pedidoService.buscarPorExternalId("EXT-999"));
+        assertThrows(RuntimeException.class, () -> pedidoService.buscarPorExternalId("EXT-999"));
+        
+        // Then
+        verify(pedidoRepository, times(2)).findByExternalId("EXT-999");
+    }
+    
+    @Test
+    void deveListarPrimeiraPaginaComCursorParaAProxima() {
+        // Given
+        LocalDateTime desde = LocalDateTime.of(2025, 7, 20, 0, 0);
+        PedidoEntity primeiro = PedidoEntity.builder().id(10L).createdAt(desde.plusMinutes(1)).build();
+        PedidoEntity segundo = PedidoEntity.builder().id(11L).createdAt(desde.plusMinutes(2)).build();
+        PedidoEntity excedente = PedidoEntity.builder().id(12L).createdAt(desde.plusMinutes(3)).build();
+        when(pedidoRepository.findPaginaByStatusAndDataInicio(PedidoStatus.PROCESSADO, desde, 0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(primeiro, segundo, excedente));
+        
+        // When
+        PaginaPedidosDTO pagina = pedidoService.listarPedidos(PedidoStatus.PROCESSADO, desde, null, 2);
+        
+        // Then
+        assertEquals(List.of(primeiro, segundo), pagina.getPedidos());
+        assertEquals(new CursorPaginacao(segundo.getCreatedAt(), 11L), CursorPaginacao.decodificar(pagina.getProximoCursor()));
+    }
+    
+    @Test
+    void deveContinuarAPartirDoCursorSemProximaPaginaNoFim() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2025, 7, 20, 10, 30, 15, 123456000);
+        String cursor = new CursorPaginacao(createdAt, 11L).codificar();
+        when(pedidoRepository.findPaginaByDataInicio(eq(createdAt), eq(11L), any()))
+                .thenReturn(List.of(pedidoEntity));
+        
+        // When
+        PaginaPedidosDTO pagina = pedidoService.listarPedidos(null, null, cursor, 50);
+        
+        // Then
+        assertEquals(1, pagina.getPedidos().size());
+        assertNull(pagina.getProximoCursor());
+        verify(pedidoRepository, never()).findPaginaByStatusAndDataInicio(any(), any(), any(), any());
+    }
+    
+    @Test
+    void deveRejeitarCursorInvalido() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.listarPedidos(null, null, "nao-e-um-cursor", 50));
+    }
+    
+    @Test
+    void deveMontarPedidoComProdutosAPartirDeUmaConsulta() {
+        // Given
+        PedidoProdutoProjecao linha1 = new PedidoProdutoProjecao(1L, "EXT-001", PedidoStatus.PROCESSADO,
+                Dinheiro.de("30.50"), null, null, 10L, "Produto 1", Dinheiro.de("10.50"));
+        PedidoProdutoProjecao linha2 = new PedidoProdutoProjecao(1L, "EXT-001", PedidoStatus.PROCESSADO,
+                Dinheiro.de("30.50"), null, null, 11L, "Produto 2", Dinheiro.de("20.00"));
+        when(pedidoRepository.findComProdutosByExternalId("EXT-001")).thenReturn(List.of(linha1, linha2));
+        when(pedidoMapper.toDetalhe(linha1)).thenReturn(PedidoDetalheDTO.builder().id(1L).externalId("EXT-001").build());
+        when(pedidoMapper.toProdutoResponse(any(PedidoProdutoProjecao.class))).thenAnswer(invocation -> {
+            PedidoProdutoProjecao linha = invocation.getArgument(0);
+            return ProdutoResponseDTO.builder().id(linha.produtoId()).nome(linha.produtoNome()).build();
+        });
+        
+        // When
+        PedidoDetalheDTO resultado = pedidoService.buscarComProdutosPorExternalId("EXT-001");
+        
+        // Then
+        assertEquals(1L, resultado.getId());
+        assertEquals(List.of(10L, 11L), resultado.getProdutos().stream().map(ProdutoResponseDTO::getId).toList());
+        verifyNoInteractions(produtoRepository);
+    }
+    
+    @Test
+    void deveMontarPedidoSemProdutosELancarExcecaoQuandoNaoEncontrado() {
+        // Given
+        PedidoProdutoProjecao semProdutos = new PedidoProdutoProjecao(1L, "EXT-001", PedidoStatus.PROCESSADO,
+                Dinheiro.ZERO, null, null, null, null, null);
+        when(pedidoRepository.findComProdutosById(1L)).thenReturn(List.of(semProdutos));
+        when(pedidoRepository.findComProdutosById(2L)).thenReturn(List.of());
+        when(pedidoMapper.toDetalhe(semProdutos)).thenReturn(PedidoDetalheDTO.builder().id(1L).build());
+        
+        // When & Then
+        assertTrue(pedidoService.buscarComProdutosPorId(1L).getProdutos().isEmpty());
+        assertThrows(RuntimeException.class, () -> pedidoService.buscarComProdutosPorId(2L));
+    }
+    
+    @Test
+    void deveBuscarProdutosDaPaginaNumaUnicaConsulta() {
+        // Given
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 31, 23, 0);
+        pedidoEntity.setCreatedAt(inicio);
+        PedidoEntity outroPedido = PedidoEntity.builder().id(2L).externalId("EXT-002").createdAt(inicio.plusHours(2)).build();
+        when(pedidoRepository.findPaginaByDataInicio(any(), eq(0L), any())).thenReturn(List.of(pedidoEntity, outroPedido));
+        when(produtoRepository.findByPedidoIdIn(Set.of(1L, 2L), inicio, inicio.plusHours(2)))
+                .thenReturn(List.of(produtoEntity1, produtoEntity2));
+        when(pedidoMapper.toResponse(any(ProdutoEntity.class)))
+                .thenAnswer(invocation -> ProdutoResponseDTO.builder().id(invocation.<ProdutoEntity>getArgument(0).getId()).build());
+        
+        // When
+        PaginaPedidosDTO pagina = pedidoService.listarPedidos(null, null, null, 50, true);
+        
+        // Then
+        assertEquals(2, pagina.getProdutos().get(1L).size());
+        assertTrue(pagina.getProdutos().get(2L).isEmpty());
+        verify(produtoRepository, times(1)).findByPedidoIdIn(anyCollection(), any(), any()); // Faixa de createdAt da página
+        verify(produtoRepository, never()).findByPedidoId(any());
+    }
+    
     @Test
     void deveSalvarPedidoPrimeiroEDepoisProdutos() {
         // Given
@@ -193,15 +592,15 @@ class PedidoServiceTest {
                 .id(2L)
                 .externalId("EXT-002")
                 .status(PedidoStatus.PROCESSADO)
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 0))
                 .build();
         
-        when(pedidoRepository.existsByExternalId("EXT-002")).thenReturn(false);
+        when(externalIdBloomFilter.podeConter("EXT-001")).thenReturn(true);
+        when(pedidoRepository.existsByExternalId("EXT-001")).thenReturn(false);
         when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(pedidoSemId);
         when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
         when(pedidoRepository.save(pedidoSemId)).thenReturn(pedidoComId);
-        when(produtoRepository.save(any(ProdutoEntity.class))).thenReturn(produtoEntity1, produtoEntity2);
-        when(pedidoRepository.save(pedidoComId)).thenReturn(pedidoComId);
-        when(kafkaPedidoProducer.enviarPedidoProcessado(any())).thenReturn(null);
+        when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produtoEntity1, produtoEntity2));
         
         // When
         PedidoEntity resultado = pedidoService.processarPedido(pedidoDTO);
@@ -211,8 +610,53 @@ class PedidoServiceTest {
         assertEquals(2L, resultado.getId());
         
         // Verificar ordem das operações
-        verify(pedidoRepository).save(pedidoSemId); // Primeiro salva o pedido sem produtos
-        verify(produtoRepository, times(2)).save(any(ProdutoEntity.class)); // Depois salva os produtos
-        verify(pedidoRepository).save(pedidoComId); // Por fim atualiza o pedido com produtos
+        InOrder ordem = inOrder(pedidoRepository, insercaoPedidoRepository, produtoRepository, outboxService);
+        ordem.verify(pedidoRepository).save(pedidoSemId); // Primeiro salva o pedido sem produtos
+        ordem.verify(insercaoPedidoRepository).reivindicar(List.of(pedidoComId)); // Reivindica o externalId
+        ordem.verify(produtoRepository).saveAll(anyList()); // Depois salva os produtos, já com o ID do pedido
+        ordem.verify(outboxService).registrarPedidoProcessado(pedidoComId); // Por fim registra o evento no outbox
+        assertEquals(2L, produtoEntity1.getPedidoId());
+        assertEquals(pedidoComId.getCreatedAt(), produtoEntity1.getCreatedAt()); // Mesma partição do pedido
+    }
+    
+    @Test
+    void deveProcessarLoteDescartandoDuplicados() {
+        // Given
+        PedidoDTO repetidoNoLote = PedidoDTO.builder()
+                .externalId("EXT-001")
+                .produtos(pedidoDTO.getProdutos())
+                .build();
+        PedidoDTO jaExistente = PedidoDTO.builder()
+                .externalId("EXT-EXISTENTE")
+                .produtos(pedidoDTO.getProdutos())
+                .build();
+        
+        when(pedidoRepository.findExternalIdsExistentes(anyCollection())).thenReturn(Set.of("EXT-EXISTENTE"));
+        when(pedidoMapper.toEntity(pedidoDTO)).thenReturn(PedidoEntity.builder().externalId("EXT-001").build());
+        when(pedidoMapper.toEntity(any(ProdutoDTO.class))).thenReturn(produtoEntity1, produtoEntity2);
+        when(pedidoRepository.saveAll(anyList())).thenReturn(List.of(pedidoEntity));
+        
+        // When
+        List<ResultadoIngestaoDTO> resultados = pedidoService.processarLote(
+                Arrays.asList(pedidoDTO, repetidoNoLote, jaExistente));
+        
+        // Then
+        assertEquals(3, resultados.size());
+        assertEquals(ResultadoIngestaoDTO.Situacao.CRIADO, resultados.get(0).getSituacao());
+        assertEquals(1L, resultados.get(0).getPedidoId());
+        assertEquals(ResultadoIngestaoDTO.Situacao.DUPLICADO, resultados.get(1).getSituacao());
+        assertEquals(ResultadoIngestaoDTO.Situacao.DUPLICADO, resultados.get(2).getSituacao());
+        
+        verify(pedidoRepository).findExternalIdsExistentes(anyCollection());
+        verify(pedidoRepository, never()).existsByExternalId(any());
+        verify(pedidoRepository).saveAll(anyList());
+        verify(insercaoPedidoRepository).reivindicar(List.of(pedidoEntity));
+        verify(produtoRepository).saveAll(anyList());
+        verify(outboxService).registrarPedidosProcessados(List.of(pedidoEntity));
+        verify(externalIdBloomFilter).registrar("EXT-EXISTENTE");
+        verify(externalIdBloomFilter).registrar("EXT-001");
+        verify(externalIdBloomFilter, never()).podeConter(any());
+        assertEquals(1, meterRegistry.get("pedidos.processamento").tags("origem", "REST", "unidade", "lote").timer().count());
+        assertEquals(0, meterRegistry.get("pedidos.processamento").tags("origem", "REST", "unidade", "pedido").timer().count());
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
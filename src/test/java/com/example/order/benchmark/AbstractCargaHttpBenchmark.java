@@ -0,0 +1,130 @@
+package com.example.order.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carga concorrente em {@code POST /api/pedidos} para comparar o modo de threads de plataforma
+ * com o de threads virtuais. Mede vazão (pedidos/s) e p50/p99 de latência com mais clientes
+ * simultâneos do que threads do Tomcat.
+ * <p>
+ * Executar com {@code ./mvnw test -Pbenchmark}; o modo virtual só roda em Java 21+.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@EmbeddedKafka(partitions = 1, topics = {"pedidos.recebidos", "pedidos.processados"})
+abstract class AbstractCargaHttpBenchmark {
+    
+    private static final int CLIENTES = 400;
+    private static final int REQUISICOES_POR_CLIENTE = 25;
+    
+    @LocalServerPort
+    private int porta;
+    
+    protected abstract String modo();
+    
+    @Test
+    void deveMedirVazaoELatencia() throws Exception {
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+        String prefixo = modo() + "-" + UUID.randomUUID() + "-";
+        URI uri = URI.create("http://localhost:" + porta + "/api/pedidos");
+        
+        // Aquecimento: JIT, pool de conexões e sequências
+        executar(cliente, uri, prefixo + "aquecimento-", 50, 10);
+        
+        long inicio = System.nanoTime();
+        Resultado resultado = executar(cliente, uri, prefixo, CLIENTES, REQUISICOES_POR_CLIENTE);
+        long duracaoNanos = System.nanoTime() - inicio;
+        
+        long[] latencias = resultado.latenciasNanos();
+        Arrays.sort(latencias);
+        double pedidosPorSegundo = resultado.sucessos() / (duracaoNanos / 1_000_000_000.0);
+        System.out.printf("[benchmark] carga-http modo=%s clientes=%d requisicoes=%d erros=%d vazao=%.1f pedidos/s p50=%.1fms p99=%.1fms%n",
+                modo(), CLIENTES, latencias.length, resultado.erros(), pedidosPorSegundo,
+                percentil(latencias, 0.50) / 1_000_000.0, percentil(latencias, 0.99) / 1_000_000.0);
+        
+        assertEquals(0, resultado.erros());
+    }
+    
+    private Resultado executar(HttpClient cliente, URI uri, String prefixo, int clientes, int requisicoesPorCliente)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        AtomicInteger erros = new AtomicInteger();
+        try {
+            List<Future<long[]>> futuros = new ArrayList<>(clientes);
+            for (int c = 0; c < clientes; c++) {
+                int clienteId = c;
+                futuros.add(executor.submit(() -> {
+                    long[] latencias = new long[requisicoesPorCliente];
+                    for (int r = 0; r < requisicoesPorCliente; r++) {
+                        HttpRequest requisicao = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(corpo(prefixo + clienteId + "-" + r)))
+                                .build();
+                        long inicio = System.nanoTime();
+                        HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                        latencias[r] = System.nanoTime() - inicio;
+                        if (resposta.statusCode() != 201) {
+                            erros.incrementAndGet();
+                        }
+                    }
+                    return latencias;
+                }));
+            }
+            long[] todas = new long[clientes * requisicoesPorCliente];
+            int posicao = 0;
+            for (Future<long[]> futuro : futuros) {
+                long[] latencias = futuro.get();
+                System.arraycopy(latencias, 0, todas, posicao, latencias.length);
+                posicao += latencias.length;
+            }
+            return new Resultado(todas, erros.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static String corpo(String externalId) {
+        return """
+                {"externalId":"%s","produtos":[{"nome":"Produto A","preco":10.00},{"nome":"Produto B","preco":20.50}]}
+                """.formatted(externalId);
+    }
+    
+    private static long percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)];
+    }
+    
+    private record Resultado(long[] latenciasNanos, int erros) {
+        
+        long sucessos() {
+            return latenciasNanos.length - erros;
+        }
+    }
+}
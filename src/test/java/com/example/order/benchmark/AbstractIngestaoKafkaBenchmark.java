@@ -0,0 +1,91 @@
+package com.example.order.benchmark;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mede a vazão de ingestão (pedidos/s) de {@code pedidos.recebidos} contra Kafka embarcado
+ * e PostgreSQL em Testcontainers. Cada subclasse sobe o contexto em um modo de listener.
+ * <p>
+ * Executar com {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@EmbeddedKafka(partitions = 3, topics = {"pedidos.recebidos", "pedidos.processados"})
+abstract class AbstractIngestaoKafkaBenchmark {
+    
+    private static final int TOTAL_PEDIDOS = 5_000;
+    private static final int PRODUTOS_POR_PEDIDO = 3;
+    private static final long TIMEOUT_MS = 300_000;
+    
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+    
+    @Autowired
+    private PedidoRepository pedidoRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    protected abstract String modo();
+    
+    @Test
+    void deveMedirVazaoDeIngestao() throws Exception {
+        String prefixo = modo() + "-" + UUID.randomUUID() + "-";
+        long inicialNoBanco = pedidoRepository.count();
+        
+        long inicio = System.nanoTime();
+        for (int i = 0; i < TOTAL_PEDIDOS; i++) {
+            String externalId = prefixo + i;
+            kafkaTemplate.send("pedidos.recebidos", externalId, objectMapper.writeValueAsString(pedido(externalId)));
+        }
+        kafkaTemplate.flush();
+        
+        long processados = 0;
+        long limite = System.currentTimeMillis() + TIMEOUT_MS;
+        while (processados < TOTAL_PEDIDOS && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+            processados = pedidoRepository.count() - inicialNoBanco;
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        
+        double pedidosPorSegundo = processados / (duracaoNanos / 1_000_000_000.0);
+        System.out.printf("[benchmark] ingestao-kafka modo=%s pedidos=%d tempo=%dms vazao=%.1f pedidos/s%n",
+                modo(), processados, duracaoNanos / 1_000_000, pedidosPorSegundo);
+        
+        assertEquals(TOTAL_PEDIDOS, processados);
+    }
+    
+    private PedidoDTO pedido(String externalId) {
+        List<ProdutoDTO> produtos = new ArrayList<>(PRODUTOS_POR_PEDIDO);
+        for (int i = 0; i < PRODUTOS_POR_PEDIDO; i++) {
+            produtos.add(ProdutoDTO.builder()
+                    .nome("Produto " + i)
+                    .preco(Dinheiro.deCentavos(1000 + 100L * i))
+                    .build());
+        }
+        return PedidoDTO.builder()
+                .externalId(externalId)
+                .produtos(produtos)
+                .build();
+    }
+}
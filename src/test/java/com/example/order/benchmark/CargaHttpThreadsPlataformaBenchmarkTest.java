@@ -0,0 +1,12 @@
+package com.example.order.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class CargaHttpThreadsPlataformaBenchmarkTest extends AbstractCargaHttpBenchmark {
+    
+    @Override
+    protected String modo() {
+        return "plataforma";
+    }
+}
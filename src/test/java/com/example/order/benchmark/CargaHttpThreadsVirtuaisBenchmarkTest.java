@@ -0,0 +1,15 @@
+package com.example.order.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class CargaHttpThreadsVirtuaisBenchmarkTest extends AbstractCargaHttpBenchmark {
+    
+    @Override
+    protected String modo() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.order.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "pedidos.kafka.consumer.batch-enabled=true")
+class IngestaoKafkaEmLoteBenchmarkTest extends AbstractIngestaoKafkaBenchmark {
+    
+    @Override
+    protected String modo() {
+        return "lote";
+    }
+}
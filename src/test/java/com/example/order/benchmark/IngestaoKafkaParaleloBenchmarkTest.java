@@ -0,0 +1,12 @@
+package com.example.order.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "pedidos.kafka.consumer.paralelo.enabled=true")
+class IngestaoKafkaParaleloBenchmarkTest extends AbstractIngestaoKafkaBenchmark {
+    
+    @Override
+    protected String modo() {
+        return "paralelo";
+    }
+}
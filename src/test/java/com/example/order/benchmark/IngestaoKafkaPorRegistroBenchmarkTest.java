@@ -0,0 +1,12 @@
+package com.example.order.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "pedidos.kafka.consumer.batch-enabled=false")
+class IngestaoKafkaPorRegistroBenchmarkTest extends AbstractIngestaoKafkaBenchmark {
+    
+    @Override
+    protected String modo() {
+        return "registro";
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.order.benchmark.jmh;
+
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.valor.Dinheiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redução dos preços em {@link PedidoService#calcularTotal(java.util.List)}, comparada com a
+ * soma em {@link BigDecimal} usada antes de {@link Dinheiro}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculoTotalBenchmark {
+    
+    @Benchmark
+    public Dinheiro calcularTotal(CargaPedido carga) {
+        return PedidoService.calcularTotal(carga.pedidoDTO.getProdutos());
+    }
+    
+    @Benchmark
+    public BigDecimal calcularTotalBigDecimal(CargaPedido carga) {
+        return carga.precosBigDecimal.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.order.benchmark.jmh;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.mapper.PedidoMapper;
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.entity.ProdutoEntity;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedido de entrada compartilhado pelos benchmarks JMH, em 1, 10, 100 e 10 mil produtos.
+ * O {@link ObjectMapper} segue a configuração padrão do Spring Boot.
+ */
+@State(Scope.Benchmark)
+public class CargaPedido {
+    
+    @Param({"1", "10", "100", "10000"})
+    public int produtos;
+    
+    public ObjectMapper objectMapper;
+    public PedidoMapper pedidoMapper;
+    public PedidoDTO pedidoDTO;
+    public String json;
+    public byte[] jsonBytes;
+    public PedidoEntity pedidoEntity;
+    public List<ProdutoEntity> produtoEntities;
+    // Os mesmos preços como BigDecimal, para comparar com a representação anterior
+    public List<BigDecimal> precosBigDecimal;
+    
+    @Setup
+    public void preparar() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pedidoMapper = Mappers.getMapper(PedidoMapper.class);
+        
+        List<ProdutoDTO> itens = new ArrayList<>(produtos);
+        for (int i = 0; i < produtos; i++) {
+            itens.add(ProdutoDTO.builder()
+                    .nome("Produto " + i)
+                    .preco(Dinheiro.deCentavos(1000 + i))
+                    .build());
+        }
+        precosBigDecimal = itens.stream().map(item -> item.getPreco().toBigDecimal()).toList();
+        pedidoDTO = PedidoDTO.builder()
+                .externalId("EXT-BENCH-" + produtos)
+                .produtos(itens)
+                .build();
+        json = objectMapper.writeValueAsString(pedidoDTO);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        
+        pedidoEntity = pedidoMapper.toEntity(pedidoDTO);
+        pedidoEntity.setId(1L);
+        pedidoEntity.setStatus(PedidoStatus.PROCESSADO);
+        pedidoEntity.calcularTotal(Dinheiro.de("123.45"));
+        pedidoEntity.setCreatedAt(LocalDateTime.now());
+        pedidoEntity.setUpdatedAt(LocalDateTime.now());
+        
+        produtoEntities = pedidoMapper.toEntityList(itens);
+        for (int i = 0; i < produtoEntities.size(); i++) {
+            produtoEntities.get(i).setId((long) i + 1);
+            produtoEntities.get(i).setPedidoId(1L);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.order.benchmark.jmh;
+
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.messaging.CodecEventoPedido;
+import com.example.order.infrastructure.messaging.CodificacaoEvento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Custo e tamanho do evento de {@code pedidos.processados} em JSON e em Smile: codificação
+ * direta da entidade, transcodificação do JSON do outbox (caminho do relay) e leitura no
+ * consumidor. Os tamanhos (evento isolado e lote de {@value #EVENTOS_POR_LOTE} eventos
+ * comprimido, como o broker grava) são impressos no início de cada fork.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodificacaoEventoBenchmark {
+    
+    private static final int EVENTOS_POR_LOTE = 500;
+    
+    @Param({"JSON", "SMILE"})
+    public CodificacaoEvento codificacao;
+    
+    private CodecEventoPedido codec;
+    private PedidoEntity pedido;
+    private String jsonOutbox;
+    private byte[] evento;
+    
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = new CodecEventoPedido(objectMapper);
+        pedido = PedidoEntity.builder()
+                .id(123_456L)
+                .externalId("EXT-BENCH-000123456")
+                .status(PedidoStatus.PROCESSADO)
+                .total(Dinheiro.de("1234.56"))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        jsonOutbox = objectMapper.writeValueAsString(pedido);
+        evento = codec.codificar(pedido, codificacao);
+        
+        ByteArrayOutputStream lote = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(lote)) {
+            for (int i = 0; i < EVENTOS_POR_LOTE; i++) {
+                pedido.setId(123_456L + i);
+                pedido.setExternalId("EXT-BENCH-" + (123_456 + i));
+                gzip.write(codec.codificar(pedido, codificacao));
+            }
+        }
+        System.out.printf("%n[tamanho] %s: evento=%d bytes, lote de %d comprimido=%d bytes%n",
+                codificacao, evento.length, EVENTOS_POR_LOTE, lote.size());
+    }
+    
+    @Benchmark
+    public byte[] codificar() {
+        return codec.codificar(pedido, codificacao);
+    }
+    
+    @Benchmark
+    public byte[] transcodificarOutbox() {
+        return codec.transcodificar(jsonOutbox, codificacao);
+    }
+    
+    @Benchmark
+    public PedidoEntity decodificar() {
+        return codec.decodificar(evento, codificacao);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.order.benchmark.jmh;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.order.application.service.OutboxService;
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.infrastructure.cache.EscritasRecentes;
+import com.example.order.infrastructure.cache.ExternalIdBloomFilter;
+import com.example.order.infrastructure.cache.PedidoCache;
+import com.example.order.infrastructure.config.AmostragemLog;
+import com.example.order.infrastructure.metrics.EstatisticasPedidos;
+import com.example.order.infrastructure.metrics.PedidoMetricas;
+import com.example.order.infrastructure.repository.InsercaoPedidoRepository;
+import com.example.order.infrastructure.repository.PedidoRepository;
+import com.example.order.infrastructure.repository.ProdutoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Custo do log em {@link PedidoService#processarPedido}: o serviço real, com repositórios em
+ * memória, sob a configuração de log de desenvolvimento ({@code SINCRONO}: appender síncrono,
+ * {@code com.example.order} em DEBUG, todo pedido detalhado) e a do perfil {@code producao}
+ * ({@code PRODUCAO}: appender assíncrono, linhas chave/valor, 1% dos pedidos detalhados). A saída vai para um
+ * stream descartado, então a diferença medida é só CPU e alocação de formatar e gravar as
+ * linhas; num console ou arquivo real o modo síncrono ainda espera a escrita.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogProcessamentoBenchmark {
+    
+    // O mesmo padrão do appender de produção em logback-spring.xml
+    private static final String PADRAO_PRODUCAO =
+            "ts=%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} level=%level thread=%thread logger=%logger{36} %kvp msg=\"%replace(%msg){'\"','\\\\\"'}\"%n%ex";
+    
+    public enum Modo {
+        SINCRONO,
+        PRODUCAO
+    }
+    
+    @State(Scope.Benchmark)
+    public static class Servico {
+        
+        @Param({"SINCRONO", "PRODUCAO"})
+        public Modo modo;
+        
+        PedidoService pedidoService;
+        
+        @Setup
+        public void preparar(CargaPedido carga) {
+            configurarLog(modo);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            AtomicLong ids = new AtomicLong();
+            DataSource semBanco = emMemoria(DataSource.class);
+            InsercaoPedidoRepository insercao = new InsercaoPedidoRepository(semBanco) {
+                @Override
+                public Optional<Long> inserirSeAusente(PedidoEntity pedido) {
+                    return Optional.of(ids.incrementAndGet());
+                }
+            };
+            OutboxService outbox = new OutboxService(null, null) {
+                @Override
+                public void registrarPedidoProcessado(PedidoEntity pedido) {
+                }
+            };
+            pedidoService = new PedidoService(emMemoria(PedidoRepository.class), emMemoria(ProdutoRepository.class),
+                    carga.pedidoMapper, outbox,
+                    new ExternalIdBloomFilter(null, null, meterRegistry, false, 1, 0.01, Path.of("nada"), Duration.ZERO),
+                    new PedidoCache(meterRegistry, false, 1, Duration.ofSeconds(1)),
+                    new PedidoMetricas(meterRegistry), insercao,
+                    new EstatisticasPedidos(null, meterRegistry, 1, false),
+                    new AmostragemLog(modo == Modo.PRODUCAO ? 0.01 : 1.0),
+                    new EscritasRecentes(meterRegistry, false, Duration.ZERO, 1));
+            ReflectionTestUtils.setField(pedidoService, "insercaoAtomica", true);
+        }
+        
+        @TearDown
+        public void encerrar() {
+            ((LoggerContext) LoggerFactory.getILoggerFactory()).reset();
+        }
+    }
+    
+    @Benchmark
+    public PedidoEntity processarPedido(CargaPedido carga, Servico servico) {
+        return servico.pedidoService.processarPedido(carga.pedidoDTO);
+    }
+    
+    private static void configurarLog(Modo modo) {
+        LoggerContext contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+        contexto.reset();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(contexto);
+        encoder.setPattern(modo == Modo.PRODUCAO ? PADRAO_PRODUCAO : "%d{yyyy-MM-dd HH:mm:ss} - %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> saida = new OutputStreamAppender<>();
+        saida.setContext(contexto);
+        saida.setEncoder(encoder);
+        saida.setOutputStream(OutputStream.nullOutputStream());
+        saida.start();
+        Appender<ILoggingEvent> appender = saida;
+        if (modo == Modo.PRODUCAO) {
+            AsyncAppender assincrono = new AsyncAppender();
+            assincrono.setContext(contexto);
+            assincrono.setQueueSize(8192);
+            assincrono.addAppender(saida);
+            assincrono.start();
+            appender = assincrono;
+        }
+        contexto.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        contexto.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        contexto.getLogger("com.example.order").setLevel(modo == Modo.PRODUCAO ? Level.INFO : Level.DEBUG);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T emMemoria(Class<T> tipo) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            if (metodo.getName().startsWith("save")) {
+                return args[0];
+            }
+            if (metodo.getReturnType() == boolean.class) {
+                return false;
+            }
+            return metodo.getReturnType() == List.class ? List.of() : null;
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.order.benchmark.jmh;
+
+import com.example.order.application.dto.PedidoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desserialização de {@link PedidoDTO} como feita no controller (bytes) e no listener Kafka (String).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoJsonBenchmark {
+    
+    @Benchmark
+    public PedidoDTO desserializarDeString(CargaPedido carga) throws IOException {
+        return carga.objectMapper.readValue(carga.json, PedidoDTO.class);
+    }
+    
+    @Benchmark
+    public PedidoDTO desserializarDeBytes(CargaPedido carga) throws IOException {
+        return carga.objectMapper.readValue(carga.jsonBytes, PedidoDTO.class);
+    }
+}
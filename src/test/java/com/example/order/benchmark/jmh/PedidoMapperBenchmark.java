@@ -0,0 +1,35 @@
+package com.example.order.benchmark.jmh;
+
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.entity.ProdutoEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões do {@code PedidoMapper} gerado pelo MapStruct.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoMapperBenchmark {
+    
+    @Benchmark
+    public PedidoEntity toEntity(CargaPedido carga) {
+        return carga.pedidoMapper.toEntity(carga.pedidoDTO);
+    }
+    
+    @Benchmark
+    public List<ProdutoEntity> toEntityList(CargaPedido carga) {
+        return carga.pedidoMapper.toEntityList(carga.pedidoDTO.getProdutos());
+    }
+}
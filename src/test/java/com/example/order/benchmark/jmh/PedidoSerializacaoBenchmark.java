@@ -0,0 +1,30 @@
+package com.example.order.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização do {@code PedidoEntity} publicada em {@code pedidos.processados}
+ * ({@code OutboxService}/{@code KafkaPedidoProducer}). A entidade não carrega os produtos,
+ * então o custo não deve variar com o parâmetro {@code produtos}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoSerializacaoBenchmark {
+    
+    @Benchmark
+    public String serializarPedidoProcessado(CargaPedido carga) throws JsonProcessingException {
+        return carga.objectMapper.writeValueAsString(carga.pedidoEntity);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.order.benchmark.jmh;
+
+import com.example.order.application.dto.PedidoResponseDTO;
+import com.example.order.infrastructure.controller.PedidoController;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem e serialização da resposta de {@code POST /api/pedidos}
+ * ({@link PedidoController}), sem banco: o agregado já gravado é mapeado para
+ * {@link PedidoResponseDTO} como o service faz e embrulhado no 201 como o controller faz.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespostaCriacaoBenchmark {
+    
+    @Benchmark
+    public byte[] criarPedido(CargaPedido carga) throws JsonProcessingException {
+        PedidoResponseDTO response = carga.pedidoMapper.toResponse(carga.pedidoEntity, carga.produtoEntities);
+        return carga.objectMapper.writeValueAsBytes(ResponseEntity.status(HttpStatus.CREATED).body(response).getBody());
+    }
+}
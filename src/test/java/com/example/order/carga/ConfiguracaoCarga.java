@@ -0,0 +1,104 @@
+package com.example.order.carga;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opções do gerador de carga, no formato {@code --chave=valor}. Um mesmo argumento pode trazer
+ * várias opções separadas por espaço, como chegam de {@code -Dcarga.args="..."} no Maven.
+ */
+record ConfiguracaoCarga(
+        Destino destino,
+        URI url,
+        String bootstrapServers,
+        String topico,
+        int taxa,
+        Duration duracao,
+        Duration aquecimento,
+        DistribuicaoProdutos produtos,
+        double duplicados,
+        int maxEmVoo,
+        Duration timeout,
+        long semente,
+        Path histograma) {
+    
+    enum Destino {
+        HTTP,
+        KAFKA
+    }
+    
+    static final String USO = """
+            Opções (--chave=valor):
+              --destino=http|kafka        POST /api/pedidos ou tópico de entrada (padrão http)
+              --url=URL                   padrão http://localhost:8080/api/pedidos
+              --bootstrap-servers=HOSTS   padrão localhost:9092
+              --topico=NOME               padrão pedidos.recebidos
+              --taxa=N                    pedidos por segundo, em malha aberta (padrão 200)
+              --duracao=ISO-8601          tempo medido (padrão PT60S)
+              --aquecimento=ISO-8601      enviado antes da medição e descartado (padrão PT10S)
+              --produtos=QTD:PESO,...     produtos por pedido e peso de cada quantidade (padrão 1:60,3:30,20:9,200:1)
+              --duplicados=FRACAO         fração reenviando um externalId recente, 0 a 1 (padrão 0)
+              --max-em-voo=N              envios sem resposta antes de descartar os próximos (padrão 10000)
+              --timeout=ISO-8601          por requisição HTTP (padrão PT30S)
+              --semente=N                 semente dos sorteios (padrão 42)
+              --histograma=ARQUIVO        grava a distribuição completa (formato .hgrm)""";
+    
+    private static final Set<String> CHAVES = Set.of("destino", "url", "bootstrap-servers", "topico", "taxa",
+            "duracao", "aquecimento", "produtos", "duplicados", "max-em-voo", "timeout", "semente", "histograma");
+    
+    static ConfiguracaoCarga de(String... args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            for (String opcao : arg.trim().split("\\s+")) {
+                if (opcao.isEmpty()) {
+                    continue;
+                }
+                int igual = opcao.indexOf('=');
+                if (!opcao.startsWith("--") || igual < 0) {
+                    throw new IllegalArgumentException("Opção inválida: " + opcao);
+                }
+                String chave = opcao.substring(2, igual);
+                if (!CHAVES.contains(chave)) {
+                    throw new IllegalArgumentException("Opção desconhecida: --" + chave);
+                }
+                opcoes.put(chave, opcao.substring(igual + 1));
+            }
+        }
+        
+        ConfiguracaoCarga configuracao = new ConfiguracaoCarga(
+                Destino.valueOf(opcoes.getOrDefault("destino", "http").toUpperCase()),
+                URI.create(opcoes.getOrDefault("url", "http://localhost:8080/api/pedidos")),
+                opcoes.getOrDefault("bootstrap-servers", "localhost:9092"),
+                opcoes.getOrDefault("topico", "pedidos.recebidos"),
+                Integer.parseInt(opcoes.getOrDefault("taxa", "200")),
+                Duration.parse(opcoes.getOrDefault("duracao", "PT60S")),
+                Duration.parse(opcoes.getOrDefault("aquecimento", "PT10S")),
+                DistribuicaoProdutos.de(opcoes.getOrDefault("produtos", "1:60,3:30,20:9,200:1")),
+                Double.parseDouble(opcoes.getOrDefault("duplicados", "0")),
+                Integer.parseInt(opcoes.getOrDefault("max-em-voo", "10000")),
+                Duration.parse(opcoes.getOrDefault("timeout", "PT30S")),
+                Long.parseLong(opcoes.getOrDefault("semente", "42")),
+                opcoes.containsKey("histograma") ? Path.of(opcoes.get("histograma")) : null);
+        configuracao.validar();
+        return configuracao;
+    }
+    
+    private void validar() {
+        if (taxa <= 0) {
+            throw new IllegalArgumentException("--taxa deve ser positiva: " + taxa);
+        }
+        if (duracao.isNegative() || duracao.isZero() || aquecimento.isNegative()) {
+            throw new IllegalArgumentException("--duracao deve ser positiva e --aquecimento não negativo");
+        }
+        if (duplicados < 0 || duplicados > 1) {
+            throw new IllegalArgumentException("--duplicados deve estar entre 0 e 1: " + duplicados);
+        }
+        if (maxEmVoo <= 0) {
+            throw new IllegalArgumentException("--max-em-voo deve ser positivo: " + maxEmVoo);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.order.carga;
+
+import com.example.order.carga.GeradorPedidos.PedidoGerado;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Para onde os pedidos gerados vão. {@link #enviar} não pode bloquear a thread que agenda os
+ * envios: a resposta chega pelo futuro.
+ */
+interface DestinoCarga extends AutoCloseable {
+    
+    /**
+     * Conclui com o resultado do envio (status HTTP, {@code ack}) ou excepcionalmente na falha.
+     */
+    CompletableFuture<String> enviar(PedidoGerado pedido);
+    
+    @Override
+    void close();
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.order.carga;
+
+import com.example.order.carga.GeradorPedidos.PedidoGerado;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code POST /api/pedidos} com o cliente HTTP do JDK; o resultado é o status da resposta.
+ */
+final class DestinoHttp implements DestinoCarga {
+    
+    private final URI url;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient cliente;
+    
+    DestinoHttp(URI url, Duration timeout) {
+        this.url = url;
+        this.timeout = timeout;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+    }
+    
+    @Override
+    public CompletableFuture<String> enviar(PedidoGerado pedido) {
+        HttpRequest requisicao = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(pedido.corpo()))
+                .build();
+        return cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                .thenApply(resposta -> String.valueOf(resposta.statusCode()));
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
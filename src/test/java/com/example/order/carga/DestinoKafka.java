@@ -0,0 +1,58 @@
+package com.example.order.carga;
+
+import com.example.order.carga.GeradorPedidos.PedidoGerado;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publica em {@code pedidos.recebidos} com o externalId como chave, como os produtores reais.
+ * A latência medida é até a confirmação do broker ({@code acks=all}); o processamento pelo
+ * serviço aparece em {@code GET /api/pedidos/stats}.
+ */
+final class DestinoKafka implements DestinoCarga {
+    
+    private final String topico;
+    private final KafkaProducer<String, byte[]> producer;
+    
+    DestinoKafka(String bootstrapServers, String topico) {
+        this.topico = topico;
+        this.producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                // Sem broker, falha em segundos em vez de travar o agendador por um minuto
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 10_000,
+                ProducerConfig.CLIENT_ID_CONFIG, "gerador-carga"),
+                new StringSerializer(), new ByteArraySerializer());
+    }
+    
+    @Override
+    public CompletableFuture<String> enviar(PedidoGerado pedido) {
+        CompletableFuture<String> resultado = new CompletableFuture<>();
+        try {
+            producer.send(new ProducerRecord<>(topico, pedido.externalId(), pedido.corpo()), (metadados, erro) -> {
+                if (erro != null) {
+                    resultado.completeExceptionally(erro);
+                } else {
+                    resultado.complete("ack");
+                }
+            });
+        } catch (RuntimeException e) {
+            // Buffer cheio além de max.block.ms, tópico inexistente, serialização
+            resultado.completeExceptionally(e);
+        }
+        return resultado;
+    }
+    
+    @Override
+    public void close() {
+        producer.close(Duration.ofSeconds(30));
+    }
+}
\ No newline at end of file
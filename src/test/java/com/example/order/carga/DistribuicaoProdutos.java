@@ -0,0 +1,60 @@
+package com.example.order.carga;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Quantidade de produtos por pedido, sorteada por peso: {@code 1:60,3:30,20:9,200:1} gera 60%
+ * dos pedidos com 1 produto, 30% com 3, 9% com 20 e 1% com 200.
+ */
+final class DistribuicaoProdutos {
+    
+    private final int[] quantidades;
+    private final long[] pesosAcumulados;
+    
+    private DistribuicaoProdutos(int[] quantidades, long[] pesosAcumulados) {
+        this.quantidades = quantidades;
+        this.pesosAcumulados = pesosAcumulados;
+    }
+    
+    static DistribuicaoProdutos de(String especificacao) {
+        String[] faixas = especificacao.split(",");
+        int[] quantidades = new int[faixas.length];
+        long[] pesosAcumulados = new long[faixas.length];
+        long total = 0;
+        for (int i = 0; i < faixas.length; i++) {
+            String[] partes = faixas[i].trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Faixa de produtos inválida (esperado QTD:PESO): " + faixas[i]);
+            }
+            quantidades[i] = Integer.parseInt(partes[0].trim());
+            long peso = Long.parseLong(partes[1].trim());
+            if (quantidades[i] <= 0 || peso <= 0) {
+                throw new IllegalArgumentException("Quantidade e peso devem ser positivos: " + faixas[i]);
+            }
+            total += peso;
+            pesosAcumulados[i] = total;
+        }
+        return new DistribuicaoProdutos(quantidades, pesosAcumulados);
+    }
+    
+    int sortear(SplittableRandom aleatorio) {
+        long sorteio = aleatorio.nextLong(pesosAcumulados[pesosAcumulados.length - 1]);
+        int indice = Arrays.binarySearch(pesosAcumulados, sorteio + 1);
+        return quantidades[indice >= 0 ? indice : -indice - 1];
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        long anterior = 0;
+        for (int i = 0; i < quantidades.length; i++) {
+            if (i > 0) {
+                texto.append(',');
+            }
+            texto.append(quantidades[i]).append(':').append(pesosAcumulados[i] - anterior);
+            anterior = pesosAcumulados[i];
+        }
+        return texto.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.example.order.carga;
+
+import com.example.order.carga.ConfiguracaoCarga.Destino;
+import com.example.order.carga.GeradorPedidos.PedidoGerado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta contra uma instância já em execução (local ou em
+ * docker-compose): envia pedidos a uma taxa fixa, sem esperar as respostas anteriores, para
+ * {@code POST /api/pedidos} ou para o tópico {@code pedidos.recebidos}, e ao final mostra a
+ * vazão e os percentis p50/p99/p999 de latência.
+ * <p>
+ * Executar com {@code ./mvnw -Pcarga test-compile exec:exec@carga -Dcarga.args="--taxa=500"};
+ * as opções estão em {@link ConfiguracaoCarga#USO}.
+ */
+public final class GeradorCarga {
+    
+    private static final long RELATORIO_INTERVALO_S = 5;
+    
+    private GeradorCarga() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao;
+        try {
+            configuracao = ConfiguracaoCarga.de(args);
+        } catch (RuntimeException e) {
+            System.err.println("[carga] " + e.getMessage());
+            System.err.println(ConfiguracaoCarga.USO);
+            System.exit(2);
+            return;
+        }
+        
+        try (DestinoCarga destino = configuracao.destino() == Destino.HTTP
+                ? new DestinoHttp(configuracao.url(), configuracao.timeout())
+                : new DestinoKafka(configuracao.bootstrapServers(), configuracao.topico())) {
+            executar(configuracao, destino);
+        }
+    }
+    
+    private static void executar(ConfiguracaoCarga configuracao, DestinoCarga destino) throws IOException, InterruptedException {
+        String prefixo = "CARGA-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        GeradorPedidos gerador = new GeradorPedidos(new ObjectMapper(), prefixo, configuracao.produtos(),
+                configuracao.duplicados(), configuracao.semente());
+        System.out.printf("[carga] destino=%s alvo=%s taxa=%d/s aquecimento=%s duracao=%s produtos=%s duplicados=%.2f prefixo=%s%n",
+                configuracao.destino(),
+                configuracao.destino() == Destino.HTTP ? configuracao.url() : configuracao.topico() + "@" + configuracao.bootstrapServers(),
+                configuracao.taxa(), configuracao.aquecimento(), configuracao.duracao(), configuracao.produtos(),
+                configuracao.duplicados(), prefixo);
+        
+        long inicio = System.nanoTime();
+        long fimAquecimento = inicio + configuracao.aquecimento().toNanos();
+        long fim = fimAquecimento + configuracao.duracao().toNanos();
+        double intervaloNanos = 1_000_000_000.0 / configuracao.taxa();
+        MedicaoCarga medicao = new MedicaoCarga(fimAquecimento);
+        Semaphore emVoo = new Semaphore(configuracao.maxEmVoo());
+        
+        ScheduledExecutorService relatorio = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "carga-relatorio");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relatorio.scheduleAtFixedRate(() -> imprimirIntervalo(medicao.fecharIntervalo()),
+                RELATORIO_INTERVALO_S, RELATORIO_INTERVALO_S, TimeUnit.SECONDS);
+        
+        long enviados = 0;
+        for (long i = 0; ; i++) {
+            long previsto = inicio + (long) (i * intervaloNanos);
+            if (previsto >= fim) {
+                break;
+            }
+            // Gera antes de esperar: o custo do JSON não atrasa o envio
+            PedidoGerado pedido = gerador.proximo();
+            for (long espera = previsto - System.nanoTime(); espera > 0; espera = previsto - System.nanoTime()) {
+                LockSupport.parkNanos(espera);
+            }
+            if (!emVoo.tryAcquire()) {
+                medicao.descartar(previsto);
+                continue;
+            }
+            if (previsto >= fimAquecimento) {
+                enviados++;
+            }
+            destino.enviar(pedido).whenComplete((resultado, erro) -> {
+                String tipo = pedido.duplicado() ? "duplicado/" : "novo/";
+                medicao.registrar(previsto, tipo + (erro == null ? resultado : "erro:" + causa(erro)));
+                emVoo.release();
+            });
+        }
+        
+        // Espera as respostas pendentes antes de fechar a medição
+        emVoo.tryAcquire(configuracao.maxEmVoo(), configuracao.timeout().toSeconds() + 5, TimeUnit.SECONDS);
+        double segundos = (System.nanoTime() - fimAquecimento) / 1_000_000_000.0;
+        relatorio.shutdownNow();
+        imprimirIntervalo(medicao.fecharIntervalo());
+        imprimirResultado(medicao, enviados, segundos, configuracao);
+    }
+    
+    private static void imprimirIntervalo(Histogram intervalo) {
+        if (intervalo.getTotalCount() == 0) {
+            return;
+        }
+        double segundos = (intervalo.getEndTimeStamp() - intervalo.getStartTimeStamp()) / 1000.0;
+        System.out.printf("[carga] intervalo: %d respostas (%.1f/s) p50=%.2fms p99=%.2fms max=%.2fms%n",
+                intervalo.getTotalCount(), segundos > 0 ? intervalo.getTotalCount() / segundos : 0.0,
+                ms(intervalo.getValueAtPercentile(50)), ms(intervalo.getValueAtPercentile(99)),
+                ms(intervalo.getMaxValue()));
+    }
+    
+    private static void imprimirResultado(MedicaoCarga medicao, long enviados, double segundos,
+                                          ConfiguracaoCarga configuracao) throws IOException {
+        Histogram total = medicao.total();
+        Map<String, Long> resultados = medicao.resultados();
+        System.out.println("[carga] === resultado (sem o aquecimento) ===");
+        System.out.printf("[carga] enviados=%d respostas=%d descartados(max-em-voo)=%d%n",
+                enviados, total.getTotalCount(), medicao.descartados());
+        System.out.printf("[carga] vazao=%.1f pedidos/s (alvo %d/s)%n", total.getTotalCount() / segundos, configuracao.taxa());
+        System.out.printf("[carga] latencia p50=%.2fms p90=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n",
+                ms(total.getValueAtPercentile(50)), ms(total.getValueAtPercentile(90)),
+                ms(total.getValueAtPercentile(99)), ms(total.getValueAtPercentile(99.9)), ms(total.getMaxValue()));
+        System.out.println("[carga] resultados " + resultados);
+        
+        if (configuracao.histograma() != null) {
+            if (configuracao.histograma().getParent() != null) {
+                Files.createDirectories(configuracao.histograma().getParent());
+            }
+            try (PrintStream saida = new PrintStream(Files.newOutputStream(configuracao.histograma()))) {
+                // Valores em microssegundos, escritos em milissegundos
+                total.outputPercentileDistribution(saida, 1000.0);
+            }
+            System.out.println("[carga] distribuição gravada em " + configuracao.histograma());
+        }
+    }
+    
+    private static String causa(Throwable erro) {
+        while (erro.getCause() != null && erro.getCause() != erro) {
+            erro = erro.getCause();
+        }
+        return erro.getClass().getSimpleName();
+    }
+    
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
\ No newline at end of file
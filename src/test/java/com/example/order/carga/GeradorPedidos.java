@@ -0,0 +1,74 @@
+package com.example.order.carga;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.domain.valor.Dinheiro;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sintetiza {@link PedidoDTO}s já serializados em JSON. Cada execução usa um prefixo próprio
+ * de externalId; a fração {@code duplicados} reenvia um externalId entre os últimos gerados,
+ * como um cliente que repete o envio.
+ * <p>
+ * Não é thread-safe: é chamado só pela thread que agenda os envios.
+ */
+final class GeradorPedidos {
+    
+    static final int RECENTES = 1024;
+    
+    private final ObjectMapper objectMapper;
+    private final String prefixo;
+    private final DistribuicaoProdutos distribuicao;
+    private final double duplicados;
+    private final SplittableRandom aleatorio;
+    private final String[] recentes = new String[RECENTES];
+    private long gerados;
+    
+    GeradorPedidos(ObjectMapper objectMapper, String prefixo, DistribuicaoProdutos distribuicao, double duplicados,
+                   long semente) {
+        this.objectMapper = objectMapper;
+        this.prefixo = prefixo;
+        this.distribuicao = distribuicao;
+        this.duplicados = duplicados;
+        this.aleatorio = new SplittableRandom(semente);
+    }
+    
+    PedidoGerado proximo() {
+        boolean duplicado = gerados > 0 && aleatorio.nextDouble() < duplicados;
+        String externalId;
+        if (duplicado) {
+            externalId = recentes[(int) (aleatorio.nextLong(Math.min(gerados, RECENTES)))];
+        } else {
+            externalId = prefixo + gerados;
+            recentes[(int) (gerados % RECENTES)] = externalId;
+            gerados++;
+        }
+        
+        int quantidade = distribuicao.sortear(aleatorio);
+        List<ProdutoDTO> produtos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            produtos.add(ProdutoDTO.builder()
+                    .nome("Produto " + i)
+                    .preco(Dinheiro.deCentavos(100 + aleatorio.nextLong(100_000)))
+                    .build());
+        }
+        try {
+            byte[] corpo = objectMapper.writeValueAsBytes(PedidoDTO.builder()
+                    .externalId(externalId)
+                    .produtos(produtos)
+                    .build());
+            return new PedidoGerado(externalId, corpo, quantidade, duplicado);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    record PedidoGerado(String externalId, byte[] corpo, int produtos, boolean duplicado) {
+    }
+}
\ No newline at end of file
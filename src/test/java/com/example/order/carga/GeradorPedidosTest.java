@@ -0,0 +1,80 @@
+package com.example.order.carga;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.carga.GeradorPedidos.PedidoGerado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorPedidosTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void deveGerarPedidosValidosSemDuplicados() throws Exception {
+        GeradorPedidos gerador = new GeradorPedidos(objectMapper, "T-", DistribuicaoProdutos.de("2:1"), 0.0, 1);
+        Set<String> externalIds = new HashSet<>();
+        
+        for (int i = 0; i < 100; i++) {
+            PedidoGerado gerado = gerador.proximo();
+            PedidoDTO pedido = objectMapper.readValue(gerado.corpo(), PedidoDTO.class);
+            
+            assertFalse(gerado.duplicado());
+            assertEquals(gerado.externalId(), pedido.getExternalId());
+            assertEquals(2, pedido.getProdutos().size());
+            assertTrue(pedido.getProdutos().stream().allMatch(produto -> produto.getPreco().signum() > 0));
+            assertTrue(externalIds.add(gerado.externalId()));
+        }
+    }
+    
+    @Test
+    void deveSortearQuantidadeDeProdutosPeloPeso() {
+        GeradorPedidos gerador = new GeradorPedidos(objectMapper, "T-", DistribuicaoProdutos.de("1:80,5:20"), 0.0, 7);
+        Map<Integer, Integer> porQuantidade = new HashMap<>();
+        
+        for (int i = 0; i < 10_000; i++) {
+            porQuantidade.merge(gerador.proximo().produtos(), 1, Integer::sum);
+        }
+        
+        assertEquals(Set.of(1, 5), porQuantidade.keySet());
+        assertTrue(porQuantidade.get(5) > 1_700 && porQuantidade.get(5) < 2_300, "com 5 produtos: " + porQuantidade.get(5));
+    }
+    
+    @Test
+    void duplicadosDevemRepetirExternalIdsRecentes() {
+        GeradorPedidos gerador = new GeradorPedidos(objectMapper, "T-", DistribuicaoProdutos.de("1:1"), 0.25, 3);
+        Set<String> novos = new HashSet<>();
+        int duplicados = 0;
+        
+        for (int i = 0; i < 4_000; i++) {
+            PedidoGerado gerado = gerador.proximo();
+            if (gerado.duplicado()) {
+                duplicados++;
+                assertTrue(novos.contains(gerado.externalId()));
+            } else {
+                assertTrue(novos.add(gerado.externalId()));
+            }
+        }
+        
+        assertTrue(duplicados > 800 && duplicados < 1_200, "duplicados: " + duplicados);
+    }
+    
+    @Test
+    void deveLerOpcoesDeUmUnicoArgumento() {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.de("--destino=kafka  --taxa=50 --duplicados=0.1 --produtos=3:1");
+        
+        assertEquals(ConfiguracaoCarga.Destino.KAFKA, configuracao.destino());
+        assertEquals(50, configuracao.taxa());
+        assertEquals(0.1, configuracao.duplicados());
+        assertEquals("3:1", configuracao.produtos().toString());
+        assertEquals("pedidos.recebidos", configuracao.topico());
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracaoCarga.de("--taxa=0"));
+        assertThrows(IllegalArgumentException.class, () -> ConfiguracaoCarga.de("--inexistente=1"));
+    }
+}
\ No newline at end of file
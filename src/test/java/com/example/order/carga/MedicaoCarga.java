@@ -0,0 +1,70 @@
+package com.example.order.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências em microssegundos num {@link Recorder} do HdrHistogram, contadas a partir do
+ * instante <em>previsto</em> de cada envio e não de quando ele de fato saiu: se o gerador ou
+ * o serviço atrasar, a espera entra na latência (sem omissão coordenada).
+ * <p>
+ * Envios previstos para o aquecimento não são medidos.
+ */
+final class MedicaoCarga {
+    
+    private final long fimAquecimentoNanos;
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private final Map<String, LongAdder> resultados = new ConcurrentHashMap<>();
+    private final LongAdder descartados = new LongAdder();
+    private Histogram intervalo;
+    
+    MedicaoCarga(long fimAquecimentoNanos) {
+        this.fimAquecimentoNanos = fimAquecimentoNanos;
+    }
+    
+    void registrar(long inicioPrevistoNanos, String resultado) {
+        if (inicioPrevistoNanos < fimAquecimentoNanos) {
+            return;
+        }
+        recorder.recordValue(Math.max(1, (System.nanoTime() - inicioPrevistoNanos) / 1_000));
+        resultados.computeIfAbsent(resultado, chave -> new LongAdder()).increment();
+    }
+    
+    /**
+     * Envio não feito porque {@code --max-em-voo} respostas já estavam pendentes.
+     */
+    void descartar(long inicioPrevistoNanos) {
+        if (inicioPrevistoNanos >= fimAquecimentoNanos) {
+            descartados.increment();
+        }
+    }
+    
+    /**
+     * Latências registradas desde a última chamada, já somadas ao total.
+     */
+    synchronized Histogram fecharIntervalo() {
+        intervalo = recorder.getIntervalHistogram(intervalo);
+        total.add(intervalo);
+        return intervalo;
+    }
+    
+    synchronized Histogram total() {
+        return total;
+    }
+    
+    Map<String, Long> resultados() {
+        Map<String, Long> copia = new TreeMap<>();
+        resultados.forEach((chave, contador) -> copia.put(chave, contador.sum()));
+        return copia;
+    }
+    
+    long descartados() {
+        return descartados.sum();
+    }
+}
\ No newline at end of file
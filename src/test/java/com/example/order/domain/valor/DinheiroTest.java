@@ -0,0 +1,105 @@
+package com.example.order.domain.valor;
+
+import com.example.order.application.dto.ProdutoDTO;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DinheiroTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    void deveLerDecimaisEmCentavos() {
+        assertEquals(1050, Dinheiro.de("10.50").centavos());
+        assertEquals(1050, Dinheiro.de("10.5").centavos());
+        assertEquals(1000, Dinheiro.de("10").centavos());
+        assertEquals(1050, Dinheiro.de("10.5000").centavos());
+        assertEquals(-5, Dinheiro.de("-0.05").centavos());
+        assertEquals(Dinheiro.de(new BigDecimal("1234.56")), Dinheiro.de("1234.56"));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", "10.", ".5", "10.555", "1,50", "abc", "92233720368547758.08"})
+    void deveRejeitarValorInvalidoOuForaDoLimite(String texto) {
+        assertThrows(IllegalArgumentException.class, () -> Dinheiro.de(texto));
+    }
+    
+    @Test
+    void deveFormatarComDuasCasasComoBigDecimal() {
+        for (String texto : List.of("0.00", "0.05", "10.50", "-3.07", "92233720368547758.07")) {
+            assertEquals(new BigDecimal(texto).toPlainString(), Dinheiro.de(texto).toString());
+            assertEquals(new BigDecimal(texto), Dinheiro.de(texto).toBigDecimal());
+        }
+        assertEquals(BigDecimal.valueOf(Long.MIN_VALUE, 2).toPlainString(), Dinheiro.deCentavos(Long.MIN_VALUE).toString());
+    }
+    
+    @Test
+    void deveSomarComVerificacaoDeEstouro() {
+        assertEquals(Dinheiro.de("30.50"), Dinheiro.de("10.50").somar(Dinheiro.de("20.00")));
+        Dinheiro maximo = Dinheiro.deCentavos(Long.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> maximo.somar(Dinheiro.deCentavos(1)));
+    }
+    
+    @Test
+    void deveSerializarNoMesmoFormatoDoBigDecimal() throws Exception {
+        // Given
+        ProdutoDTO produto = ProdutoDTO.builder().nome("Produto").preco(Dinheiro.de("10.50")).build();
+        
+        // When
+        String json = objectMapper.writeValueAsString(produto);
+        
+        // Then
+        assertEquals("{\"nome\":\"Produto\",\"preco\":10.50}", json);
+        assertEquals(Dinheiro.de("10.50"), objectMapper.readValue(json, ProdutoDTO.class).getPreco());
+    }
+    
+    @Test
+    void deveDesserializarNumeroInteiroTextoENotacaoCientifica() throws Exception {
+        assertEquals(Dinheiro.de("10.00"), preco("10"));
+        assertEquals(Dinheiro.de("10.50"), preco("\"10.50\""));
+        assertEquals(Dinheiro.de("150.00"), preco("1.5E2"));
+    }
+    
+    @Test
+    void deveRecusarPrecoComMaisDeDuasCasasNoJson() {
+        assertThrows(JsonMappingException.class, () -> preco("10.555"));
+        assertThrows(JsonMappingException.class, () -> preco("true"));
+    }
+    
+    @Test
+    void deveManterValorNoSmile() throws Exception {
+        // Given
+        SmileMapper smileMapper = new SmileMapper();
+        ProdutoDTO produto = ProdutoDTO.builder().nome("Produto").preco(Dinheiro.de("10.50")).build();
+        
+        // When
+        ProdutoDTO lido = smileMapper.readValue(smileMapper.writeValueAsBytes(produto), ProdutoDTO.class);
+        
+        // Then
+        assertEquals(Dinheiro.de("10.50"), lido.getPreco());
+    }
+    
+    @Test
+    void deveValerComPositiveDaBeanValidation() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        
+        assertTrue(validator.validate(ProdutoDTO.builder().nome("P").preco(Dinheiro.de("0.01")).build()).isEmpty());
+        assertEquals(1, validator.validate(ProdutoDTO.builder().nome("P").preco(Dinheiro.ZERO).build()).size());
+        assertEquals(1, validator.validate(ProdutoDTO.builder().nome("P").preco(Dinheiro.de("-1.00")).build()).size());
+    }
+    
+    private Dinheiro preco(String valorJson) throws Exception {
+        return objectMapper.readValue("{\"nome\":\"P\",\"preco\":" + valorJson + "}", ProdutoDTO.class).getPreco();
+    }
+}
\ No newline at end of file
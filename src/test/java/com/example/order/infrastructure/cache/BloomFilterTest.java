@@ -0,0 +1,87 @@
+package com.example.order.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void naoDeveTerFalsoNegativo() {
+        // Given
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filtro.registrar("EXT-" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.podeConter("EXT-" + i));
+        }
+    }
+
+    @Test
+    void deveManterTaxaDeFalsoPositivoProximaDaConfigurada() {
+        // Given
+        BloomFilter filtro = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filtro.registrar("EXT-" + i);
+        }
+
+        // When
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podeConter("OUTRO-" + i)) {
+                falsosPositivos++;
+            }
+        }
+
+        // Then
+        double taxa = falsosPositivos / 100_000.0;
+        assertTrue(taxa < 0.015, "Taxa de falso positivo acima do esperado: " + taxa);
+        assertEquals(0.01, filtro.taxaFalsoPositivoEstimada(), 0.005);
+    }
+
+    @Test
+    void deveRecarregarSnapshotComMesmoConteudo() throws Exception {
+        // Given
+        BloomFilter filtro = new BloomFilter(1_000, 0.01);
+        filtro.registrar("EXT-001");
+        filtro.registrar("EXT-002");
+        Path arquivo = diretorio.resolve("bloom.bin");
+
+        // When
+        filtro.salvar(arquivo, 1234L);
+        Optional<BloomFilter.Snapshot> snapshot = BloomFilter.carregar(arquivo, 1_000, 0.01);
+
+        // Then
+        assertTrue(snapshot.isPresent());
+        assertEquals(1234L, snapshot.get().marcaDagua());
+        assertTrue(snapshot.get().filtro().podeConter("EXT-001"));
+        assertTrue(snapshot.get().filtro().podeConter("EXT-002"));
+        assertEquals(filtro.ocupacao(), snapshot.get().filtro().ocupacao());
+    }
+
+    @Test
+    void deveDescartarSnapshotComDimensionamentoDiferente() throws Exception {
+        // Given
+        Path arquivo = diretorio.resolve("bloom.bin");
+        new BloomFilter(1_000, 0.01).salvar(arquivo, 1L);
+
+        // When & Then
+        assertTrue(BloomFilter.carregar(arquivo, 1_000_000, 0.01).isEmpty());
+        assertTrue(BloomFilter.carregar(diretorio.resolve("inexistente.bin"), 1_000, 0.01).isEmpty());
+        Files.writeString(arquivo, "corrompido");
+        assertTrue(BloomFilter.carregar(arquivo, 1_000, 0.01).isEmpty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.infrastructure.repository.RoteamentoDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EscritasRecentesTest {
+    
+    private Connection conexaoPrimario;
+    private RoteamentoDataSource roteamento;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primario = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        conexaoPrimario = mock(Connection.class);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        roteamento = new RoteamentoDataSource(primario, List.of(replica));
+    }
+    
+    @Test
+    void leituraDePedidoRecemGravadoVaiAoPrimario() {
+        EscritasRecentes escritas = new EscritasRecentes(new SimpleMeterRegistry(), true, Duration.ofSeconds(5), 100);
+        
+        escritas.registrar("EXT-1", 10L);
+        
+        assertTrue(escritas.lerPorExternalId("EXT-1", this::noPrimario));
+        assertTrue(escritas.lerPorId(10L, this::noPrimario));
+        assertFalse(escritas.lerPorExternalId("EXT-2", this::noPrimario));
+        assertFalse(escritas.lerPorId(11L, this::noPrimario));
+    }
+    
+    @Test
+    void depoisDaJanelaALeituraVoltaAReplica() throws InterruptedException {
+        EscritasRecentes escritas = new EscritasRecentes(new SimpleMeterRegistry(), true, Duration.ofMillis(50), 100);
+        
+        escritas.registrar("EXT-1", 10L);
+        Thread.sleep(150);
+        
+        assertFalse(escritas.lerPorExternalId("EXT-1", this::noPrimario));
+    }
+    
+    @Test
+    void desabilitadoNaoDesviaLeituras() {
+        EscritasRecentes escritas = new EscritasRecentes(new SimpleMeterRegistry(), false, Duration.ofSeconds(5), 100);
+        
+        escritas.registrar("EXT-1", 10L);
+        
+        assertFalse(escritas.lerPorExternalId("EXT-1", this::noPrimario));
+    }
+    
+    // Numa transação readOnly a conexão vem da réplica, a menos que a leitura tenha sido desviada
+    private boolean noPrimario() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return roteamento.getConnection() == conexaoPrimario;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.order.infrastructure.cache;
+
+import com.example.order.domain.entity.PedidoEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PedidoCacheTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private PedidoCache pedidoCache;
+    private PedidoEntity pedido;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pedidoCache = new PedidoCache(meterRegistry, true, 100, Duration.ofMinutes(1));
+        pedido = PedidoEntity.builder()
+                .id(1L)
+                .externalId("EXT-001")
+                .build();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void deveRegistrarSomenteAposCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // When
+        pedidoCache.registrar(pedido);
+        
+        // Then
+        assertTrue(pedidoCache.buscarPorId(1L, id -> Optional.empty()).isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertSame(pedido, pedidoCache.buscarPorId(1L, id -> Optional.empty()).orElseThrow());
+    }
+    
+    @Test
+    void deveInvalidarAsDuasChaves() {
+        // Given
+        pedidoCache.registrar(pedido);
+        
+        // When
+        pedidoCache.invalidar(pedido);
+        
+        // Then
+        assertTrue(pedidoCache.buscarPorId(1L, id -> Optional.empty()).isEmpty());
+        assertTrue(pedidoCache.buscarPorExternalId("EXT-001", id -> Optional.empty()).isEmpty());
+    }
+    
+    @Test
+    void devePublicarAcertosEFalhasNoRegistry() {
+        // Given
+        pedidoCache.buscarPorId(1L, id -> Optional.of(pedido));
+        
+        // When
+        pedidoCache.buscarPorId(1L, id -> Optional.empty());
+        
+        // Then
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", PedidoCache.CACHE_POR_ID, "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", PedidoCache.CACHE_POR_ID, "result", "miss")
+                .functionCounter().count());
+    }
+}
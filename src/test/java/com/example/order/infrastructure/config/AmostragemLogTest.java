@@ -0,0 +1,43 @@
+package com.example.order.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmostragemLogTest {
+    
+    @Test
+    void taxaTotalDetalhaTodosOsPedidos() {
+        AmostragemLog amostragem = new AmostragemLog(1.0);
+        
+        assertTrue(IntStream.range(0, 1000).allMatch(i -> amostragem.detalhar("PED-" + i)));
+        assertTrue(amostragem.detalhar());
+    }
+    
+    @Test
+    void taxaZeroNaoDetalhaNenhumPedido() {
+        AmostragemLog amostragem = new AmostragemLog(0.0);
+        
+        assertTrue(IntStream.range(0, 1000).noneMatch(i -> amostragem.detalhar("PED-" + i)));
+        assertFalse(amostragem.detalhar());
+    }
+    
+    @Test
+    void decisaoPorPedidoEhEstavelEProporcionalATaxa() {
+        AmostragemLog amostragem = new AmostragemLog(0.1);
+        
+        long detalhados = IntStream.range(0, 100_000).filter(i -> amostragem.detalhar("PED-" + i)).count();
+        
+        assertTrue(detalhados > 9_000 && detalhados < 11_000, "detalhados: " + detalhados);
+        IntStream.range(0, 1000).forEach(i ->
+                assertEquals(amostragem.detalhar("PED-" + i), new AmostragemLog(0.1).detalhar("PED-" + i)));
+    }
+    
+    @Test
+    void rejeitaTaxaForaDoIntervalo() {
+        assertThrows(IllegalArgumentException.class, () -> new AmostragemLog(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> new AmostragemLog(1.5));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.order.infrastructure.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaConfigTest {
+    
+    @Test
+    void preenchimentoDoLoteUsaSoOProducerDosEventos() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Gauge.builder("kafka.producer.batch.size.avg", () -> 16_000).tag("client.id", "producer-1").register(meterRegistry);
+        Gauge.builder("kafka.producer.batch.size.avg", () -> 32_768)
+                .tag("client.id", KafkaConfig.CLIENT_ID_EVENTOS + "-1")
+                .register(meterRegistry);
+        
+        assertEquals(0.5, KafkaConfig.preenchimentoLote(meterRegistry, KafkaConfig.CLIENT_ID_EVENTOS, 65_536));
+    }
+    
+    @Test
+    void semMetricaDoProducerDosEventosOPreenchimentoFicaIndefinido() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Gauge.builder("kafka.producer.batch.size.avg", () -> 16_000).tag("client.id", "producer-1").register(meterRegistry);
+        
+        assertTrue(Double.isNaN(KafkaConfig.preenchimentoLote(meterRegistry, KafkaConfig.CLIENT_ID_EVENTOS, 65_536)));
+    }
+}
\ No newline at end of file
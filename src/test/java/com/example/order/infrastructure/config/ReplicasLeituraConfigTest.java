@@ -0,0 +1,58 @@
+package com.example.order.infrastructure.config;
+
+import com.example.order.infrastructure.repository.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicasLeituraConfigTest {
+    
+    // Conversões de Duration e listas como na aplicação
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withInitializer(aplicacao -> aplicacao.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ReplicasLeituraConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:postgresql://primario:5432/orderdb",
+                    "spring.datasource.username=orderuser",
+                    "spring.datasource.hikari.maximum-pool-size=7");
+    
+    @Test
+    void semReplicasMantemODataSourcePadrao() {
+        contexto.run(aplicacao -> {
+            assertFalse(aplicacao.containsBean("roteamentoDataSource"));
+            assertInstanceOf(HikariDataSource.class, aplicacao.getBean(DataSource.class));
+        });
+    }
+    
+    @Test
+    void comReplicasOPrimarioRoteiaAsLeituras() {
+        contexto.withPropertyValues("pedidos.replicas.enabled=true",
+                        "pedidos.replicas.urls=jdbc:postgresql://replica1:5432/orderdb,jdbc:postgresql://replica2:5432/orderdb")
+                .run(aplicacao -> {
+                    DataSource dataSource = aplicacao.getBean(DataSource.class);
+                    assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+                    assertInstanceOf(RoteamentoDataSource.class,
+                            ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource());
+                    
+                    RoteamentoDataSource roteamento = aplicacao.getBean(RoteamentoDataSource.class);
+                    assertEquals(3, roteamento.getResolvedDataSources().size());
+                    
+                    HikariDataSource primario = aplicacao.getBean("dataSourcePrimario", HikariDataSource.class);
+                    assertEquals("jdbc:postgresql://primario:5432/orderdb", primario.getJdbcUrl());
+                    assertEquals(7, primario.getMaximumPoolSize());
+                });
+    }
+}
\ No newline at end of file
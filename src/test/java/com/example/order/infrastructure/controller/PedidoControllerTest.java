@@ -1,29 +1,53 @@
 package com.example.order.infrastructure.controller;
 
+import com.example.order.application.dto.EstatisticasPedidosDTO;
+import com.example.order.application.dto.PaginaPedidosDTO;
 import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.PedidoDetalheDTO;
+import com.example.order.application.dto.PedidoResponseDTO;
 import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.ProdutoResponseDTO;
+import com.example.order.application.dto.StatusPedidoDTO;
+import com.example.order.application.service.ExportacaoPedidosService;
+import com.example.order.application.service.IngestaoAssincronaService;
+import com.example.order.application.service.IngestaoIndisponivelException;
+import com.example.order.application.service.IngestaoLoteService;
 import com.example.order.application.service.PedidoService;
 import com.example.order.domain.entity.PedidoEntity;
 import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.config.AmostragemLog;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PedidoController.class)
+@Import(AmostragemLog.class)
 class PedidoControllerTest {
     
     @Autowired
@@ -35,6 +59,15 @@ class PedidoControllerTest {
     @MockBean
     private PedidoService pedidoService;
     
+    @MockBean
+    private IngestaoLoteService ingestaoLoteService;
+    
+    @MockBean
+    private ExportacaoPedidosService exportacaoPedidosService;
+    
+    @MockBean
+    private IngestaoAssincronaService ingestaoAssincronaService;
+    
     private PedidoDTO pedidoDTO;
     private PedidoEntity pedidoEntity;
     
@@ -43,12 +76,12 @@ class PedidoControllerTest {
         // Setup DTO
         ProdutoDTO produto1 = ProdutoDTO.builder()
                 .nome("Produto 1")
-                .preco(new BigDecimal("10.50"))
+                .preco(Dinheiro.de("10.50"))
                 .build();
         
         ProdutoDTO produto2 = ProdutoDTO.builder()
                 .nome("Produto 2")
-                .preco(new BigDecimal("20.00"))
+                .preco(Dinheiro.de("20.00"))
                 .build();
         
         pedidoDTO = PedidoDTO.builder()
@@ -61,14 +94,26 @@ class PedidoControllerTest {
                 .id(1L)
                 .externalId("EXT-001")
                 .status(PedidoStatus.PROCESSADO)
-                .total(new BigDecimal("30.50"))
+                .total(Dinheiro.de("30.50"))
                 .build();
     }
     
     @Test
     void deveCriarPedidoComSucesso() throws Exception {
         // Given
-        when(pedidoService.processarPedido(any(PedidoDTO.class))).thenReturn(pedidoEntity);
+        PedidoResponseDTO resposta = PedidoResponseDTO.builder()
+                .success(true)
+                .message("Pedido criado com sucesso")
+                .id(1L)
+                .pedidoId(1L)
+                .externalId("EXT-001")
+                .status(PedidoStatus.PROCESSADO)
+                .total(Dinheiro.de("30.50"))
+                .produtos(List.of(
+                        ProdutoResponseDTO.builder().id(10L).nome("Produto 1").preco(Dinheiro.de("10.50")).build(),
+                        ProdutoResponseDTO.builder().id(11L).nome("Produto 2").preco(Dinheiro.de("20.00")).build()))
+                .build();
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenReturn(resposta);
         
         // When & Then
         mockMvc.perform(post("/api/pedidos")
@@ -76,9 +121,13 @@ class PedidoControllerTest {
                         .content(objectMapper.writeValueAsString(pedidoDTO)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.pedidoId").value(1))
                 .andExpect(jsonPath("$.externalId").value("EXT-001"))
                 .andExpect(jsonPath("$.status").value("PROCESSADO"))
-                .andExpect(jsonPath("$.total").value(30.50));
+                .andExpect(jsonPath("$.total").value(30.50))
+                .andExpect(jsonPath("$.produtos[1].id").value(11));
+        
+        verify(pedidoService, never()).buscarProdutosPorPedidoId(anyLong()); // Sem leitura após a escrita
     }
     
     @Test
@@ -96,6 +145,111 @@ class PedidoControllerTest {
                 .andExpect(status().isBadRequest());
     }
     
+    @Test
+    void deveRecusarPrecoComMaisDeDuasCasasDecimais() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"externalId\":\"EXT-001\",\"produtos\":[{\"nome\":\"P\",\"preco\":10.555}]}"))
+                .andExpect(status().isBadRequest());
+        
+        verify(pedidoService, never()).criarPedido(any());
+    }
+    
+    @Test
+    void deveAceitarPedidoAssincronoComUrlDeStatus() throws Exception {
+        // Given
+        when(ingestaoAssincronaService.aceitar(any(PedidoDTO.class))).thenReturn(StatusPedidoDTO.builder()
+                .externalId("EXT-001")
+                .status(PedidoStatus.RECEBIDO)
+                .build());
+        
+        // When & Then
+        mockMvc.perform(post("/api/pedidos/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedidoDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/pedidos/external/EXT-001/status"))
+                .andExpect(jsonPath("$.status").value("RECEBIDO"))
+                .andExpect(jsonPath("$.pedidoId").doesNotExist());
+        
+        verify(pedidoService, never()).criarPedido(any(PedidoDTO.class));
+    }
+    
+    @Test
+    void deveRecusarPedidoAssincronoInvalidoSemPublicar() throws Exception {
+        // Given
+        PedidoDTO pedidoInvalido = PedidoDTO.builder().externalId("").produtos(List.of()).build();
+        
+        // When & Then
+        mockMvc.perform(post("/api/pedidos/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedidoInvalido)))
+                .andExpect(status().isBadRequest());
+        
+        verify(ingestaoAssincronaService, never()).aceitar(any(PedidoDTO.class));
+    }
+    
+    @Test
+    void deveResponderIndisponivelQuandoKafkaNaoConfirma() throws Exception {
+        // Given
+        when(ingestaoAssincronaService.aceitar(any(PedidoDTO.class)))
+                .thenThrow(new IngestaoIndisponivelException("Não foi possível aceitar o pedido agora: EXT-001", null));
+        
+        // When & Then
+        mockMvc.perform(post("/api/pedidos/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedidoDTO)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+    
+    @Test
+    void deveConsultarStatusDoPedido() throws Exception {
+        // Given
+        when(ingestaoAssincronaService.consultarStatus("EXT-001")).thenReturn(Optional.of(StatusPedidoDTO.builder()
+                .externalId("EXT-001")
+                .status(PedidoStatus.ERRO)
+                .mensagem("Erro ao processar pedido")
+                .build()));
+        when(ingestaoAssincronaService.consultarStatus("EXT-999")).thenReturn(Optional.empty());
+        
+        // When & Then
+        mockMvc.perform(get("/api/pedidos/external/EXT-001/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ERRO"))
+                .andExpect(jsonPath("$.mensagem").value("Erro ao processar pedido"));
+        mockMvc.perform(get("/api/pedidos/external/EXT-999/status"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void deveConsultarEstatisticasSemTocarNaTabelaDePedidos() throws Exception {
+        // Given
+        EstatisticasPedidosDTO.ResumoDTO resumo = EstatisticasPedidosDTO.ResumoDTO.builder()
+                .pedidos(2)
+                .receita(Dinheiro.de("30.50"))
+                .itens(3)
+                .build();
+        when(pedidoService.consultarEstatisticas(15)).thenReturn(EstatisticasPedidosDTO.builder()
+                .carregado(true)
+                .total(resumo)
+                .porStatus(Map.of(PedidoStatus.PROCESSADO, resumo))
+                .porMinuto(List.of())
+                .build());
+        when(pedidoService.consultarEstatisticas(0)).thenThrow(new IllegalArgumentException("Minutos deve estar entre 1 e 60: 0"));
+        
+        // When & Then
+        mockMvc.perform(get("/api/pedidos/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.carregado").value(true))
+                .andExpect(jsonPath("$.total.receita").value(30.50))
+                .andExpect(jsonPath("$.porStatus.PROCESSADO.pedidos").value(2));
+        mockMvc.perform(get("/api/pedidos/stats").param("minutos", "0"))
+                .andExpect(status().isBadRequest());
+        verify(pedidoService, never()).buscarPorId(anyLong());
+    }
+    
     @Test
     void deveBuscarPedidoPorIdComSucesso() throws Exception {
         // Given
@@ -108,6 +262,68 @@ class PedidoControllerTest {
                 .andExpect(jsonPath("$.externalId").value("EXT-001"));
     }
     
+    @Test
+    void deveBuscarPedidoComProdutosQuandoSolicitado() throws Exception {
+        // Given
+        PedidoDetalheDTO detalhe = PedidoDetalheDTO.builder()
+                .id(1L)
+                .externalId("EXT-001")
+                .status(PedidoStatus.PROCESSADO)
+                .produtos(List.of(ProdutoResponseDTO.builder().id(10L).nome("Produto 1").preco(Dinheiro.de("10.50")).build()))
+                .build();
+        when(pedidoService.buscarComProdutosPorId(1L)).thenReturn(detalhe);
+        
+        // When & Then
+        mockMvc.perform(get("/api/pedidos/1").param("include", "produtos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.externalId").value("EXT-001"))
+                .andExpect(jsonPath("$.produtos[0].nome").value("Produto 1"));
+        verify(pedidoService, never()).buscarPorId(anyLong());
+    }
+    
+    @Test
+    void deveRejeitarIncludeDesconhecido() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/pedidos/external/EXT-001").param("include", "clientes"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void deveListarPedidosPaginados() throws Exception {
+        // Given
+        PaginaPedidosDTO pagina = PaginaPedidosDTO.builder()
+                .pedidos(List.of(pedidoEntity))
+                .proximoCursor("abc")
+                .limite(1)
+                .build();
+        when(pedidoService.listarPedidos(PedidoStatus.PROCESSADO, null, null, 1, false)).thenReturn(pagina);
+        
+        // When & Then
+        mockMvc.perform(get("/api/pedidos").param("status", "PROCESSADO").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pedidos[0].externalId").value("EXT-001"))
+                .andExpect(jsonPath("$.proximoCursor").value("abc"));
+    }
+    
+    @Test
+    void deveExportarPedidosEmCsvCompactado() throws Exception {
+        // When
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/export")
+                        .param("status", "PROCESSADO")
+                        .param("format", "CSV")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos.csv.gz\""));
+        verify(exportacaoPedidosService).exportar(eq(PedidoStatus.PROCESSADO), isNull(), isNull(),
+                eq(ExportacaoPedidosService.Formato.CSV), eq(true), any());
+    }
+    
     @Test
     void deveBuscarPedidoPorExternalIdComSucesso() throws Exception {
         // Given
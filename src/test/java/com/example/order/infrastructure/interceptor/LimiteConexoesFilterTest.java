@@ -0,0 +1,61 @@
+package com.example.order.infrastructure.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConexoesFilterTest {
+    
+    private LimiteConexoesFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new LimiteConexoesFilter(new SimpleMeterRegistry(), 1, Duration.ofMillis(10));
+    }
+    
+    @Test
+    void deveLiberarPermissaoAoFimDaRequisicaoSincrona() throws Exception {
+        assertEquals(200, executar(requisicao(), (req, res) -> { }).getStatus());
+        assertEquals(200, executar(requisicao(), (req, res) -> { }).getStatus());
+    }
+    
+    @Test
+    void deveReterPermissaoAteConcluirRequisicaoAssincrona() throws Exception {
+        MockHttpServletRequest exportacao = requisicao();
+        executar(exportacao, (req, res) -> req.startAsync());
+        
+        assertEquals(503, executar(requisicao(), (req, res) -> { }).getStatus());
+        
+        exportacao.getAsyncContext().complete();
+        
+        assertEquals(200, executar(requisicao(), (req, res) -> { }).getStatus());
+    }
+    
+    @Test
+    void naoDeveLimitarForaDaApi() throws Exception {
+        MockHttpServletRequest exportacao = requisicao();
+        executar(exportacao, (req, res) -> req.startAsync());
+        
+        MockHttpServletRequest actuator = new MockHttpServletRequest("GET", "/actuator/health");
+        assertEquals(200, executar(actuator, (req, res) -> { }).getStatus());
+    }
+    
+    private MockHttpServletRequest requisicao() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pedidos/export");
+        request.setAsyncSupported(true);
+        return request;
+    }
+    
+    private MockHttpServletResponse executar(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
\ No newline at end of file
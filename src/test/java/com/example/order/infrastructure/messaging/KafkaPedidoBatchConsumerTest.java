@@ -0,0 +1,157 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.example.order.application.service.PedidoDuplicadoException;
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.example.order.domain.valor.Dinheiro;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaPedidoBatchConsumerTest {
+    
+    private static final String TOPICO = "pedidos.recebidos";
+    
+    @Mock
+    private PedidoService pedidoService;
+    
+    @Mock
+    private Acknowledgment ack;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private KafkaPedidoBatchConsumer consumer;
+    
+    @BeforeEach
+    void setUp() {
+        consumer = new KafkaPedidoBatchConsumer(pedidoService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+    
+    @Test
+    void deveGravarPollNumaTransacaoEConfirmar() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(registro(0, "EXT-0"), registro(1, "EXT-1"));
+        when(pedidoService.processarLote(anyList(), eq(OrigemIngestao.KAFKA)))
+                .thenAnswer(invocacao -> invocacao.<List<PedidoDTO>>getArgument(0).stream().map(this::criado).toList());
+        
+        // When
+        consumer.consumirLote(records, ack);
+        
+        // Then
+        verify(ack).acknowledge();
+        verify(pedidoService, never()).ingerir(any(), any());
+    }
+    
+    @Test
+    void deveRegravarUmAUmEApontarORegistroQueFalhou() {
+        // Given: EXT-2 estoura numeric(10,2) e derruba a transação do lote
+        List<ConsumerRecord<String, String>> records = List.of(
+                registro(0, "EXT-0"), registro(1, "EXT-1"), registro(2, "EXT-2"), registro(3, "EXT-3"));
+        when(pedidoService.processarLote(anyList(), eq(OrigemIngestao.KAFKA)))
+                .thenThrow(new DataIntegrityViolationException("numeric field overflow"));
+        List<String> gravados = new ArrayList<>();
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA))).thenAnswer(invocacao -> {
+            PedidoDTO pedido = invocacao.getArgument(0);
+            if (pedido.getExternalId().equals("EXT-1")) {
+                throw new PedidoDuplicadoException("EXT-1");
+            }
+            if (pedido.getExternalId().equals("EXT-2")) {
+                throw new RuntimeException("Erro ao processar pedido EXT-2",
+                        new DataIntegrityViolationException("numeric field overflow"));
+            }
+            gravados.add(pedido.getExternalId());
+            return criado(pedido);
+        });
+        
+        // When
+        BatchListenerFailedException falha = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumirLote(records, ack));
+        
+        // Then: EXT-0 e EXT-1 (reenvio) ficam confirmados pelo error handler; EXT-3 volta no próximo poll
+        assertEquals(2, falha.getIndex());
+        assertEquals(List.of("EXT-0"), gravados);
+        verify(pedidoService, times(3)).ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA));
+        verify(ack, never()).acknowledge();
+    }
+    
+    @Test
+    void deveGravarRegistrosAnterioresEMandarIlegivelParaADlq() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(
+                registro(0, "EXT-0"),
+                new ConsumerRecord<>(TOPICO, 0, 1L, "EXT-X", "{não é json"),
+                registro(2, "EXT-2"));
+        when(pedidoService.processarLote(anyList(), eq(OrigemIngestao.KAFKA)))
+                .thenAnswer(invocacao -> invocacao.<List<PedidoDTO>>getArgument(0).stream().map(this::criado).toList());
+        
+        // When
+        BatchListenerFailedException falha = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumirLote(records, ack));
+        
+        // Then
+        assertEquals(1, falha.getIndex());
+        assertInstanceOf(JsonProcessingException.class, falha.getCause());
+        verify(pedidoService).processarLote(argThat(pedidos -> pedidos.size() == 1
+                && pedidos.get(0).getExternalId().equals("EXT-0")), eq(OrigemIngestao.KAFKA));
+        verify(ack, never()).acknowledge();
+    }
+    
+    @Test
+    void deveMandarPedidoInvalidoParaADlqSemGravarNada() throws Exception {
+        // Given
+        PedidoDTO semExternalId = PedidoDTO.builder().produtos(List.of(produto())).build();
+        List<ConsumerRecord<String, String>> records = List.of(
+                new ConsumerRecord<>(TOPICO, 0, 0L, null, objectMapper.writeValueAsString(semExternalId)),
+                registro(1, "EXT-1"));
+        
+        // When
+        BatchListenerFailedException falha = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.consumirLote(records, ack));
+        
+        // Then
+        assertEquals(0, falha.getIndex());
+        assertInstanceOf(ConstraintViolationException.class, falha.getCause());
+        verifyNoInteractions(pedidoService);
+    }
+    
+    private ConsumerRecord<String, String> registro(long offset, String externalId) {
+        try {
+            PedidoDTO pedido = PedidoDTO.builder().externalId(externalId).produtos(List.of(produto())).build();
+            return new ConsumerRecord<>(TOPICO, 0, offset, externalId, objectMapper.writeValueAsString(pedido));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private ResultadoIngestaoDTO criado(PedidoDTO pedido) {
+        return ResultadoIngestaoDTO.builder()
+                .externalId(pedido.getExternalId())
+                .situacao(ResultadoIngestaoDTO.Situacao.CRIADO)
+                .build();
+    }
+    
+    private static ProdutoDTO produto() {
+        return ProdutoDTO.builder().nome("Produto").preco(Dinheiro.de("10.00")).build();
+    }
+}
\ No newline at end of file
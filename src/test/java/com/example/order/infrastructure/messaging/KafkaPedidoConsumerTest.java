@@ -0,0 +1,127 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.example.order.application.service.PedidoDuplicadoException;
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.infrastructure.cache.AcompanhamentoIngestao;
+import com.example.order.infrastructure.config.AmostragemLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaPedidoConsumerTest {
+    
+    private static final String PAYLOAD = "{\"externalId\":\"EXT-001\",\"produtos\":[]}";
+    
+    @Mock
+    private PedidoService pedidoService;
+    
+    @Mock
+    private Acknowledgment ack;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private AcompanhamentoIngestao acompanhamento;
+    private KafkaPedidoConsumer consumer;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        acompanhamento = new AcompanhamentoIngestao(meterRegistry, 100, Duration.ofMinutes(1));
+        consumer = new KafkaPedidoConsumer(pedidoService, new ObjectMapper(), acompanhamento, new AmostragemLog(1.0),
+                meterRegistry);
+    }
+    
+    @Test
+    void deveConfirmarReenvioDePedidoJaGravadoSemNovaTentativa() {
+        // Given
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA)))
+                .thenReturn(ResultadoIngestaoDTO.builder()
+                        .externalId("EXT-001")
+                        .situacao(ResultadoIngestaoDTO.Situacao.DUPLICADO)
+                        .mensagem("Pedido já existe: EXT-001")
+                        .build());
+        
+        // When
+        consumer.consumirPedido(registro(PAYLOAD), ack);
+        
+        // Then
+        verify(ack).acknowledge();
+        assertEquals(1.0, meterRegistry.get("pedidos.kafka.consumer.reenvios").counter().count());
+    }
+    
+    @Test
+    void deveConfirmarDuplicadoDetectadoPelaConstraintSemNovaTentativa() {
+        // Given
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA)))
+                .thenThrow(new PedidoDuplicadoException("EXT-001"));
+        
+        // When
+        consumer.consumirPedido(registro(PAYLOAD), ack);
+        
+        // Then
+        verify(ack).acknowledge();
+        assertEquals(1.0, meterRegistry.get("pedidos.kafka.consumer.reenvios").counter().count());
+    }
+    
+    @Test
+    void devePropagarFalhaSemConfirmarParaIrAoTopicoDeRetentativa() {
+        // Given
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA)))
+                .thenThrow(new RuntimeException("banco indisponível"));
+        
+        // When & Then
+        assertThrows(RuntimeException.class, () -> consumer.consumirPedido(registro(PAYLOAD), ack));
+        verify(ack, never()).acknowledge();
+    }
+    
+    @Test
+    void deveMandarViolacaoDeIntegridadeParaRetentativaENaoContarComoReenvio() {
+        // Given: estouro de numeric(10,2), que o Spring também traduz para DataIntegrityViolationException
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA)))
+                .thenThrow(new RuntimeException("Erro ao processar pedido EXT-001",
+                        new DataIntegrityViolationException("numeric field overflow")));
+        
+        // When & Then
+        assertThrows(RuntimeException.class, () -> consumer.consumirPedido(registro(PAYLOAD), ack));
+        verify(ack, never()).acknowledge();
+        assertEquals(0.0, meterRegistry.get("pedidos.kafka.consumer.reenvios").counter().count());
+    }
+    
+    @Test
+    void deveRegistrarNaDlqEConfirmar() {
+        // Given
+        ConsumerRecord<String, String> morto = new ConsumerRecord<>("pedidos.recebidos.dlq", 0, 0L, "EXT-001", "{");
+        morto.headers().add("kafka_dlt-exception-message", "Erro ao processar pedido".getBytes());
+        
+        // When
+        consumer.registrarNaDlq(morto, ack);
+        
+        // Then
+        verify(ack).acknowledge();
+        assertEquals(1.0, meterRegistry.get("pedidos.kafka.consumer.dlq").counter().count());
+        assertEquals(PedidoStatus.ERRO, acompanhamento.buscar("EXT-001").orElseThrow().status());
+        assertEquals("Erro ao processar pedido", acompanhamento.buscar("EXT-001").orElseThrow().mensagem());
+    }
+    
+    private static ConsumerRecord<String, String> registro(String valor) {
+        return new ConsumerRecord<>("pedidos.recebidos", 0, 0L, "EXT-001", valor);
+    }
+}
\ No newline at end of file
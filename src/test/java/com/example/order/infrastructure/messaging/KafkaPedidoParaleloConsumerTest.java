@@ -0,0 +1,165 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.application.dto.PedidoDTO;
+import com.example.order.application.dto.ProdutoDTO;
+import com.example.order.application.dto.ResultadoIngestaoDTO;
+import com.example.order.application.service.PedidoService;
+import com.example.order.domain.enums.OrigemIngestao;
+import com.example.order.domain.valor.Dinheiro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaPedidoParaleloConsumerTest {
+    
+    private static final String TOPICO = "pedidos.recebidos";
+    private static final Duration ESPERA = Duration.ofMillis(500);
+    
+    @Mock
+    private PedidoService pedidoService;
+    
+    @Mock
+    private Acknowledgment ack;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaPedidoParaleloConsumer consumer;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("pedidos.kafka.consumer.paralelo.workers-por-topico[pedidos.recebidos]", "4");
+        consumer = new KafkaPedidoParaleloConsumer(pedidoService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, environment, 1, ESPERA);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        consumer.encerrar();
+    }
+    
+    @Test
+    void deveManterOrdemPorChaveEConfirmarPollInteiro() throws Exception {
+        // Given
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            records.add(registro(i, "CLIENTE-" + (i % 3), "EXT-" + i));
+        }
+        List<String> processados = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA))).thenAnswer(invocacao -> {
+            PedidoDTO pedido = invocacao.getArgument(0);
+            processados.add(pedido.getExternalId());
+            threads.add(Thread.currentThread().getName());
+            return criado(pedido);
+        });
+        
+        // When
+        consumer.consumirParalelo(records, ack);
+        
+        // Then
+        verify(ack).acknowledge();
+        verify(ack, never()).nack(anyInt(), any(Duration.class));
+        assertEquals(20, processados.size());
+        for (int chave = 0; chave < 3; chave++) {
+            int anterior = -1;
+            for (String externalId : processados) {
+                int indice = Integer.parseInt(externalId.substring(4));
+                if (indice % 3 == chave) {
+                    assertTrue(indice > anterior, "Fora de ordem na chave " + chave + ": " + processados);
+                    anterior = indice;
+                }
+            }
+        }
+        assertTrue(threads.stream().allMatch(nome -> nome.startsWith(TOPICO + "-worker-")), threads.toString());
+    }
+    
+    @Test
+    void deveConfirmarAteAPrimeiraFalhaESegurarAMesmaChave() {
+        // Given
+        List<ConsumerRecord<String, String>> records = List.of(
+                registro(0, "A", "EXT-0"),
+                registro(1, "B", "EXT-1"),
+                registro(2, "B", "EXT-2"),
+                registro(3, "C", "EXT-3"));
+        List<String> processados = Collections.synchronizedList(new ArrayList<>());
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA))).thenAnswer(invocacao -> {
+            PedidoDTO pedido = invocacao.getArgument(0);
+            String externalId = pedido.getExternalId();
+            if (externalId.equals("EXT-1")) {
+                throw new RuntimeException("banco indisponível");
+            }
+            processados.add(externalId);
+            return criado(pedido);
+        });
+        
+        // When
+        consumer.consumirParalelo(records, ack);
+        
+        // Then
+        verify(ack).nack(1, ESPERA);
+        verify(ack, never()).acknowledge();
+        assertTrue(processados.containsAll(List.of("EXT-0", "EXT-3")), processados.toString());
+        assertFalse(processados.contains("EXT-2"), "EXT-2 não pode passar à frente de EXT-1");
+        assertEquals(3.0, meterRegistry.get("pedidos.kafka.consumer.paralelo.devolvidos").counter().count());
+    }
+    
+    @Test
+    void deveDescartarRegistrosIlegiveisEInvalidosSemSegurarOPoll() throws Exception {
+        // Given
+        PedidoDTO semExternalId = PedidoDTO.builder().produtos(List.of(produto())).build();
+        List<ConsumerRecord<String, String>> records = List.of(
+                new ConsumerRecord<>(TOPICO, 0, 0L, "A", "{não é json"),
+                new ConsumerRecord<>(TOPICO, 0, 1L, "B", objectMapper.writeValueAsString(semExternalId)),
+                registro(2, null, "EXT-2"));
+        when(pedidoService.ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA)))
+                .thenAnswer(invocacao -> criado(invocacao.getArgument(0)));
+        
+        // When
+        consumer.consumirParalelo(records, ack);
+        
+        // Then
+        verify(pedidoService, times(1)).ingerir(any(PedidoDTO.class), eq(OrigemIngestao.KAFKA));
+        verify(ack).acknowledge();
+    }
+    
+    private ConsumerRecord<String, String> registro(long offset, String chave, String externalId) {
+        try {
+            PedidoDTO pedido = PedidoDTO.builder().externalId(externalId).produtos(List.of(produto())).build();
+            return new ConsumerRecord<>(TOPICO, 0, offset, chave, objectMapper.writeValueAsString(pedido));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static ResultadoIngestaoDTO criado(PedidoDTO pedido) {
+        return ResultadoIngestaoDTO.builder()
+                .externalId(pedido.getExternalId())
+                .situacao(ResultadoIngestaoDTO.Situacao.CRIADO)
+                .build();
+    }
+    
+    private static ProdutoDTO produto() {
+        return ProdutoDTO.builder().nome("Produto").preco(Dinheiro.de("10.00")).build();
+    }
+}
\ No newline at end of file
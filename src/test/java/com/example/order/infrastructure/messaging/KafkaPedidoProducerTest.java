@@ -0,0 +1,125 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.domain.entity.PedidoEntity;
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaPedidoProducerTest {
+    
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CodecEventoPedido codec;
+    private KafkaPedidoProducer kafkaPedidoProducer;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        codec = new CodecEventoPedido(new ObjectMapper().registerModule(new JavaTimeModule()));
+        kafkaPedidoProducer = new KafkaPedidoProducer(kafkaTemplate, codec, meterRegistry,
+                CodificacaoEvento.JSON, 2, Duration.ofMillis(50));
+    }
+    
+    @Test
+    void deveRecusarEnvioQuandoLimiteEmVooEsgotado() {
+        // Given
+        CompletableFuture<SendResult<String, byte[]>> pendente1 = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, byte[]>> pendente2 = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(pendente1, pendente2, CompletableFuture.completedFuture(null));
+        
+        // When
+        kafkaPedidoProducer.enviarEvento("topico", "A", "{}");
+        kafkaPedidoProducer.enviarEvento("topico", "B", "{}");
+        CompletableFuture<SendResult<String, byte[]>> recusado = kafkaPedidoProducer.enviarEvento("topico", "C", "{}");
+        
+        // Then
+        ExecutionException erro = assertThrows(ExecutionException.class, recusado::get);
+        assertInstanceOf(TimeoutException.class, erro.getCause());
+        assertEquals(2.0, meterRegistry.get("pedidos.kafka.producer.em-voo").gauge().value());
+        assertEquals(1.0, meterRegistry.get("pedidos.kafka.producer.rejeitados").counter().count());
+        
+        // Confirmação do broker libera a vaga
+        pendente1.complete(null);
+        assertDoesNotThrow(() -> kafkaPedidoProducer.enviarEvento("topico", "D", "{}").get());
+        assertEquals(1.0, meterRegistry.get("pedidos.kafka.producer.em-voo").gauge().value());
+        verify(kafkaTemplate, times(3)).send(any(ProducerRecord.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveEnviarLoteDePedidosERegistrarLatenciaEFalhas() {
+        // Given
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(null),
+                        CompletableFuture.failedFuture(new RuntimeException("broker indisponível")));
+        
+        // When
+        CompletableFuture<Void> envio = kafkaPedidoProducer.enviarPedidosProcessados(List.of(pedido("EXT-1"), pedido("EXT-2")));
+        
+        // Then
+        assertThrows(ExecutionException.class, envio::get);
+        ArgumentCaptor<ProducerRecord<String, byte[]>> registros = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(registros.capture());
+        assertEquals(List.of("EXT-1", "EXT-2"), registros.getAllValues().stream().map(ProducerRecord::key).toList());
+        assertEquals("pedidos.processados", registros.getValue().topic());
+        assertEquals(2, meterRegistry.get("pedidos.kafka.producer.envio").timer().count());
+        assertEquals(1.0, meterRegistry.get("pedidos.kafka.producer.falhas").counter().count());
+        assertEquals(0.0, meterRegistry.get("pedidos.kafka.producer.em-voo").gauge().value());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveTranscodificarEventoParaSmileEAnunciarNoHeader() throws Exception {
+        // Given
+        KafkaPedidoProducer produtorSmile = new KafkaPedidoProducer(kafkaTemplate, codec, meterRegistry,
+                CodificacaoEvento.SMILE, 2, Duration.ofMillis(50));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(pedido("EXT-1"));
+        
+        // When
+        produtorSmile.enviarEvento("pedidos.processados", "EXT-1", json).get();
+        
+        // Then
+        ArgumentCaptor<ProducerRecord<String, byte[]>> registro = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(registro.capture());
+        assertEquals(CodificacaoEvento.SMILE, CodificacaoEvento.de(registro.getValue().headers()));
+        PedidoEntity decodificado = codec.decodificar(registro.getValue().value(), CodificacaoEvento.SMILE);
+        assertEquals("EXT-1", decodificado.getExternalId());
+        assertEquals(Dinheiro.de("10.00"), decodificado.getTotal());
+        assertTrue(registro.getValue().value().length < json.length());
+    }
+    
+    private PedidoEntity pedido(String externalId) {
+        return PedidoEntity.builder()
+                .id(1L)
+                .externalId(externalId)
+                .status(PedidoStatus.PROCESSADO)
+                .total(Dinheiro.de("10.00"))
+                .build();
+    }
+}
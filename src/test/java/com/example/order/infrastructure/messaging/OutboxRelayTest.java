@@ -0,0 +1,89 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.domain.entity.OutboxEventoEntity;
+import com.example.order.infrastructure.repository.OutboxEventoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    
+    @Mock
+    private OutboxEventoRepository outboxEventoRepository;
+    
+    @Mock
+    private KafkaPedidoProducer kafkaPedidoProducer;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventoRepository, kafkaPedidoProducer, transactionManager,
+                meterRegistry, 2, 1000, Duration.ofHours(24));
+    }
+    
+    @Test
+    void devePublicarLoteEMarcarTodosDeUmaVez() {
+        // Given
+        when(outboxEventoRepository.travarPendentes(2)).thenReturn(List.of(evento(1L), evento(2L)), List.of(evento(3L)));
+        when(kafkaPedidoProducer.enviarEventos(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        outboxRelay.publicarPendentes();
+        
+        // Then
+        verify(kafkaPedidoProducer, times(2)).enviarEventos(anyList());
+        verify(outboxEventoRepository).marcarComoPublicados(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventoRepository).marcarComoPublicados(eq(List.of(3L)), any(LocalDateTime.class));
+        assertEquals(3.0, meterRegistry.get("pedidos.outbox.relay.publicados").counter().count());
+        assertEquals(2, meterRegistry.get("pedidos.outbox.relay.lote").summary().count());
+    }
+    
+    @Test
+    void naoDeveMarcarLoteQuandoEnvioFalha() {
+        // Given
+        when(outboxEventoRepository.travarPendentes(2)).thenReturn(List.of(evento(1L)));
+        when(kafkaPedidoProducer.enviarEventos(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker indisponível")));
+        
+        // When
+        outboxRelay.publicarPendentes();
+        
+        // Then
+        verify(outboxEventoRepository, never()).marcarComoPublicados(anyCollection(), any());
+        verify(transactionManager).rollback(any());
+        assertEquals(0.0, meterRegistry.get("pedidos.outbox.relay.publicados").counter().count());
+    }
+    
+    private OutboxEventoEntity evento(Long id) {
+        return OutboxEventoEntity.builder()
+                .id(id)
+                .topico("pedidos.processados")
+                .chave("EXT-" + id)
+                .payload("{\"externalId\":\"EXT-" + id + "\"}")
+                .createdAt(LocalDateTime.now().minusSeconds(5))
+                .build();
+    }
+}
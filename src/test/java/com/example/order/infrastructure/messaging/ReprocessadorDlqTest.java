@@ -0,0 +1,122 @@
+package com.example.order.infrastructure.messaging;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.infrastructure.cache.AcompanhamentoIngestao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReprocessadorDlqTest {
+    
+    private static final String GRUPO = "grupo-replay";
+    private static final TopicPartition PARTICAO = new TopicPartition(ReprocessadorDlq.TOPICO_DLQ, 0);
+    
+    @Mock
+    private ConsumerFactory<String, String> consumerFactory;
+    
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+    
+    private final List<Map<TopicPartition, OffsetAndMetadata>> commits = new ArrayList<>();
+    private MockConsumer<String, String> consumer;
+    private SimpleMeterRegistry meterRegistry;
+    private AcompanhamentoIngestao acompanhamento;
+    private ReprocessadorDlq reprocessadorDlq;
+    
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+                commits.add(Map.copyOf(offsets));
+                super.commitSync(offsets);
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        acompanhamento = new AcompanhamentoIngestao(meterRegistry, 100, Duration.ofMinutes(1));
+        reprocessadorDlq = new ReprocessadorDlq(consumerFactory, kafkaTemplate, acompanhamento, meterRegistry,
+                GRUPO, Duration.ofMillis(10));
+        when(consumerFactory.createConsumer(GRUPO, null, "-dlq-replay")).thenReturn(consumer);
+    }
+    
+    @Test
+    void deveReinjetarAteOLimiteEConfirmarApenasOsEnviados() {
+        // Given
+        registrosNaDlq(3);
+        when(kafkaTemplate.send(eq(ReprocessadorDlq.TOPICO_ORIGEM), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        
+        // When
+        int reinjetados = reprocessadorDlq.reinjetar(2);
+        
+        // Then
+        assertEquals(2, reinjetados);
+        verify(kafkaTemplate).send(ReprocessadorDlq.TOPICO_ORIGEM, "EXT-0", "{\"externalId\":\"EXT-0\"}");
+        verify(kafkaTemplate).send(ReprocessadorDlq.TOPICO_ORIGEM, "EXT-1", "{\"externalId\":\"EXT-1\"}");
+        verify(kafkaTemplate, never()).send(ReprocessadorDlq.TOPICO_ORIGEM, "EXT-2", "{\"externalId\":\"EXT-2\"}");
+        assertEquals(List.of(Map.of(PARTICAO, new OffsetAndMetadata(2))), commits);
+        assertEquals(2.0, meterRegistry.get("pedidos.kafka.dlq.reinjetados").counter().count());
+        assertTrue(consumer.closed());
+        assertEquals(PedidoStatus.RECEBIDO, acompanhamento.buscar("EXT-0").orElseThrow().status());
+        assertTrue(acompanhamento.buscar("EXT-2").isEmpty());
+    }
+    
+    @Test
+    void naoDeveConfirmarQuandoEnvioFalha() {
+        // Given
+        registrosNaDlq(2);
+        when(kafkaTemplate.send(eq(ReprocessadorDlq.TOPICO_ORIGEM), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null),
+                        CompletableFuture.failedFuture(new RuntimeException("broker indisponível")));
+        
+        // When & Then
+        assertThrows(CompletionException.class, () -> reprocessadorDlq.reinjetar(10));
+        assertTrue(commits.isEmpty());
+        assertTrue(consumer.closed());
+    }
+    
+    @Test
+    void deveRetornarZeroQuandoDlqNaoExiste() {
+        // When
+        int reinjetados = reprocessadorDlq.reinjetar(10);
+        
+        // Then
+        assertEquals(0, reinjetados);
+        verifyNoInteractions(kafkaTemplate);
+    }
+    
+    private void registrosNaDlq(int quantidade) {
+        consumer.updatePartitions(ReprocessadorDlq.TOPICO_DLQ,
+                List.of(new PartitionInfo(ReprocessadorDlq.TOPICO_DLQ, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTICAO, 0L));
+        consumer.schedulePollTask(() -> {
+            for (int i = 0; i < quantidade; i++) {
+                consumer.addRecord(new ConsumerRecord<>(ReprocessadorDlq.TOPICO_DLQ, 0, i,
+                        "EXT-" + i, "{\"externalId\":\"EXT-" + i + "\"}"));
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.example.order.infrastructure.metrics;
+
+import com.example.order.domain.enums.PedidoStatus;
+import com.example.order.domain.valor.Dinheiro;
+import com.example.order.infrastructure.repository.EstatisticaPedidosProjecao;
+import com.example.order.infrastructure.repository.PedidoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EstatisticasPedidosTest {
+    
+    private static final Instant INICIO = Instant.parse("2024-01-15T10:00:30Z");
+    
+    private SimpleMeterRegistry meterRegistry;
+    private PedidoRepository pedidoRepository;
+    private RelogioAjustavel relogio;
+    private EstatisticasPedidos estatisticas;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pedidoRepository = mock(PedidoRepository.class);
+        relogio = new RelogioAjustavel(INICIO);
+        estatisticas = new EstatisticasPedidos(pedidoRepository, meterRegistry, 5, true, relogio);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    @Test
+    void deveContarSomenteAposCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        
+        // When
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("30.50"), 2);
+        
+        // Then
+        assertEquals(0, estatisticas.totais().get(PedidoStatus.PROCESSADO).pedidos());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        EstatisticasPedidos.Resumo resumo = estatisticas.totais().get(PedidoStatus.PROCESSADO);
+        assertEquals(1, resumo.pedidos());
+        assertEquals(Dinheiro.de("30.50"), resumo.receita());
+        assertEquals(2, resumo.itens());
+    }
+    
+    @Test
+    void deveSepararPorMinutoEDescartarMinutosForaDaJanela() {
+        // Given
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("10.00"), 1);
+        relogio.avancar(Duration.ofMinutes(1));
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("20.00"), 2);
+        estatisticas.registrar(PedidoStatus.ERRO, Dinheiro.de("5.00"), 1);
+        
+        // When
+        List<EstatisticasPedidos.Minuto> serie = estatisticas.ultimosMinutos(2);
+        
+        // Then
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 0), serie.get(0).inicio());
+        assertEquals(1, serie.get(0).porStatus().get(PedidoStatus.PROCESSADO).pedidos());
+        assertEquals(Dinheiro.de("20.00"), serie.get(1).porStatus().get(PedidoStatus.PROCESSADO).receita());
+        assertEquals(1, serie.get(1).porStatus().get(PedidoStatus.ERRO).pedidos());
+        
+        // Posição da janela reaproveitada: o minuto antigo some, o acumulado fica
+        relogio.avancar(Duration.ofMinutes(4));
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("1.00"), 1);
+        List<EstatisticasPedidos.Minuto> janela = estatisticas.ultimosMinutos(5);
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 1), janela.get(0).inicio());
+        assertEquals(2, janela.stream().mapToLong(minuto -> minuto.porStatus().get(PedidoStatus.PROCESSADO).pedidos()).sum());
+        assertEquals(3, estatisticas.totais().get(PedidoStatus.PROCESSADO).pedidos());
+    }
+    
+    @Test
+    void devePublicarGaugesPorStatus() {
+        // Given
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("30.50"), 2);
+        
+        // When
+        relogio.avancar(Duration.ofMinutes(1));
+        
+        // Then
+        assertEquals(1.0, meterRegistry.get("pedidos.estatisticas.pedidos").tag("status", "PROCESSADO").gauge().value());
+        assertEquals(30.5, meterRegistry.get("pedidos.estatisticas.receita").tag("status", "PROCESSADO").gauge().value());
+        assertEquals(2.0, meterRegistry.get("pedidos.estatisticas.itens").tag("status", "PROCESSADO").gauge().value());
+        assertEquals(1.0, meterRegistry.get("pedidos.estatisticas.ultimo-minuto.pedidos").tag("status", "PROCESSADO")
+                .gauge().value());
+        assertEquals(0.0, meterRegistry.get("pedidos.estatisticas.ultimo-minuto.pedidos").tag("status", "ERRO")
+                .gauge().value());
+    }
+    
+    @Test
+    void deveRejeitarMinutosForaDaJanela() {
+        assertThrows(IllegalArgumentException.class, () -> estatisticas.ultimosMinutos(0));
+        assertThrows(IllegalArgumentException.class, () -> estatisticas.ultimosMinutos(6));
+    }
+    
+    @Test
+    void deveCarregarDoBancoUmaVezSomandoAoQueJaFoiRegistrado() {
+        // Given
+        long minutoAnterior = INICIO.getEpochSecond() / 60 * 60 - 60;
+        when(pedidoRepository.resumirPorStatus(any())).thenReturn(List.of(
+                linha("PROCESSADO", 100, "1000.00", 250, null),
+                linha("ERRO", 3, "15.00", 3, null)));
+        when(pedidoRepository.resumirPorMinutoEStatus(any(), any())).thenReturn(List.of(
+                linha("PROCESSADO", 4, "40.00", 8, minutoAnterior)));
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("10.00"), 1);
+        assertFalse(estatisticas.carregado());
+        
+        // When
+        estatisticas.carregar();
+        
+        // Then
+        assertTrue(estatisticas.carregado());
+        EstatisticasPedidos.Resumo processados = estatisticas.totais().get(PedidoStatus.PROCESSADO);
+        assertEquals(101, processados.pedidos());
+        assertEquals(Dinheiro.de("1010.00"), processados.receita());
+        assertEquals(251, processados.itens());
+        assertEquals(3, estatisticas.totais().get(PedidoStatus.ERRO).pedidos());
+        List<EstatisticasPedidos.Minuto> serie = estatisticas.ultimosMinutos(2);
+        assertEquals(4, serie.get(0).porStatus().get(PedidoStatus.PROCESSADO).pedidos());
+        assertEquals(1, serie.get(1).porStatus().get(PedidoStatus.PROCESSADO).pedidos());
+    }
+    
+    @Test
+    void deveSeguirComValoresLocaisQuandoCargaFalha() {
+        // Given
+        when(pedidoRepository.resumirPorStatus(any())).thenThrow(new IllegalStateException("banco fora"));
+        estatisticas.registrar(PedidoStatus.PROCESSADO, Dinheiro.de("10.00"), 1);
+        
+        // When
+        estatisticas.carregar();
+        
+        // Then
+        assertFalse(estatisticas.carregado());
+        assertEquals(1, estatisticas.totais().get(PedidoStatus.PROCESSADO).pedidos());
+    }
+    
+    private static EstatisticaPedidosProjecao linha(String status, long pedidos, String receita, long itens, Long minuto) {
+        return new EstatisticaPedidosProjecao() {
+            @Override
+            public String getStatus() {
+                return status;
+            }
+            
+            @Override
+            public Long getPedidos() {
+                return pedidos;
+            }
+            
+            @Override
+            public BigDecimal getReceita() {
+                return new BigDecimal(receita);
+            }
+            
+            @Override
+            public Long getItens() {
+                return itens;
+            }
+            
+            @Override
+            public Long getMinuto() {
+                return minuto;
+            }
+        };
+    }
+    
+    private static final class RelogioAjustavel extends Clock {
+        
+        private Instant agora;
+        
+        RelogioAjustavel(Instant agora) {
+            this.agora = agora;
+        }
+        
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.order.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ManutencaoParticoesPedidosTest {
+    
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-03-10T12:00:00Z"), ZoneOffset.UTC);
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    private ManutencaoParticoesPedidos manutencao;
+    
+    @BeforeEach
+    void setUp() {
+        manutencao = new ManutencaoParticoesPedidos(jdbcTemplate, true, 2, 12, 2, CLOCK);
+    }
+    
+    @Test
+    void deveCriarParticoesDoMesCorrenteEDosSeguintes() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString())).thenReturn(true);
+        
+        // When
+        manutencao.manter();
+        
+        // Then
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS orders_p202403 PARTITION OF orders "
+                + "FOR VALUES FROM ('2024-03-01') TO ('2024-04-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS orders_p202405 PARTITION OF orders "
+                + "FOR VALUES FROM ('2024-05-01') TO ('2024-06-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS products_p202404 PARTITION OF products "
+                + "FOR VALUES FROM ('2024-04-01') TO ('2024-05-01')");
+        verify(jdbcTemplate, times(6)).execute(startsWith("CREATE TABLE IF NOT EXISTS"));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+    
+    @Test
+    void deveDesanexarERemoverSomenteParticoesExpiradas() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString())).thenReturn(true);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("orders"))).thenReturn(List.of(
+                new ManutencaoParticoesPedidos.Particao("orders_p202302", false),
+                new ManutencaoParticoesPedidos.Particao("orders_p202303", false),
+                new ManutencaoParticoesPedidos.Particao("orders_legado", false)));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("products"))).thenReturn(List.of(
+                new ManutencaoParticoesPedidos.Particao("products_p202301", true)));
+        
+        // When
+        manutencao.manter();
+        
+        // Then
+        InOrder ordem = inOrder(jdbcTemplate);
+        ordem.verify(jdbcTemplate).execute("ALTER TABLE orders DETACH PARTITION orders_p202302 CONCURRENTLY");
+        ordem.verify(jdbcTemplate).execute("DROP TABLE orders_p202302");
+        ordem.verify(jdbcTemplate).execute("ALTER TABLE products DETACH PARTITION products_p202301 FINALIZE");
+        ordem.verify(jdbcTemplate).execute("DROP TABLE products_p202301");
+        verify(jdbcTemplate, times(2)).execute(startsWith("DROP TABLE")); // Março/2023 ainda está na retenção
+    }
+    
+    @Test
+    void deveIgnorarTabelasNaoParticionadas() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString())).thenReturn(false);
+        
+        // When
+        manutencao.manter();
+        
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+    
+    @Test
+    void deveRemoverReivindicacoesExpiradasEmLotesAteOLoteVirIncompleto() {
+        // Given
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString())).thenReturn(true);
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.of(2023, 3, 1, 0, 0));
+        when(jdbcTemplate.update(startsWith("DELETE FROM order_external_ids"), eq(limite), eq(2)))
+                .thenReturn(2, 2, 1);
+        
+        // When
+        manutencao.manter();
+        
+        // Then: março/2023 é o primeiro mês mantido; as reivindicações anteriores são as das partições removidas
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM order_external_ids"), eq(limite), eq(2));
+    }
+    
+    @Test
+    void naoDeveRemoverReivindicacoesSemRetencao() {
+        // Given
+        manutencao = new ManutencaoParticoesPedidos(jdbcTemplate, true, 2, 0, 2, CLOCK);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyString())).thenReturn(true);
+        
+        // When
+        manutencao.manter();
+        
+        // Then
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+    
+    @Test
+    void deveReconhecerSomenteNomesNoPadraoMensal() {
+        assertEquals("orders_p202401", ManutencaoParticoesPedidos.nomeParticao("orders", YearMonth.of(2024, 1)));
+        assertEquals(YearMonth.of(2024, 1), ManutencaoParticoesPedidos.mesDaParticao("orders", "orders_p202401"));
+        assertNull(ManutencaoParticoesPedidos.mesDaParticao("orders", "orders_p2024"));
+        assertNull(ManutencaoParticoesPedidos.mesDaParticao("orders", "orders_pabcdef"));
+        assertNull(ManutencaoParticoesPedidos.mesDaParticao("orders", "products_p202401"));
+    }
+}
\ No newline at end of file
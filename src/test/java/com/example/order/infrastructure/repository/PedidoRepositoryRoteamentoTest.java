@@ -0,0 +1,63 @@
+package com.example.order.infrastructure.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Transações declaradas em {@link PedidoRepository}, aplicadas como o Spring Data aplica
+ * (interceptor de transação sobre a interface), com o roteamento entre primário e réplica.
+ */
+class PedidoRepositoryRoteamentoTest {
+    
+    private DataSource primario;
+    private DataSource replica;
+    private PedidoRepository pedidoRepository;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        primario = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        when(primario.getConnection()).thenReturn(mock(Connection.class));
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setTargetDataSource(new RoteamentoDataSource(primario, List.of(replica)));
+        
+        // O repositório "consulta" pela conexão da transação corrente, como o JPA faria
+        PedidoRepository alvo = mock(PedidoRepository.class);
+        when(alvo.findByExternalId(anyString())).thenAnswer(invocacao -> {
+            DataSourceUtils.getConnection(dataSource).prepareStatement("SELECT 1");
+            return Optional.empty();
+        });
+        
+        ProxyFactory proxy = new ProxyFactory(alvo);
+        proxy.addInterface(PedidoRepository.class);
+        proxy.addAdvice(new TransactionInterceptor(new DataSourceTransactionManager(dataSource),
+                new AnnotationTransactionAttributeSource()));
+        pedidoRepository = (PedidoRepository) proxy.getProxy();
+    }
+    
+    @Test
+    void buscaPorExternalIdForaDeTransacaoVaiParaAReplica() throws SQLException {
+        pedidoRepository.findByExternalId("EXT-001");
+        
+        verify(replica).getConnection();
+        verify(primario, never()).getConnection();
+    }
+}
\ No newline at end of file
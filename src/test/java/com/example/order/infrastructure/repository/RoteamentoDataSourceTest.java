@@ -0,0 +1,96 @@
+package com.example.order.infrastructure.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoteamentoDataSourceTest {
+    
+    private DataSource primario;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Connection conexaoPrimario;
+    private Connection conexaoA;
+    private Connection conexaoB;
+    private RoteamentoDataSource roteamento;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        primario = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        conexaoPrimario = mock(Connection.class);
+        conexaoA = mock(Connection.class);
+        conexaoB = mock(Connection.class);
+        when(primario.getConnection()).thenReturn(conexaoPrimario);
+        when(replicaA.getConnection()).thenReturn(conexaoA);
+        when(replicaB.getConnection()).thenReturn(conexaoB);
+        roteamento = new RoteamentoDataSource(primario, List.of(replicaA, replicaB));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+    
+    @Test
+    void escritaEForaDeTransacaoVaoAoPrimario() throws SQLException {
+        assertSame(conexaoPrimario, roteamento.getConnection());
+        
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        assertSame(conexaoPrimario, roteamento.getConnection());
+    }
+    
+    @Test
+    void leituraSeAlternaEntreAsReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertSame(conexaoA, roteamento.getConnection());
+        assertSame(conexaoB, roteamento.getConnection());
+        assertSame(conexaoA, roteamento.getConnection());
+    }
+    
+    @Test
+    void leituraForcadaNoPrimarioIgnoraAsReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        Connection conexao = RoteamentoDataSource.noPrimario(() -> {
+            try {
+                return roteamento.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        
+        assertSame(conexaoPrimario, conexao);
+        assertSame(conexaoA, roteamento.getConnection());
+    }
+    
+    @Test
+    void replicaSemConexaoCaiNoPrimario() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertSame(conexaoPrimario, roteamento.getConnection());
+        assertSame(conexaoB, roteamento.getConnection());
+    }
+    
+    @Test
+    void semReplicasTudoVaiAoPrimario() throws SQLException {
+        RoteamentoDataSource semReplicas = new RoteamentoDataSource(primario, List.of());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        
+        assertSame(conexaoPrimario, semReplicas.getConnection());
+    }
+}
\ No newline at end of file